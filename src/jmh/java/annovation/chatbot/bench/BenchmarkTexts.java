@@ -0,0 +1,23 @@
+package annovation.chatbot.bench;
+
+// 벤치마크용 한글/영문 혼합 텍스트 생성
+final class BenchmarkTexts {
+
+    private static final String[] WORDS = {
+            "안녕하세요", "오늘", "날씨가", "정말", "좋네요", "hello", "world", "spring", "chat",
+            "대화", "요약", "메시지", "benchmark", "latency", "토큰", "입니다."
+    };
+
+    private BenchmarkTexts() {
+    }
+
+    static String text(int length, long seed) {
+        StringBuilder builder = new StringBuilder(length + 16);
+        int i = 0;
+        while (builder.length() < length) {
+            builder.append(WORDS[(int) ((seed + i++ * 7L) % WORDS.length)]).append(' ');
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
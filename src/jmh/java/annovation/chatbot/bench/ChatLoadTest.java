@@ -0,0 +1,233 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.ChatBotApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// H2(in-memory) + 스텁 모델로 애플리케이션을 띄우고, 여러 SSE 클라이언트로 generate-stream 을 호출하는 부하 테스트
+// TTFT(첫 토큰까지 시간), 초당 토큰 수, 전체 응답 시간 p50/p99 를 출력한다
+//
+// 실행: ./gradlew loadTest -Dloadtest.clients=200 -Dloadtest.turns=5
+public class ChatLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 100);
+        int turns = Integer.getInteger("loadtest.turns", 5);
+
+        try (ConfigurableApplicationContext context = start(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadTestResult result = run(baseUrl, clients, turns);
+            result.print(System.out);
+        }
+    }
+
+    static ConfigurableApplicationContext start(String... args) throws IOException {
+        return start(new String[0], args);
+    }
+
+    // extraProperties 로 실행 모드 등 설정을 바꿔서 실행
+    // DB 는 실행마다 새로 만들어지므로 장기 기억/보관 파일도 임시 디렉터리에 둔다
+    // (./memory, ./archive 에 남은 이전 실행의 파일이 같은 ID 의 새 채팅방에 섞이지 않도록)
+    static ConfigurableApplicationContext start(String[] extraProperties, String... args) throws IOException {
+        Path memoryDirectory = Files.createTempDirectory("loadtest-memory");
+        Path archiveDirectory = Files.createTempDirectory("loadtest-archive");
+
+        return new SpringApplicationBuilder(ChatBotApplication.class, StubChatModelConfiguration.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.ai.openai.api-key=stub",
+                        "chatbot.memory.directory=" + memoryDirectory,
+                        "chatbot.archive.directory=" + archiveDirectory,
+                        // 스텁 모델이므로 업스트림 한도 대신 동시 호출 수만 제한
+                        "chatbot.admission.requests-per-minute=1000000",
+                        "chatbot.admission.tokens-per-minute=1000000000"
+                )
+                // 기본값보다 나중에 넣어야 같은 키를 덮어쓸 수 있음
+                .properties(extraProperties)
+                .run(args);
+    }
+
+    static LoadTestResult run(String baseUrl, int clients, int turns) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        LoadTestResult result = new LoadTestResult(clients * turns);
+        long startedAt = System.nanoTime();
+
+        // 클라이언트마다 채팅방 하나를 만들고 turns 번 대화
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+
+            for (int client = 0; client < clients; client++) {
+                int clientNo = client;
+                futures.add(executor.submit(() -> {
+                    long chatRoomId = createRoom(httpClient, baseUrl);
+                    for (int turn = 0; turn < turns; turn++) {
+                        streamTurn(httpClient, baseUrl, chatRoomId,
+                                "client %d turn %d 질문입니다".formatted(clientNo, turn), result);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        result.elapsedNanos = System.nanoTime() - startedAt;
+        return result;
+    }
+
+    private static long createRoom(HttpClient httpClient, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/ai/chat"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return OBJECT_MAPPER.readTree(response.body()).get("id").asLong();
+    }
+
+    private static void streamTurn(HttpClient httpClient, String baseUrl, long chatRoomId, String message,
+            LoadTestResult result) {
+        String url = baseUrl + "/ai/chat/generate-stream/" + chatRoomId
+                + "?message=" + URLEncoder.encode(message, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        long startedAt = System.nanoTime();
+        long firstTokenAt = 0;
+        long tokens = 0;
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                result.errors.incrementAndGet();
+                return;
+            }
+
+            result.streamOpened();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+
+                    String data = line.substring("data:".length());
+                    if (data.equals("[DONE]")) {
+                        break;
+                    }
+
+                    if (firstTokenAt == 0) {
+                        firstTokenAt = System.nanoTime();
+                    }
+                    tokens += countTokens(data);
+                }
+            } finally {
+                result.streamClosed();
+            }
+        } catch (IOException | InterruptedException e) {
+            result.errors.incrementAndGet();
+            return;
+        }
+
+        result.record(firstTokenAt == 0 ? 0 : firstTokenAt - startedAt, System.nanoTime() - startedAt, tokens);
+    }
+
+    // 스텁 모델은 토큰마다 공백을 붙이므로 프레임 text 의 공백 수가 토큰 수
+    private static long countTokens(String frame) throws IOException {
+        JsonNode node = OBJECT_MAPPER.readTree(frame);
+        String text = node.path("text").asText();
+        return text.chars().filter(c -> c == ' ').count();
+    }
+
+    static class LoadTestResult {
+
+        private final long[] ttftNanos;
+        private final long[] latencyNanos;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong openStreams = new AtomicLong();
+        private final AtomicLong peakOpenStreams = new AtomicLong();
+        private long elapsedNanos;
+
+        LoadTestResult(int capacity) {
+            this.ttftNanos = new long[capacity];
+            this.latencyNanos = new long[capacity];
+        }
+
+        void streamOpened() {
+            peakOpenStreams.accumulateAndGet(openStreams.incrementAndGet(), Math::max);
+        }
+
+        void streamClosed() {
+            openStreams.decrementAndGet();
+        }
+
+        void record(long ttft, long latency, long tokenCount) {
+            int index = (int) completed.getAndIncrement();
+            ttftNanos[index] = ttft;
+            latencyNanos[index] = latency;
+            tokens.addAndGet(tokenCount);
+        }
+
+        void print(PrintStream out) {
+            int count = (int) completed.get();
+            long[] ttft = Arrays.copyOf(ttftNanos, count);
+            long[] latency = Arrays.copyOf(latencyNanos, count);
+            Arrays.sort(ttft);
+            Arrays.sort(latency);
+
+            double seconds = elapsedNanos / 1e9;
+            out.printf("requests=%d errors=%d elapsed=%.1fs peakOpenStreams=%d%n", count, errors.get(), seconds,
+                    peakOpenStreams.get());
+            out.printf("ttft      p50=%.1fms p99=%.1fms%n", percentileMillis(ttft, 0.50), percentileMillis(ttft, 0.99));
+            out.printf("latency   p50=%.1fms p99=%.1fms%n", percentileMillis(latency, 0.50),
+                    percentileMillis(latency, 0.99));
+            out.printf("throughput %.1f tokens/s, %.1f req/s%n", tokens.get() / seconds, count / seconds);
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.bench.ChatLoadTest.LoadTestResult;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 실행 모드(spring.threads.virtual.enabled = false / true)별 동시 스트림 수와 지연 시간 비교
+// 같은 부하를 두 모드로 차례대로 실행해 결과를 출력한다
+//
+// 실행: ./gradlew executionModeBenchmark -Dloadtest.clients=2000 -Dloadtest.turns=2
+public class ExecutionModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 1000);
+        int turns = Integer.getInteger("loadtest.turns", 2);
+        // 플랫폼 스레드 모드에서 스레드 풀 크기가 병목이 되는지 보기 위해 Tomcat 스레드 수를 고정
+        String tomcatMaxThreads = System.getProperty("loadtest.tomcatMaxThreads", "200");
+
+        for (String mode : new String[]{"platform", "virtual"}) {
+            String[] properties = {
+                    "spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                    "server.tomcat.threads.max=" + tomcatMaxThreads,
+                    "server.tomcat.max-connections=" + (clients * 2),
+                    "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1"
+            };
+
+            try (ConfigurableApplicationContext context = ChatLoadTest.start(properties, args)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+                LoadTestResult result = ChatLoadTest.run(baseUrl, clients, turns);
+
+                System.out.println("== execution mode: " + mode + " ==");
+                result.print(System.out);
+            }
+        }
+    }
+}
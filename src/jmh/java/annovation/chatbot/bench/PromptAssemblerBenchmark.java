@@ -0,0 +1,63 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.service.PromptAssembler;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.ai.chat.prompt.Prompt;
+
+// generateStream 의 프롬프트 구성 단계 벤치마크
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptAssemblerBenchmark {
+
+    @Param({"3", "20", "100"})
+    private int historyMessages;
+
+    @Param({"50", "1000"})
+    private int messageLength;
+
+    private PromptAssembler promptAssembler;
+    private AIChatRoomPromptContext promptContext;
+
+    @Setup
+    public void setUp() {
+        ChatPromptProperties chatPromptProperties = new ChatPromptProperties();
+        chatPromptProperties.setMaxHistoryMessages(historyMessages);
+        promptAssembler = new PromptAssembler(chatPromptProperties,
+                new ChatMetrics(new SimpleMeterRegistry()));
+
+        List<AIChatRoomMessage> messages = new ArrayList<>(historyMessages);
+        for (long i = 0; i < historyMessages; i++) {
+            messages.add(AIChatRoomMessage.builder()
+                    .id(i + 1)
+                    .userMessage(BenchmarkTexts.text(messageLength, i))
+                    .botMessage(BenchmarkTexts.text(messageLength, i + 7))
+                    .build());
+        }
+
+        promptContext = AIChatRoomPromptContext.builder()
+                .summaryMessage(BenchmarkTexts.text(2000, 42))
+                .previousMessages(messages)
+                .build();
+    }
+
+    @Benchmark
+    public Prompt assemble() {
+        return promptAssembler.assemble(promptContext, "오늘 날씨 어때요?");
+    }
+}
@@ -0,0 +1,61 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.global.search.InvertedIndex;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 대화 기록 검색 인덱스 벤치마크
+// - build : documents 개 턴으로 인덱스를 처음부터 만드는 시간 (재색인 비용)
+// - searchGlobal / searchRoom : 만들어 둔 인덱스에서 한 페이지(20개) 검색하는 시간
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final int ROOMS = 1000;
+
+    @Param({"10000", "100000"})
+    private int documents;
+
+    private String[] texts;
+    private InvertedIndex index;
+
+    @Setup
+    public void setUp() {
+        texts = new String[documents];
+        for (int i = 0; i < documents; i++) {
+            // 흔한 단어 위주의 본문 + 드물게 나오는 단어 하나
+            texts[i] = BenchmarkTexts.text(100, i) + " topic" + (i % 5000) + "\n" + BenchmarkTexts.text(400, i + 7L);
+        }
+        index = build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public InvertedIndex build() {
+        InvertedIndex built = new InvertedIndex();
+        for (int i = 0; i < documents; i++) {
+            built.add(i + 1, i % ROOMS, texts[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public InvertedIndex.Result searchGlobal() {
+        return index.search("topic42 날씨", null, 0, 20, 1.2f, 0.75f);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public InvertedIndex.Result searchRoom() {
+        return index.search("spring 대화 요약", 42L, 0, 20, 1.2f, 0.75f);
+    }
+}
@@ -0,0 +1,90 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.domain.entity.AIChatRoom;
+import annovation.chatbot.domain.service.AIChatRoomService;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 단일 H2 파일 DB 와 샤딩 모드(H2 파일 DB 여러 개)의 대화 턴 저장 처리량 비교
+// 채팅방 rooms 개를 만들고 writers 개 스레드가 채팅방을 돌아가며 턴을 저장(addMessage, 한 건씩 커밋)한다
+//
+// 실행: ./gradlew shardingBenchmark -Dloadtest.shards=4 -Dloadtest.writers=64 -Dloadtest.turns=20000
+public class ShardingComparison {
+
+    public static void main(String[] args) throws Exception {
+        int shards = Integer.getInteger("loadtest.shards", 4);
+        int rooms = Integer.getInteger("loadtest.rooms", 200);
+        int writers = Integer.getInteger("loadtest.writers", 64);
+        int turns = Integer.getInteger("loadtest.turns", 20000);
+
+        Path directory = Files.createTempDirectory("sharding-benchmark");
+
+        for (int shardCount : new int[]{1, shards}) {
+            List<String> properties = new ArrayList<>(List.of(
+                    // 배경 작업이 저장 처리량에 섞이지 않도록 끔
+                    "chatbot.compaction.enabled=false",
+                    "chatbot.search.rebuild-on-startup=false",
+                    "spring.datasource.hikari.maximum-pool-size=" + writers
+            ));
+            if (shardCount == 1) {
+                properties.add("spring.datasource.url=jdbc:h2:" + directory.resolve("single") + ";MODE=MySQL");
+            } else {
+                properties.add("chatbot.sharding.enabled=true");
+                for (int i = 0; i < shardCount; i++) {
+                    properties.add("chatbot.sharding.shards[%d].url=jdbc:h2:%s;MODE=MySQL"
+                            .formatted(i, directory.resolve("shard" + i)));
+                }
+            }
+
+            try (ConfigurableApplicationContext context = ChatLoadTest.start(properties.toArray(String[]::new), args)) {
+                double turnsPerSecond = run(context, rooms, writers, turns);
+                System.out.printf("== shards: %d ==%n", shardCount);
+                System.out.printf("saved turns/s: %.0f (rooms=%d, writers=%d, turns=%d)%n",
+                        turnsPerSecond, rooms, writers, turns);
+            }
+        }
+    }
+
+    private static double run(ConfigurableApplicationContext context, int rooms, int writers, int turns)
+            throws Exception {
+        AIChatRoomService aiChatRoomService = context.getBean(AIChatRoomService.class);
+        ChatShardRouter chatShardRouter = context.getBean(ChatShardRouter.class);
+
+        List<Long> chatRoomIds = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            AIChatRoom aiChatRoom = chatShardRouter.callOn(chatShardRouter.nextShard(), aiChatRoomService::createRoom);
+            chatRoomIds.add(aiChatRoom.getId());
+        }
+
+        String userMessage = BenchmarkTexts.text(100, 1);
+        String botMessage = BenchmarkTexts.text(400, 2);
+        int turnsPerWriter = turns / writers;
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            List<Future<?>> futures = new ArrayList<>(writers);
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < turnsPerWriter; i++) {
+                        Long chatRoomId = chatRoomIds.get((writer + i * writers) % chatRoomIds.size());
+                        aiChatRoomService.addMessage(chatRoomId, userMessage, botMessage);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        return turnsPerWriter * writers / seconds;
+    }
+}
@@ -0,0 +1,85 @@
+package annovation.chatbot.bench;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+// 네트워크 없이 동작하는 결정적(deterministic) 스텁 채팅 모델
+// 같은 프롬프트에는 항상 같은 토큰 열을 돌려주며, 첫 토큰 지연과 토큰 간 간격을 설정할 수 있다
+public class StubChatModel implements ChatModel {
+
+    private static final String[] WORDS = {
+            "안녕하세요", "오늘", "날씨가", "좋네요", "hello", "world", "streaming", "token",
+            "대화를", "이어가", "볼까요", "benchmark", "chat", "응답", "입니다", "."
+    };
+
+    private final int tokensPerResponse;
+    private final Duration firstTokenLatency;
+    private final Duration interTokenDelay;
+
+    public StubChatModel(int tokensPerResponse, Duration firstTokenLatency, Duration interTokenDelay) {
+        this.tokensPerResponse = tokensPerResponse;
+        this.firstTokenLatency = firstTokenLatency;
+        this.interTokenDelay = interTokenDelay;
+    }
+
+    // loadtest.* 시스템 프로퍼티로 설정
+    public static StubChatModel fromSystemProperties() {
+        return new StubChatModel(
+                Integer.getInteger("loadtest.tokens", 200),
+                Duration.ofMillis(Long.getLong("loadtest.firstTokenMs", 300)),
+                Duration.ofMillis(Long.getLong("loadtest.tokenDelayMs", 10))
+        );
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        sleep(firstTokenLatency.plus(interTokenDelay.multipliedBy(tokensPerResponse)));
+
+        StringBuilder text = new StringBuilder();
+        int seed = seed(prompt);
+        for (int i = 0; i < tokensPerResponse; i++) {
+            text.append(token(seed, i));
+        }
+
+        return response(text.toString());
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        int seed = seed(prompt);
+
+        Flux<Integer> indexes = interTokenDelay.isZero()
+                ? Flux.range(0, tokensPerResponse)
+                : Flux.range(0, tokensPerResponse).delayElements(interTokenDelay);
+
+        return indexes
+                .delaySubscription(firstTokenLatency)
+                .map(i -> response(token(seed, i)));
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static int seed(Prompt prompt) {
+        return prompt.getContents().hashCode();
+    }
+
+    private static String token(int seed, int index) {
+        return WORDS[Math.floorMod(seed + index * 31, WORDS.length)] + " ";
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package annovation.chatbot.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 부하 테스트 시 Groq 대신 스텁 모델을 사용하도록 교체
+// (admission 등 ChatModel 을 감싸는 계층은 그대로 거치도록 openAiChatModel 빈만 바꿈)
+@Configuration
+public class StubChatModelConfiguration {
+
+    @Bean
+    public static BeanPostProcessor stubChatModelPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "openAiChatModel".equals(beanName) ? StubChatModel.fromSystemProperties() : bean;
+            }
+        };
+    }
+}
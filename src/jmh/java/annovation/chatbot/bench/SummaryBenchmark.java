@@ -0,0 +1,59 @@
+package annovation.chatbot.bench;
+
+import annovation.chatbot.domain.entity.AIChatRoom;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.entity.AIChatRoomSummaryPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// AIChatRoom.buildSummaryMessage 벤치마크 (백그라운드 compaction 이 구간마다 호출)
+// 이미 turns 개의 턴을 요약해 온 채팅방에서 다음 구간 요약을 만드는 비용을 요약 정책별로 측정한다
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SummaryBenchmark {
+
+    @Param({"100", "500"})
+    private int turns;
+
+    @Param({"CUMULATIVE", "ROLLING"})
+    private AIChatRoomSummaryPolicy.Mode mode;
+
+    private AIChatRoomSummaryPolicy summaryPolicy;
+    private List<AIChatRoomMessage> segment;
+    private String previousSummary;
+
+    @Setup
+    public void setUp() {
+        summaryPolicy = new AIChatRoomSummaryPolicy(mode, 4000);
+
+        segment = new ArrayList<>();
+        for (int i = 0; i < AIChatRoom.PREVIEWS_MESSAGES_COUNT; i++) {
+            segment.add(AIChatRoomMessage.builder()
+                    .userMessage(BenchmarkTexts.text(100, 1))
+                    .botMessage(BenchmarkTexts.text(400, 2))
+                    .build());
+        }
+
+        // turns 개까지 구간마다 요약을 이어 붙여 이전 요약을 만든다
+        for (int start = 0; start + segment.size() <= turns; start += segment.size()) {
+            previousSummary = AIChatRoom.buildSummaryMessage(previousSummary, segment,
+                    start, start + segment.size(), summaryPolicy);
+        }
+    }
+
+    @Benchmark
+    public String buildSummaryMessage() {
+        return AIChatRoom.buildSummaryMessage(previousSummary, segment,
+                turns, turns + segment.size(), summaryPolicy);
+    }
+}
@@ -0,0 +1,79 @@
+package annovation.chatbot.domain.controller;
+
+import annovation.chatbot.domain.dto.response.AIChatBatchItemPageResponse;
+import annovation.chatbot.domain.dto.response.AIChatBatchJobResponse;
+import annovation.chatbot.domain.service.ChatBatchService;
+import annovation.chatbot.global.config.ChatBatchProperties;
+import io.swagger.v3.oas.annotations.Operation;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/ai/chat/batch")
+@RequiredArgsConstructor
+public class AIChatBatchController {
+
+    private final ChatBatchService chatBatchService;
+    private final ChatBatchProperties chatBatchProperties;
+
+    @Operation(summary = "대량 생성 작업 등록 (NDJSON : 한 줄에 {\"prompt\": ..., \"chatRoomId\": ...})")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PostMapping(consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public AIChatBatchJobResponse submit(InputStream body) {
+        return chatBatchService.submit(body);
+    }
+
+    @Operation(summary = "대량 생성 작업 진행 상황 조회")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{jobId}")
+    public AIChatBatchJobResponse getJob(@PathVariable Long jobId) {
+        return chatBatchService.getJob(jobId);
+    }
+
+    @Operation(summary = "대량 생성 결과 커서 페이지 조회 (끝난 순서)")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{jobId}/results")
+    public AIChatBatchItemPageResponse getResults(
+            @PathVariable Long jobId,
+            @RequestParam(value = "cursor", defaultValue = "0") int cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        // 페이지 크기는 1 ~ maxPageSize 로 제한
+        int pageSize = size == null ? chatBatchProperties.getDefaultPageSize() : size;
+        pageSize = Math.clamp(pageSize, 1, chatBatchProperties.getMaxPageSize());
+
+        return chatBatchService.getResults(jobId, Math.max(cursor, 0), pageSize);
+    }
+
+    @Operation(summary = "대량 생성 진행 상황과 결과 스트리밍 (SSE)")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> events(
+            @PathVariable Long jobId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        // 다시 연결한 경우 마지막으로 받은 결과 다음부터 전송
+        int cursor = 0;
+        if (lastEventId != null) {
+            try {
+                cursor = Math.max(Integer.parseInt(lastEventId.trim()), 0);
+            } catch (NumberFormatException ignored) {
+                // 다른 형식의 ID 는 처음부터 전송
+            }
+        }
+
+        return chatBatchService.events(jobId, cursor);
+    }
+}
@@ -1,43 +1,80 @@
 package annovation.chatbot.domain.controller;
 
-import static annovation.chatbot.domain.entity.AIChatRoom.PREVIEWS_MESSAGES_COUNT;
-
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgPageResponse;
 import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomShardResponse;
+import annovation.chatbot.domain.dto.response.AIChatSearchPageResponse;
 import annovation.chatbot.domain.entity.AIChatRoom;
-import annovation.chatbot.domain.entity.AIChatRoomMessage;
 import annovation.chatbot.domain.service.AIChatRoomService;
+import annovation.chatbot.domain.service.AIChatRoomTurnSequencer;
+import annovation.chatbot.domain.service.AIChatTurnWriter;
+import annovation.chatbot.domain.service.ChatMemoryService;
+import annovation.chatbot.domain.service.ChatResponseCache;
+import annovation.chatbot.domain.service.ChatSearchService;
+import annovation.chatbot.domain.service.GenerationReplayRegistry;
+import annovation.chatbot.domain.service.GenerationReplayRegistry.ReplayBuffer;
+import annovation.chatbot.domain.service.PromptAssembler;
+import annovation.chatbot.domain.service.SseFrameEncoder;
+import annovation.chatbot.global.config.ChatHistoryProperties;
+import annovation.chatbot.global.config.ChatSearchProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import annovation.chatbot.global.shard.ShardRebalancer;
+import annovation.chatbot.global.upstream.AdmissionControlledChatModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
 
 @RestController
 @RequestMapping("/ai/chat")
 @RequiredArgsConstructor
 public class AIChatController {
 
-    private final OpenAiChatModel chatClient;
+    private final ChatModel chatClient;
     private final AIChatRoomService aiChatRoomService;
+    private final AIChatTurnWriter aiChatTurnWriter;
+    private final PromptAssembler promptAssembler;
+    private final ChatMemoryService chatMemoryService;
+    private final AIChatRoomTurnSequencer aiChatRoomTurnSequencer;
+    private final ChatResponseCache chatResponseCache;
+    private final SseFrameEncoder sseFrameEncoder;
+    private final ChatMetrics chatMetrics;
+    private final Scheduler blockingScheduler;
+    private final GenerationReplayRegistry generationReplayRegistry;
+    private final ChatHistoryProperties chatHistoryProperties;
+    private final ChatSearchService chatSearchService;
+    private final ChatSearchProperties chatSearchProperties;
+    private final ChatShardRouter chatShardRouter;
+    private final ShardRebalancer shardRebalancer;
+    private final ObjectMapper objectMapper;
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/generate")
@@ -48,132 +85,212 @@ public class AIChatController {
             )
             String message
     ) {
-        return chatClient
-                .call(message);
+        // 응답 캐시가 켜져 있으면 같은 질문은 캐시된 응답 또는 진행 중인 호출 결과를 재사용
+        return chatResponseCache.get(message, chatClient.getDefaultOptions(),
+                () -> chatClient.call(message));
     }
 
     @Operation(summary = "채팅방 대화 생성")
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/generate-stream/{chatRoomId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    @Transactional
     public Flux<ServerSentEvent<String>> generateStream(
             @PathVariable Long chatRoomId,
-            @RequestParam(value = "message", defaultValue = "Tell me a joke") String message
+            @RequestParam(value = "message", defaultValue = "Tell me a joke") String message,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
     ) {
-        // 채팅방 ID로 AIChatRoom 조회
-        AIChatRoom aiChatRoom = aiChatRoomService.findById(chatRoomId);
-
-        // aiChatRoom에 저장된 이전 메시지 전체를 가져온다
-        List<AIChatRoomMessage> oldMessages = aiChatRoom.getMessages();
-        // 전체 메시지 개수를 변수에 저장 (나중에 메시지의 길이 체크 등에 활용)
-        int oldMessagesSize = oldMessages.size();
-        // 이전 대화에서 가져올 메시지 수를 제한
-        int previousMessagesSize = PREVIEWS_MESSAGES_COUNT;
-
-        // 이전 대화 내용 가져오기 (최대 10개)
-        // oldMessages 리스트에서 가장 최근의 10개 메시지를 뽑아옴
-        List<Message> previousMessages = oldMessages
-                // 전체 메시지 수가 10개 이상이면 최근 10개, 그렇지 않으면 처음부터 전부 사용
-                .subList(Math.max(0, oldMessagesSize - previousMessagesSize), oldMessagesSize)
-                .stream()
-                .flatMap(msg ->
-                        Stream.of(
-                                new UserMessage(msg.getUserMessage()),
-                                new AssistantMessage(msg.getBotMessage())
-                        )
-                )
-                .collect(Collectors.toList()); // 최종적으로 List<Message> 형태로 수집
-
-        // 시스템 메시지 추가 (한국인 컨텍스트)
-        List<Message> messages = new ArrayList<>();
-        // AI에게 대화 컨텍스트(지침)를 알려주는 시스템 메시지 추가
-        messages.add(new SystemMessage("""
-                당신은 한국인과 대화하고 있습니다.
-                한국의 문화와 정서를 이해하고 있어야 합니다.
-                최대한 한국어/영어만 사용해줘요.
-                한자, 일본어 사용 자제해주세요.
-                영어보다 한국어를 우선적으로 사용해줘요.
-                """));
-
-        // 가장 마지막 요약 메시지를 시스템 메시지 형태로 추가
-        if (!aiChatRoom.getSummaryMessages().isEmpty()) {
-            messages.add(
-                    new SystemMessage(
-                            "지난 대화 요약\n\n" + aiChatRoom.getSummaryMessages()
-                                    .getLast().getMessage()
-                    )
-            );
+        // 연결이 끊겼다가 다시 연결한 경우: 진행 중이거나 끝난 응답에 이어 붙음 (LLM 재호출 없음)
+        Optional<ReplayBuffer> replayBuffer = generationReplayRegistry.find(chatRoomId, lastEventId);
+        if (replayBuffer.isPresent()) {
+            return generationReplayRegistry.attach(replayBuffer.get(), lastEventId);
         }
 
-        messages.addAll(previousMessages);  // 이전 대화 메시지들을 시스템 메시지 뒤에 이어 붙임
-        messages.add(new UserMessage(message)); // 사용자가 현재 입력한 메시지를 추가
+        // 같은 채팅방의 대화는 순서대로 처리 (이전 턴이 저장된 뒤 다음 턴의 컨텍스트를 조회)
+        Flux<ServerSentEvent<String>> generation =
+                aiChatRoomTurnSequencer.sequence(chatRoomId, () -> streamTurn(chatRoomId, message));
+
+        // 응답 생성은 클라이언트 연결이 끊겨도 끝까지 진행되고 재연결을 위해 버퍼에 보관
+        return generationReplayRegistry.attach(generationReplayRegistry.start(chatRoomId, generation));
+    }
+
+    private Flux<ServerSentEvent<String>> streamTurn(Long chatRoomId, String message) {
+        // 채팅방 전체 메시지 대신 최근 메시지와 마지막 요약, 질문과 관련된 과거 대화만 조회 (대화 중인 채팅방은 캐시에서 조회)
+        // DB 조회/인덱스 로딩이 필요할 수 있으므로 Reactor 스레드가 아닌 blockingScheduler 에서 실행
+        // 토큰 예산 안에서 프롬프트 생성 (Groq API에 보낼 메세지)
+        return Mono.fromCallable(() -> promptAssembler.assemble(aiChatRoomService.getPromptContext(chatRoomId),
+                        chatMemoryService.recall(chatRoomId, message), message))
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(prompt -> streamResponse(chatRoomId, message, prompt))
+                // 모델 호출 대기열은 채팅방 단위로 공정하게 나눔
+                .contextWrite(Context.of(AdmissionControlledChatModel.QUEUE_KEY, chatRoomId.toString()));
+    }
 
-        // 프롬프트 생성 (Groq API에 보낼 메세지)
-        Prompt prompt = new Prompt(messages);
+    private Flux<ServerSentEvent<String>> streamResponse(Long chatRoomId, String message, Prompt prompt) {
+        ChatMetrics.StreamObservation observation = chatMetrics.startStream();
 
         // 프롬프트에 대한 응답을 받을 StringBuilder
         StringBuilder fullResponse = new StringBuilder();
 
         // 스트리밍 처리 (각 chunk는 AI가 생성한 텍스트 일부)
-        return chatClient.stream(prompt)
-                .map(chunk -> { // 각 chunk를 SSE(Server-Sent Event)로 변환하는 과정
-                    if (chunk.getResult() == null ||
-                            chunk.getResult().getOutput() == null ||
-                            chunk.getResult().getOutput().getText() == null) {
-
-                        aiChatRoom.addMessage(
-                                message,
-                                fullResponse.toString()
-                        );
-
-                        aiChatRoomService.save(aiChatRoom);
-
-                        return ServerSentEvent.<String>builder()
-                                .data("[DONE]")
-                                .build();
+        Flux<String> texts = chatClient.stream(prompt)
+                .mapNotNull(chunk -> { // 텍스트가 없는 chunk(종료 신호 등)는 건너뜀
+                    if (chunk.getResult() == null || chunk.getResult().getOutput() == null) {
+                        return null;
                     }
-
-                    String text = chunk.getResult().getOutput().getText();
+                    return chunk.getResult().getOutput().getText();
+                })
+                .filter(text -> !text.isEmpty())
+                .doOnNext(text -> {
                     fullResponse.append(text);
-                    return ServerSentEvent.<String>builder()
-                            .data("\"" + text + "\"")
-                            .build();
+                    observation.onChunk(text);
                 });
+
+        // chunk 들을 프레임 단위로 묶어 JSON SSE 로 전송
+        return sseFrameEncoder.encode(texts)
+                // 스트림이 끝나면 완료된 턴을 write-behind 큐에 넣고 [DONE] 전송
+                .concatWith(Mono.defer(() ->
+                        aiChatTurnWriter.submit(
+                                        AIChatTurn.builder()
+                                                .chatRoomId(chatRoomId)
+                                                .userMessage(message)
+                                                .botMessage(fullResponse.toString())
+                                                .build()
+                                )
+                                .then(Mono.just(ServerSentEvent.<String>builder()
+                                        .data("[DONE]")
+                                        .build()))
+                ))
+                .doFinally(observation::finish);
     }
 
     // todo : 로그인 사용자 인증 - @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "채팅방 생성")
     @ResponseStatus(HttpStatus.OK)
     @PostMapping
-    public AIChatRoom createRoom() {
+    public AIChatRoomResponse createRoom() {
         // AIChatRoom 생성
-        AIChatRoom aiChatRoom = aiChatRoomService.createRoom();
+        // 샤딩 모드에서는 샤드를 골라 그 샤드에 생성 (채팅방 ID 에 샤드가 들어감)
+        AIChatRoom aiChatRoom = chatShardRouter.callOn(chatShardRouter.nextShard(), aiChatRoomService::createRoom);
 
-        // 생성된 방의 ID를 반환
-        return aiChatRoom;
+        // 생성된 방의 정보를 반환 (엔티티 대신 DTO)
+        return AIChatRoomResponse.from(aiChatRoom);
     }
 
-    @Operation(summary = "채팅방 조회")
+    @Operation(summary = "채팅방을 다른 샤드로 이동 (샤딩 모드)")
     @ResponseStatus(HttpStatus.OK)
+    @PostMapping("/{chatRoomId}/shard")
+    public AIChatRoomShardResponse moveShard(
+            @PathVariable Long chatRoomId,
+            @RequestParam(value = "shard") int shard
+    ) {
+        return AIChatRoomShardResponse.builder()
+                .chatRoomId(chatRoomId)
+                .shard(shardRebalancer.move(chatRoomId, shard))
+                .build();
+    }
+
+    @Operation(summary = "채팅방 조회")
     @GetMapping("/{chatRoomId}")
-    public AIChatRoom getChatRoom(@PathVariable Long chatRoomId) {
-        AIChatRoom aiChatRoom = aiChatRoomService.findById(chatRoomId);
+    public ResponseEntity<AIChatRoomResponse> getChatRoom(@PathVariable Long chatRoomId, WebRequest webRequest) {
+        // 수정 시간만 먼저 조회해서 변경이 없으면 304 (메시지/요약 조회 없음)
+        if (webRequest.checkNotModified(roomETag(chatRoomId, String.valueOf(aiChatRoomService.getModifyDate(chatRoomId))))) {
+            return null;
+        }
+
+        AIChatRoomResponse aiChatRoom = aiChatRoomService.getRoom(chatRoomId);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(roomETag(chatRoomId, aiChatRoom.getModifyDate()))
+                .body(aiChatRoom);
+    }
 
-        return aiChatRoom;
+    // 채팅방 ETag (응답 DTO 의 modifyDate 와 같은 문자열 형식)
+    private static String roomETag(Long chatRoomId, String modifyDate) {
+        return "\"%d-%s\"".formatted(chatRoomId, modifyDate);
     }
 
     @Operation(summary = "특정 사용자의 채팅방 메세지 기록 조회")
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/{chatRoomId}/messages")
-    @Transactional(readOnly = true)
     public List<AIChatRoomMsgResponse> getMessages(
             @PathVariable Long chatRoomId
     ) {
-        AIChatRoom aiChatRoom = aiChatRoomService.findById(chatRoomId);
+        return aiChatRoomService.getMessages(chatRoomId);
+    }
+
+    @Operation(summary = "채팅방 메세지 기록 커서 페이지 조회")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{chatRoomId}/messages/page")
+    public AIChatRoomMsgPageResponse getMessagesPage(
+            @PathVariable Long chatRoomId,
+            @RequestParam(value = "cursor", defaultValue = "0") long cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        // 페이지 크기는 1 ~ maxPageSize 로 제한
+        int pageSize = size == null ? chatHistoryProperties.getDefaultPageSize() : size;
+        pageSize = Math.clamp(pageSize, 1, chatHistoryProperties.getMaxPageSize());
+
+        return aiChatRoomService.getMessagesPage(chatRoomId, cursor, pageSize);
+    }
+
+    @Operation(summary = "전체 채팅방 대화 기록 검색")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/search")
+    public AIChatSearchPageResponse search(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        return chatSearchService.search(query, null, Math.max(page, 0), searchPageSize(size));
+    }
+
+    @Operation(summary = "채팅방 대화 기록 검색")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{chatRoomId}/search")
+    public AIChatSearchPageResponse searchRoom(
+            @PathVariable Long chatRoomId,
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        return chatSearchService.search(query, chatRoomId, Math.max(page, 0), searchPageSize(size));
+    }
+
+    @Operation(summary = "검색 인덱스 재색인 (DB 에서 다시 만듦)")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PostMapping("/search/rebuild")
+    public void rebuildSearchIndex() {
+        if (!chatSearchService.startRebuild()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "재색인이 이미 진행 중이거나 검색이 비활성화되어 있습니다.");
+        }
+    }
+
+    // 페이지 크기는 1 ~ maxPageSize 로 제한
+    private int searchPageSize(Integer size) {
+        int pageSize = size == null ? chatSearchProperties.getDefaultPageSize() : size;
+        return Math.clamp(pageSize, 1, chatSearchProperties.getMaxPageSize());
+    }
+
+    @Operation(summary = "채팅방 메세지 기록 스트리밍 조회 (NDJSON)")
+    @GetMapping(value = "/{chatRoomId}/messages/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMessages(
+            @PathVariable Long chatRoomId
+    ) {
+        StreamingResponseBody body = outputStream -> {
+            // 메시지 한 건씩 JSON 한 줄로 바로 출력
+            aiChatRoomService.streamMessages(chatRoomId, message -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(message));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
 
-        return aiChatRoom.getMessages()
-                .stream()
-                .map(AIChatRoomMsgResponse::from)
-                .toList();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package annovation.chatbot.domain.controller;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomImportResponse;
+import annovation.chatbot.domain.service.AIChatRoomService;
+import annovation.chatbot.domain.service.AIChatRoomTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/ai/chat")
+@RequiredArgsConstructor
+public class AIChatRoomTransferController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final AIChatRoomTransferService aiChatRoomTransferService;
+    private final AIChatRoomService aiChatRoomService;
+
+    @Operation(summary = "채팅방/메시지/요약 내보내기 (NDJSON, gzip=true 이면 gzip 파일)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "chatRoomId", required = false) Long chatRoomId,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        // 스트리밍을 시작한 뒤에는 상태 코드를 바꿀 수 없으므로 채팅방이 있는지 먼저 확인
+        if (chatRoomId != null) {
+            aiChatRoomService.getModifyDate(chatRoomId);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            if (!gzip) {
+                aiChatRoomTransferService.export(chatRoomId, outputStream);
+                outputStream.flush();
+                return;
+            }
+
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 64 * 1024);
+            aiChatRoomTransferService.export(chatRoomId, gzipOutputStream);
+            gzipOutputStream.finish();
+            gzipOutputStream.flush();
+        };
+
+        String filename = chatRoomId == null ? "chat-rooms.ndjson" : "chat-room-%d.ndjson".formatted(chatRoomId);
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(gzip ? filename + ".gz" : filename)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @Operation(summary = "내보낸 채팅방 가져오기 (NDJSON 또는 gzip, 채팅방은 새 ID 로 만들어짐)")
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "application/gzip",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public AIChatRoomImportResponse importRooms(InputStream body) {
+        return aiChatRoomTransferService.importRooms(body);
+    }
+}
@@ -0,0 +1,17 @@
+package annovation.chatbot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 대량 생성 업로드(NDJSON)의 한 줄 : {"prompt": "...", "chatRoomId": 1}
+// chatRoomId 가 있으면 그 채팅방의 대화로 생성 (최근 대화/요약/장기 기억을 프롬프트에 넣고 결과를 대화 기록에 저장)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIChatBatchPrompt {
+
+    private String prompt;
+
+    private Long chatRoomId;
+}
@@ -0,0 +1,19 @@
+package annovation.chatbot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 현재 질문과 관련된 과거 대화 한 턴 (장기 기억 검색 결과)
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatRoomMemory {
+
+    private Long messageId;
+    private String userMessage;
+    private String botMessage;
+
+    // 현재 질문과의 코사인 유사도
+    private float score;
+}
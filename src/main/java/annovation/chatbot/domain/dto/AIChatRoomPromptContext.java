@@ -0,0 +1,24 @@
+package annovation.chatbot.domain.dto;
+
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 프롬프트 생성에 필요한 최소한의 대화 컨텍스트 (최근 메시지 + 마지막 요약)
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatRoomPromptContext {
+
+    // 마지막 요약 메시지 내용 (요약이 없으면 null)
+    private String summaryMessage;
+
+    // 최근 메시지 목록 (오래된 순)
+    private List<AIChatRoomMessage> previousMessages;
+
+    public boolean hasSummaryMessage() {
+        return summaryMessage != null;
+    }
+}
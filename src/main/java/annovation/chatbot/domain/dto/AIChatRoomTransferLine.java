@@ -0,0 +1,59 @@
+package annovation.chatbot.domain.dto;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 채팅방 내보내기/가져오기 NDJSON 의 한 줄 (type 에 따라 채팅방 / 메시지 / 요약)
+// 채팅방 줄 다음에 그 채팅방의 메시지(오래된 순, 보관된 메시지 포함)와 요약이 이어진다
+// {"type":"room","id":1,"createDate":"...","modifyDate":"..."}
+// {"type":"message","id":10,"chatRoomId":1,"createDate":"...","modifyDate":"...","userMessage":"...","botMessage":"..."}
+// {"type":"summary","id":20,"chatRoomId":1,"createDate":"...","modifyDate":"...","message":"...","startMessageIndex":0,"endMessageIndex":3}
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AIChatRoomTransferLine {
+
+    public static final String ROOM = "room";
+    public static final String MESSAGE = "message";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+
+    // 내보낸 DB 에서의 ID (가져오면 새 ID 로 저장되고, 메시지/요약의 chatRoomId 는 새 채팅방 ID 로 바뀜)
+    private Long id;
+
+    private Long chatRoomId;
+
+    private String createDate;
+
+    private String modifyDate;
+
+    private String userMessage;
+
+    private String botMessage;
+
+    // 요약 내용
+    private String message;
+
+    private Integer startMessageIndex;
+
+    private Integer endMessageIndex;
+
+    public static AIChatRoomTransferLine message(AIChatRoomMsgResponse message) {
+        return AIChatRoomTransferLine.builder()
+                .type(MESSAGE)
+                .id(message.getId())
+                .chatRoomId(message.getChatRoomId())
+                .createDate(message.getCreateDate())
+                .modifyDate(message.getModifyDate())
+                .userMessage(message.getUserMessage())
+                .botMessage(message.getBotMessage())
+                .build();
+    }
+}
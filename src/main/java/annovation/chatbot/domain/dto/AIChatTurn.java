@@ -0,0 +1,16 @@
+package annovation.chatbot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 스트리밍이 끝난 대화 한 턴 (사용자 질문 + 챗봇 응답)
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatTurn {
+
+    private Long chatRoomId;
+    private String userMessage;
+    private String botMessage;
+}
@@ -0,0 +1,21 @@
+package annovation.chatbot.domain.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatBatchItemPageResponse {
+
+    // 끝난 항목만 끝난 순서대로 (아직 실행하지 않은 항목은 끝난 뒤 다음 페이지에 나옴)
+    private List<AIChatBatchItemResponse> items;
+
+    // 다음 조회 시 cursor 로 넘길 값 (받은 항목이 없으면 요청한 cursor 그대로)
+    private long nextCursor;
+
+    // 작업이 끝났고 더 받을 항목이 없으면 false
+    private boolean hasNext;
+}
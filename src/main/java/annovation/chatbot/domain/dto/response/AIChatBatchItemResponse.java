@@ -0,0 +1,34 @@
+package annovation.chatbot.domain.dto.response;
+
+import annovation.chatbot.domain.entity.AIChatBatchItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatBatchItemResponse {
+
+    private long id;
+    private int lineNumber;
+    private Long chatRoomId;
+    private String status;
+    private String result;
+    private String error;
+
+    // 작업 안에서 끝난 순서 (결과 커서)
+    private Integer resultIndex;
+
+    public static AIChatBatchItemResponse from(AIChatBatchItem item) {
+        return AIChatBatchItemResponse.builder()
+                .id(item.getId())
+                .lineNumber(item.getLineNumber())
+                .chatRoomId(item.getChatRoomId())
+                .status(item.getStatus().name())
+                .result(item.getResult())
+                .error(item.getError())
+                .resultIndex(item.getResultIndex())
+                .build();
+    }
+}
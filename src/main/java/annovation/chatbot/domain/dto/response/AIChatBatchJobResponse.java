@@ -0,0 +1,36 @@
+package annovation.chatbot.domain.dto.response;
+
+import annovation.chatbot.domain.entity.AIChatBatchJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatBatchJobResponse {
+
+    private long id;
+    private String status;
+    private int totalItems;
+    private int completedItems;
+    private int failedItems;
+    private String createDate;
+    private String modifyDate;
+
+    // 모든 항목이 끝난 시간 (진행 중이면 null)
+    private String finishDate;
+
+    public static AIChatBatchJobResponse from(AIChatBatchJob job) {
+        return AIChatBatchJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus().name())
+                .totalItems(job.getTotalItems())
+                .completedItems(job.getCompletedItems())
+                .failedItems(job.getFailedItems())
+                .createDate(String.valueOf(job.getCreateDate()))
+                .modifyDate(String.valueOf(job.getModifyDate()))
+                .finishDate(job.getFinishDate() == null ? null : job.getFinishDate().toString())
+                .build();
+    }
+}
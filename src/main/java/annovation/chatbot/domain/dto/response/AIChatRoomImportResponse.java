@@ -0,0 +1,21 @@
+package annovation.chatbot.domain.dto.response;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatRoomImportResponse {
+
+    private int rooms;
+
+    private long messages;
+
+    private long summaryMessages;
+
+    // 파일의 채팅방 ID -> 새로 만든 채팅방 ID
+    private Map<Long, Long> chatRoomIds;
+}
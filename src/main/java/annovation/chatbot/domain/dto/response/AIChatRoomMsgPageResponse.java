@@ -0,0 +1,19 @@
+package annovation.chatbot.domain.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatRoomMsgPageResponse {
+
+    private List<AIChatRoomMsgResponse> messages;
+
+    // 다음 페이지 조회 시 cursor 로 넘길 값 (마지막 메시지 ID, 다음 페이지가 없으면 null)
+    private Long nextCursor;
+
+    private boolean hasNext;
+}
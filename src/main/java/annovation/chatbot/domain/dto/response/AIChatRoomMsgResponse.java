@@ -1,6 +1,7 @@
 package annovation.chatbot.domain.dto.response;
 
 import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,6 +18,13 @@ public class AIChatRoomMsgResponse {
     private String userMessage;
     private String botMessage;
 
+    // JPQL DTO 프로젝션용 생성자 (엔티티를 로딩하지 않고 필요한 컬럼만 조회)
+    public AIChatRoomMsgResponse(Long id, Long chatRoomId, LocalDateTime createDate,
+            LocalDateTime modifyDate, String userMessage, String botMessage) {
+        this(id, chatRoomId, String.valueOf(createDate), String.valueOf(modifyDate),
+                userMessage, botMessage);
+    }
+
     public static AIChatRoomMsgResponse from(AIChatRoomMessage message) {
         return AIChatRoomMsgResponse.builder()
                 .id(message.getId())
@@ -1,6 +1,7 @@
 package annovation.chatbot.domain.dto.response;
 
 import annovation.chatbot.domain.entity.AIChatRoom;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,12 +14,28 @@ public class AIChatRoomResponse {
     private long id;
     private String createDate;
     private String modifyDate;
+    private long messageCount;
+    private long summaryMessageCount;
 
+    // 마지막 메시지 시간 (메시지가 없으면 채팅방 생성 시간)
+    private String lastActivityDate;
+
+    // JPQL DTO 프로젝션용 생성자 (메시지/요약 컬렉션을 로딩하지 않고 개수와 마지막 시간만 조회)
+    public AIChatRoomResponse(Long id, LocalDateTime createDate, LocalDateTime modifyDate,
+            Long messageCount, Long summaryMessageCount, LocalDateTime lastActivityDate) {
+        this(id, String.valueOf(createDate), String.valueOf(modifyDate), messageCount, summaryMessageCount,
+                String.valueOf(lastActivityDate));
+    }
+
+    // 새로 만든 채팅방 (메시지 없음)
     public static AIChatRoomResponse from(AIChatRoom chatRoom) {
         return AIChatRoomResponse.builder()
                 .id(chatRoom.getId())
                 .createDate(chatRoom.getCreateDate().toString())
                 .modifyDate(chatRoom.getModifyDate().toString())
+                .messageCount(0)
+                .summaryMessageCount(0)
+                .lastActivityDate(chatRoom.getCreateDate().toString())
                 .build();
     }
 
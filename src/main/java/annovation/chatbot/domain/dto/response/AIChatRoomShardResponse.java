@@ -0,0 +1,16 @@
+package annovation.chatbot.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 채팅방이 저장된 샤드 (샤딩 모드)
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatRoomShardResponse {
+
+    private long chatRoomId;
+
+    private int shard;
+}
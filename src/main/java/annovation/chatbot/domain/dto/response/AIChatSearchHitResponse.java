@@ -0,0 +1,32 @@
+package annovation.chatbot.domain.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 검색 결과 한 건 (대화 한 턴)
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatSearchHitResponse {
+
+    private long messageId;
+    private long chatRoomId;
+    private String createDate;
+    private String userMessage;
+    private String botMessage;
+
+    // BM25 점수
+    private float score;
+
+    public static AIChatSearchHitResponse of(AIChatRoomMsgResponse message, float score) {
+        return AIChatSearchHitResponse.builder()
+                .messageId(message.getId())
+                .chatRoomId(message.getChatRoomId())
+                .createDate(message.getCreateDate())
+                .userMessage(message.getUserMessage())
+                .botMessage(message.getBotMessage())
+                .score(score)
+                .build();
+    }
+}
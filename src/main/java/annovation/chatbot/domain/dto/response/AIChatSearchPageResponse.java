@@ -0,0 +1,23 @@
+package annovation.chatbot.domain.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class AIChatSearchPageResponse {
+
+    private List<AIChatSearchHitResponse> hits;
+
+    private int page;
+
+    private int size;
+
+    // 검색어가 하나라도 들어 있는 전체 턴 수
+    private int totalHits;
+
+    private boolean hasNext;
+}
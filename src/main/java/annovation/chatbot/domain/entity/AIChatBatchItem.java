@@ -0,0 +1,81 @@
+package annovation.chatbot.domain.entity;
+
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+// 대량 생성 작업의 프롬프트 한 줄과 그 결과
+// 채팅방은 다른 샤드에 있을 수 있으므로 FK 없이 ID 만 저장
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "AICHAT_BATCH_ITEM", indexes = {
+        @Index(name = "idx_aichat_batch_item_job", columnList = "batch_job_id, id"),
+        @Index(name = "idx_aichat_batch_item_result", columnList = "batch_job_id, result_index")
+})
+public class AIChatBatchItem {
+
+    // 업로드 시 배치 insert 가 가능하도록 시퀀스 사용
+    @Id
+    @SequenceId(IdSequences.BATCH_ITEM)
+    private Long id;
+
+    @CreatedDate
+    private LocalDateTime createDate;
+
+    @LastModifiedDate
+    private LocalDateTime modifyDate;
+
+    @Column(name = "batch_job_id", nullable = false)
+    private Long jobId;
+
+    // 업로드한 NDJSON 의 줄 번호 (1 부터)
+    private int lineNumber;
+
+    // 채팅방 대화로 생성할 때의 채팅방 ID (null 이면 채팅방 없이 프롬프트만 생성)
+    private Long chatRoomId;
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String prompt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+
+    // 작업 안에서 끝난 순서 (1 부터, 끝나기 전에는 null)
+    // 항목은 동시에 실행되어 ID 순서와 다르게 끝나므로 결과 조회 커서로는 이 값을 사용
+    @Column(name = "result_index")
+    private Integer resultIndex;
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+}
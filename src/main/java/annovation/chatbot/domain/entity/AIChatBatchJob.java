@@ -0,0 +1,62 @@
+package annovation.chatbot.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+// 대량 생성 작업 (업로드한 NDJSON 한 개)
+// 항목별 결과는 AIChatBatchItem 에 저장되고, 완료/실패 수는 항목이 끝날 때마다 같은 트랜잭션에서 증가시킨다
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "AICHAT_BATCH_JOB")
+public class AIChatBatchJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "batch_job_id")
+    private Long id;
+
+    @CreatedDate
+    private LocalDateTime createDate;
+
+    @LastModifiedDate
+    private LocalDateTime modifyDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private int totalItems;
+
+    private int completedItems;
+
+    private int failedItems;
+
+    // 모든 항목이 끝난 시간 (진행 중이면 null)
+    private LocalDateTime finishDate;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+}
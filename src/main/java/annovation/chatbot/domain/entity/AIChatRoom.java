@@ -1,5 +1,6 @@
 package annovation.chatbot.domain.entity;
 
+import annovation.chatbot.global.util.SummaryCondenser;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,6 +18,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -44,6 +46,11 @@ public class AIChatRoom {
     @LastModifiedDate
     private LocalDateTime modifyDate;
 
+    // 세그먼트 파일(콜드 스토리지)로 옮긴 오래된 메시지 수
+    // 메시지 순번(요약 구간의 start/endMessageIndex)은 이 값 + DB 에 남은 메시지의 순서로 계산한다
+    @ColumnDefault("0")
+    private int archivedMessageCount;
+
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<AIChatRoomSummaryMessage> summaryMessages = new ArrayList<>();
@@ -52,52 +59,21 @@ public class AIChatRoom {
     @Builder.Default
     private List<AIChatRoomMessage> messages = new ArrayList<>();
 
-    public AIChatRoomMessage addMessage(String userMessage, String botMessage) {
-        AIChatRoomMessage message = AIChatRoomMessage
-                .builder()
-                .chatRoom(this)
-                .userMessage(userMessage)
-                .botMessage(botMessage)
-                .build();
-        messages.add(message);
-
-        addSummaryMessageIfNeeded();
-
-        return message;
+    // 마지막 요약 구간의 끝(endMessageIndex, 요약이 없으면 -1) 이후로 요약할 새 구간이 쌓였는지 여부
+    public static boolean needsSummary(long messageCount, int lastSummaryMessageIndex) {
+        return messageCount - PREVIEWS_MESSAGES_COUNT > lastSummaryMessageIndex + 1;
     }
 
-    // 이 메서드는 일정 수 이상의 메시지가 쌓이면, 해당 범위를 기준으로 요약 메시지를 자동 생성하는 기능입니다.
-    // 주로 대화 내용이 너무 많아질 때 LLM이 전체 맥락을 이해하기 어렵기 때문에, 이전 대화를 압축하여 기억시키는 용도로 사용됩니다.
-    private void addSummaryMessageIfNeeded() {
-
-        // 요약이 필요 없으면 바로 리턴
-        // 조건 1: 전체 메시지 수가 PREVIEWS_MESSAGES_COUNT 이하일 경우 (요약할 만큼 대화가 많지 않음)
-        // 조건 2: 이미 요약 메시지가 하나도 없는 경우 (처음 대화인데 요약이 필요 없는 경우)
-        if (messages.size() <= PREVIEWS_MESSAGES_COUNT && summaryMessages.isEmpty()) {
-            return;
-        }
-
-        // 아무 요약도 없으면, -1 넣고 시작점이 0이 되도록 함
-        int lastSummaryMessageIndex =
-                summaryMessages.isEmpty() ? -1 : summaryMessages.getLast().getEndMessageIndex();
-
-        int lastSummaryMessageNo = lastSummaryMessageIndex + 1;
-
-        // 마지막 요약 이후 추가된 메시지가 PREVIEWS_MESSAGES_COUNT 개 이하라면, 요약 안 함
-        if (messages.size() - PREVIEWS_MESSAGES_COUNT <= lastSummaryMessageNo) {
-            return;
-        }
-
-        // 새로운 요약 메시지에 포함될 시작 인덱스와 끝 인덱스 설정
-        int startMessageIndex = lastSummaryMessageIndex + 1;
-        int endMessageIndex = startMessageIndex + PREVIEWS_MESSAGES_COUNT;
-
+    // 이전 요약 + 새 구간(startMessageIndex ~ endMessageIndex 전까지)의 Q&A 로 요약 메시지 내용을 만든다
+    // ROLLING 정책이면 최대 길이 이하로 압축한다 (백그라운드 요약 compaction 에서 사용)
+    public static String buildSummaryMessage(String previousSummary, List<AIChatRoomMessage> segmentMessages,
+            int startMessageIndex, int endMessageIndex, AIChatRoomSummaryPolicy summaryPolicy) {
         StringBuilder messageBuilder = new StringBuilder();
 
         // 가장 마지막 요약 내용이 있을 경우, 그것을 먼저 추가한다
-        if (!summaryMessages.isEmpty()) {
+        if (previousSummary != null) {
             // 마지막 요약 메시지 내용 추가
-            messageBuilder.append(summaryMessages.getLast().getMessage());
+            messageBuilder.append(previousSummary);
             messageBuilder.append("\n"); // 줄바꿈
             messageBuilder.append("\n"); // 한 줄 더 띄움 (가독성용)
         }
@@ -107,23 +83,20 @@ public class AIChatRoom {
                 "== %d번 ~ %d번 내용 요약 ==".formatted(startMessageIndex, endMessageIndex));
         messageBuilder.append("\n");
 
-        // startMessageIndex부터 endMessageIndex 전까지 반복하면서 Q&A 형식으로 메시지 정리
-        for (int i = startMessageIndex; i < endMessageIndex; i++) {
-            AIChatRoomMessage message = messages.get(i); // 각 메시지 가져오기
+        // 구간의 메시지를 Q&A 형식으로 정리
+        for (AIChatRoomMessage message : segmentMessages) {
             messageBuilder.append("Q: ").append(message.getUserMessage()).append("\n"); // 사용자 질문 추가
             messageBuilder.append("A: ").append(message.getBotMessage()).append("\n"); // 챗봇 응답 추가
             messageBuilder.append("\n"); // 각 QA 쌍 사이에 한 줄 띄움
         }
 
-        // 요약 메시지 생성
-        AIChatRoomSummaryMessage summaryMessage = AIChatRoomSummaryMessage
-                .builder()
-                .chatRoom(this) // 현재 채팅방과 연결
-                .message(messageBuilder.toString()) // 요약 메세지
-                .startMessageIndex(startMessageIndex)
-                .endMessageIndex(endMessageIndex)
-                .build();
+        String summary = messageBuilder.toString();
+
+        if (summaryPolicy.isRolling()) {
+            // 요약 크기가 대화 길이에 비례해 커지지 않도록 압축
+            summary = SummaryCondenser.condense(summary, summaryPolicy.getMaxLength());
+        }
 
-        summaryMessages.add(summaryMessage);
+        return summary;
     }
 }
@@ -1,11 +1,12 @@
 package annovation.chatbot.domain.entity;
 
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceId;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -31,8 +32,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @Table(name = "AICHAT_ROOM_MESSAGE")
 public class AIChatRoomMessage {
 
+    // 배치 insert 가 가능하도록 IDENTITY 대신 시퀀스 사용 (구간 단위로 미리 할당, 샤드와 무관하게 증가)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceId(IdSequences.MESSAGE)
     private Long id;
 
     @CreatedDate
@@ -41,7 +43,7 @@ public class AIChatRoomMessage {
     @LastModifiedDate
     private LocalDateTime modifyDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_room_id", nullable = false)
     @JsonBackReference // 무한 재귀 순환으로 인해 JSON 직렬화 시 제외
     private AIChatRoom chatRoom;
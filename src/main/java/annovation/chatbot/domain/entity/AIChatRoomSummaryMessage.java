@@ -1,10 +1,10 @@
 package annovation.chatbot.domain.entity;
 
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import java.time.LocalDateTime;
@@ -26,8 +26,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @EntityListeners(AuditingEntityListener.class)
 public class AIChatRoomSummaryMessage {
 
+    // 배치 insert 가 가능하도록 IDENTITY 대신 시퀀스 사용 (구간 단위로 미리 할당, 샤드와 무관하게 증가)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceId(IdSequences.SUMMARY_MESSAGE)
     private Long id;
 
     @CreatedDate
@@ -0,0 +1,29 @@
+package annovation.chatbot.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 요약 메시지 생성 방식
+// CUMULATIVE : 이전 요약 전체를 복사한 뒤 새 구간을 이어 붙임 (기존 방식, 요약 행이 계속 커짐)
+// ROLLING    : 이전 요약 + 새 구간을 maxLength 이하로 압축하고, 대체된 이전 요약 행은 삭제
+@Getter
+@AllArgsConstructor
+public class AIChatRoomSummaryPolicy {
+
+    public static final AIChatRoomSummaryPolicy CUMULATIVE =
+            new AIChatRoomSummaryPolicy(Mode.CUMULATIVE, Integer.MAX_VALUE);
+
+    private final Mode mode;
+
+    // 요약 메시지 최대 길이 (문자 수)
+    private final int maxLength;
+
+    public boolean isRolling() {
+        return mode == Mode.ROLLING;
+    }
+
+    public enum Mode {
+        CUMULATIVE,
+        ROLLING
+    }
+}
@@ -0,0 +1,34 @@
+package annovation.chatbot.domain.repository;
+
+import annovation.chatbot.domain.entity.AIChatBatchItem;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AIChatBatchItemRepository extends JpaRepository<AIChatBatchItem, Long> {
+
+    // 키셋 페이지 조회: afterId 이후의 아직 실행하지 않은 항목 (ID 순 = 업로드한 줄 순서)
+    List<AIChatBatchItem> findByJobIdAndStatusAndIdGreaterThanOrderById(
+            Long jobId, AIChatBatchItem.Status status, Long afterId, Limit limit);
+
+    // 키셋 페이지 조회: cursor(마지막으로 받은 항목의 resultIndex) 이후에 끝난 항목 (끝난 순)
+    List<AIChatBatchItem> findByJobIdAndResultIndexGreaterThanOrderByResultIndex(
+            Long jobId, Integer cursor, Limit limit);
+
+    // 항목 결과 저장 (이미 끝난 항목이면 0 을 반환)
+    @Modifying
+    @Query("""
+            update AIChatBatchItem i
+            set i.status = :status, i.result = :result, i.error = :error, i.resultIndex = :resultIndex,
+                i.modifyDate = :modifyDate
+            where i.id = :itemId
+            and i.status = annovation.chatbot.domain.entity.AIChatBatchItem.Status.PENDING
+            """)
+    int finish(@Param("itemId") Long itemId, @Param("status") AIChatBatchItem.Status status,
+            @Param("result") String result, @Param("error") String error,
+            @Param("resultIndex") int resultIndex, @Param("modifyDate") LocalDateTime modifyDate);
+}
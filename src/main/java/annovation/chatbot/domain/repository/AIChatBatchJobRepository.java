@@ -0,0 +1,41 @@
+package annovation.chatbot.domain.repository;
+
+import annovation.chatbot.domain.entity.AIChatBatchJob;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AIChatBatchJobRepository extends JpaRepository<AIChatBatchJob, Long> {
+
+    // 가장 먼저 올라온 진행 중 작업 (작업은 올라온 순서대로 하나씩 실행)
+    Optional<AIChatBatchJob> findFirstByStatusOrderById(AIChatBatchJob.Status status);
+
+    // 항목 하나가 끝날 때마다 완료/실패 수 증가 (작업 엔티티를 로딩하지 않음)
+    // 작업 행이 잠기므로 같은 작업의 항목 결과는 끝난 순서대로 커밋된다
+    @Modifying
+    @Query("""
+            update AIChatBatchJob j
+            set j.completedItems = j.completedItems + :completed,
+                j.failedItems = j.failedItems + :failed,
+                j.modifyDate = :modifyDate
+            where j.id = :jobId
+            """)
+    int addProgress(@Param("jobId") Long jobId, @Param("completed") int completed, @Param("failed") int failed,
+            @Param("modifyDate") LocalDateTime modifyDate);
+
+    // 끝난 항목 수 (addProgress 후 같은 트랜잭션에서 읽으면 방금 끝난 항목의 순번)
+    @Query("select j.completedItems + j.failedItems from AIChatBatchJob j where j.id = :jobId")
+    int countFinishedItems(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("""
+            update AIChatBatchJob j
+            set j.status = annovation.chatbot.domain.entity.AIChatBatchJob.Status.COMPLETED,
+                j.finishDate = :finishDate, j.modifyDate = :finishDate
+            where j.id = :jobId
+            """)
+    int complete(@Param("jobId") Long jobId, @Param("finishDate") LocalDateTime finishDate);
+}
@@ -0,0 +1,84 @@
+package annovation.chatbot.domain.repository;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface AIChatRoomMessageRepository extends JpaRepository<AIChatRoomMessage, Long> {
+
+    // 채팅방의 최신 메시지 limit 개만 최신순으로 조회 (전체 컬렉션 로딩 방지)
+    List<AIChatRoomMessage> findByChatRoomIdOrderByIdDesc(Long chatRoomId, Limit limit);
+
+    long countByChatRoomId(Long chatRoomId);
+
+    // 채팅방 메시지 중 offset 번째(0부터, ID 순)부터 limit 개 조회 (요약 구간 조회용)
+    @Query("""
+            select m from AIChatRoomMessage m
+            where m.chatRoom.id = :chatRoomId
+            order by m.id
+            limit :limit offset :offset
+            """)
+    List<AIChatRoomMessage> findRangeByChatRoomId(
+            @Param("chatRoomId") Long chatRoomId, @Param("offset") int offset, @Param("limit") int limit);
+
+    // 채팅방 메시지 전체를 DTO 프로젝션으로 조회
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse(
+                m.id, m.chatRoom.id, m.createDate, m.modifyDate, m.userMessage, m.botMessage)
+            from AIChatRoomMessage m
+            where m.chatRoom.id = :chatRoomId
+            order by m.id
+            """)
+    List<AIChatRoomMsgResponse> findResponsesByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    // 키셋 페이지 조회: cursor(마지막으로 받은 메시지 ID) 이후 메시지를 limit 개 조회
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse(
+                m.id, m.chatRoom.id, m.createDate, m.modifyDate, m.userMessage, m.botMessage)
+            from AIChatRoomMessage m
+            where m.chatRoom.id = :chatRoomId and m.id > :cursor
+            order by m.id
+            """)
+    List<AIChatRoomMsgResponse> findResponsesByChatRoomIdAfter(
+            @Param("chatRoomId") Long chatRoomId, @Param("cursor") long cursor, Limit limit);
+
+    // DB 커서로 cursor 이후 메시지를 한 건씩 읽는 스트림 (트랜잭션 안에서 사용 후 반드시 close)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse(
+                m.id, m.chatRoom.id, m.createDate, m.modifyDate, m.userMessage, m.botMessage)
+            from AIChatRoomMessage m
+            where m.chatRoom.id = :chatRoomId and m.id > :cursor
+            order by m.id
+            """)
+    Stream<AIChatRoomMsgResponse> streamResponsesByChatRoomIdAfter(
+            @Param("chatRoomId") Long chatRoomId, @Param("cursor") long cursor);
+
+    // 메시지 ID 목록으로 DTO 프로젝션 조회 (검색 결과 내용 조회용, 순서 보장 없음)
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse(
+                m.id, m.chatRoom.id, m.createDate, m.modifyDate, m.userMessage, m.botMessage)
+            from AIChatRoomMessage m
+            where m.id in :ids
+            """)
+    List<AIChatRoomMsgResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 채팅방의 메시지 중 ID 목록에 있는 것만 DTO 프로젝션 조회 (다른 채팅방 메시지는 제외, 순서 보장 없음)
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse(
+                m.id, m.chatRoom.id, m.createDate, m.modifyDate, m.userMessage, m.botMessage)
+            from AIChatRoomMessage m
+            where m.chatRoom.id = :chatRoomId and m.id in :ids
+            """)
+    List<AIChatRoomMsgResponse> findResponsesByChatRoomIdAndIdIn(
+            @Param("chatRoomId") Long chatRoomId, @Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,68 @@
 package annovation.chatbot.domain.repository;
 
+import annovation.chatbot.domain.dto.response.AIChatRoomResponse;
 import annovation.chatbot.domain.entity.AIChatRoom;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AIChatRoomRepository extends JpaRepository<AIChatRoom, Long> {
 
+    // 채팅방 조회 응답 (컬렉션 로딩 없이 개수/마지막 메시지 시간을 서브쿼리로 조회)
+    @Query("""
+            select new annovation.chatbot.domain.dto.response.AIChatRoomResponse(
+                r.id, r.createDate, r.modifyDate,
+                r.archivedMessageCount + (select count(m) from AIChatRoomMessage m where m.chatRoom = r),
+                (select count(s) from AIChatRoomSummaryMessage s where s.chatRoom = r),
+                coalesce((select max(m.createDate) from AIChatRoomMessage m where m.chatRoom = r), r.createDate))
+            from AIChatRoom r
+            where r.id = :chatRoomId
+            """)
+    Optional<AIChatRoomResponse> findResponseById(@Param("chatRoomId") Long chatRoomId);
+
+    // ETag 비교용 수정 시간만 조회
+    @Query("select r.modifyDate from AIChatRoom r where r.id = :chatRoomId")
+    Optional<LocalDateTime> findModifyDateById(@Param("chatRoomId") Long chatRoomId);
+
+    // 세그먼트 파일로 옮긴 메시지 수
+    @Query("select r.archivedMessageCount from AIChatRoom r where r.id = :chatRoomId")
+    Optional<Integer> findArchivedMessageCountById(@Param("chatRoomId") Long chatRoomId);
+
+    // 보관 메시지 수 갱신 (다른 보관 작업과 겹치면 0 을 반환)
+    @Modifying
+    @Query("""
+            update AIChatRoom r set r.archivedMessageCount = :archivedMessageCount
+            where r.id = :chatRoomId and r.archivedMessageCount = :expectedArchivedMessageCount
+            """)
+    int updateArchivedMessageCount(@Param("chatRoomId") Long chatRoomId,
+            @Param("expectedArchivedMessageCount") int expectedArchivedMessageCount,
+            @Param("archivedMessageCount") int archivedMessageCount);
+
+    // 메시지/요약이 추가된 채팅방의 수정 시간 갱신 (채팅방 엔티티를 로딩하지 않음)
+    @Modifying
+    @Query("update AIChatRoom r set r.modifyDate = :modifyDate where r.id in :chatRoomIds")
+    int touch(@Param("chatRoomIds") Collection<Long> chatRoomIds, @Param("modifyDate") LocalDateTime modifyDate);
+
+    // afterId 이후 채팅방 중 마지막 요약(endMessageIndex) 이후로 요약할 구간이 쌓인 채팅방 ID (backfill 용, 키셋 순회)
+    // 조건은 AIChatRoom.needsSummary 와 같음
+    @Query("""
+            select r.id from AIChatRoom r
+            where r.id > :afterId
+            and r.archivedMessageCount + (select count(m) from AIChatRoomMessage m where m.chatRoom = r)
+                - :previewsMessagesCount
+                > coalesce((select max(s.endMessageIndex) from AIChatRoomSummaryMessage s where s.chatRoom = r), -1) + 1
+            order by r.id
+            """)
+    List<Long> findIdsNeedingSummary(@Param("afterId") long afterId,
+            @Param("previewsMessagesCount") int previewsMessagesCount, Limit limit);
+
+    // afterId 이후 채팅방 ID (전체 채팅방 키셋 순회용)
+    @Query("select r.id from AIChatRoom r where r.id > :afterId order by r.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,19 @@
+package annovation.chatbot.domain.repository;
+
+import annovation.chatbot.domain.entity.AIChatRoomSummaryMessage;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AIChatRoomSummaryMessageRepository extends JpaRepository<AIChatRoomSummaryMessage, Long> {
+
+    // 채팅방의 가장 마지막 요약 메시지 한 건만 조회
+    Optional<AIChatRoomSummaryMessage> findFirstByChatRoomIdOrderByIdDesc(Long chatRoomId);
+
+    // ROLLING 정책에서 새 요약에 흡수된 이전 요약 삭제
+    @Modifying
+    @Query("delete from AIChatRoomSummaryMessage s where s.chatRoom.id = :chatRoomId")
+    int deleteByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+}
@@ -0,0 +1,151 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.entity.AIChatRoomSummaryMessage;
+import annovation.chatbot.domain.repository.AIChatRoomMessageRepository;
+import annovation.chatbot.domain.repository.AIChatRoomRepository;
+import annovation.chatbot.domain.repository.AIChatRoomSummaryMessageRepository;
+import annovation.chatbot.global.archive.ChatSegmentStore;
+import annovation.chatbot.global.config.ChatArchiveProperties;
+import annovation.chatbot.global.shard.ShardKey;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 요약이 끝난 오래된 메시지를 DB 에서 채팅방별 압축 세그먼트 파일(콜드 스토리지)로 옮기고 다시 읽는 서비스
+// 1. (트랜잭션) 옮길 메시지 조회 : 마지막 요약 구간 이전 메시지 중 최근 keepRecentMessages 개를 제외한 오래된 메시지
+// 2. 세그먼트 파일에 블록 추가 후 디스크 동기화
+// 3. (트랜잭션) 채팅방의 보관 메시지 수를 늘리고 DB 에서 삭제
+// 3 이 실패하면 파일에 쓴 블록은 보관 메시지 수 밖에 있으므로 읽을 때 무시되고 다음 보관 때 잘려 나간다
+// 1 ~ 3 은 채팅방의 세그먼트 잠금 안에서 실행되므로 같은 채팅방의 보관 작업은 한 번에 하나만 진행된다
+// (오래된 보관 메시지 수로 append 해서 커밋된 블록을 잘라내는 일이 없음)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIChatRoomArchiveService {
+
+    private final AIChatRoomRepository aiChatRoomRepository;
+    private final AIChatRoomMessageRepository aiChatRoomMessageRepository;
+    private final AIChatRoomSummaryMessageRepository aiChatRoomSummaryMessageRepository;
+    private final ChatSegmentStore chatSegmentStore;
+    private final ChatArchiveProperties chatArchiveProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    // 옮긴 메시지 수를 반환
+    public int archive(@ShardKey Long chatRoomId) {
+        if (!chatArchiveProperties.isEnabled()) {
+            return 0;
+        }
+
+        return chatSegmentStore.withRoomLock(chatRoomId, () -> archiveLocked(chatRoomId));
+    }
+
+    private int archiveLocked(Long chatRoomId) {
+        ArchiveCandidate candidate = transactionTemplate.execute(status -> findCandidate(chatRoomId));
+        if (candidate == null) {
+            return 0;
+        }
+
+        List<AIChatRoomMsgResponse> messages = candidate.messages();
+        chatSegmentStore.append(chatRoomId, candidate.archivedMessageCount(), messages.stream()
+                .map(message -> new ChatSegmentStore.Entry(message.getId(), message.getCreateDate(),
+                        message.getModifyDate(), message.getUserMessage(), message.getBotMessage()))
+                .toList());
+
+        Boolean committed = transactionTemplate.execute(status -> {
+            int updated = aiChatRoomRepository.updateArchivedMessageCount(chatRoomId,
+                    candidate.archivedMessageCount(), candidate.archivedMessageCount() + messages.size());
+            if (updated == 0) {
+                // 잠금 밖에서 보관 메시지 수가 바뀜 (채팅방 이동 등)
+                return false;
+            }
+
+            aiChatRoomMessageRepository.deleteAllByIdInBatch(
+                    messages.stream().map(AIChatRoomMsgResponse::getId).toList());
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(committed)) {
+            log.warn("메시지 보관이 다른 작업과 겹쳐 취소되었습니다. chatRoomId={}", chatRoomId);
+            return 0;
+        }
+
+        return messages.size();
+    }
+
+    private ArchiveCandidate findCandidate(Long chatRoomId) {
+        int archivedMessageCount = archivedMessageCount(chatRoomId);
+
+        // 요약에 포함된 메시지(마지막 요약의 endMessageIndex 까지)만 옮김
+        int summarizedMessageCount = aiChatRoomSummaryMessageRepository
+                .findFirstByChatRoomIdOrderByIdDesc(chatRoomId)
+                .map(AIChatRoomSummaryMessage::getEndMessageIndex)
+                .orElse(-1) + 1;
+        long messageCount = archivedMessageCount + aiChatRoomMessageRepository.countByChatRoomId(chatRoomId);
+
+        long archiveUntil = Math.min(summarizedMessageCount,
+                messageCount - chatArchiveProperties.getKeepRecentMessages());
+        int archiveSize = (int) Math.min(archiveUntil - archivedMessageCount,
+                chatArchiveProperties.getMaxBatchMessages());
+
+        if (archiveSize < chatArchiveProperties.getMinBatchMessages()) {
+            return null;
+        }
+
+        // DB 에 남은 메시지 중 가장 오래된 것부터
+        List<AIChatRoomMsgResponse> messages = aiChatRoomMessageRepository
+                .findResponsesByChatRoomIdAfter(chatRoomId, 0, Limit.of(archiveSize));
+
+        return new ArchiveCandidate(archivedMessageCount, messages);
+    }
+
+    public int archivedMessageCount(@ShardKey Long chatRoomId) {
+        return aiChatRoomRepository.findArchivedMessageCountById(chatRoomId).orElse(0);
+    }
+
+    // 보관 작업을 막은 채로 실행 (그동안 보관 메시지 수와 세그먼트 파일이 바뀌지 않음)
+    public <T> T withArchiveLock(Long chatRoomId, Supplier<T> action) {
+        return chatSegmentStore.withRoomLock(chatRoomId, action);
+    }
+
+    // 보관된 메시지 중 cursor 이후 메시지를 최대 limit 개 조회
+    public List<AIChatRoomMsgResponse> readAfter(Long chatRoomId, int archivedMessageCount, long cursor, int limit) {
+        return chatSegmentStore.readAfter(chatRoomId, archivedMessageCount, cursor, limit).stream()
+                .map(entry -> toResponse(chatRoomId, entry))
+                .toList();
+    }
+
+    // 보관된 메시지 중 cursor 이후 메시지를 한 건씩 전달
+    public void forEachAfter(Long chatRoomId, int archivedMessageCount, long cursor,
+            Consumer<AIChatRoomMsgResponse> consumer) {
+        chatSegmentStore.forEachAfter(chatRoomId, archivedMessageCount, cursor,
+                entry -> consumer.accept(toResponse(chatRoomId, entry)));
+    }
+
+    // 보관된 메시지 한 건 조회 (인덱스에서 블록을 찾아 그 블록만 읽음)
+    public Optional<AIChatRoomMsgResponse> find(Long chatRoomId, int archivedMessageCount, long messageId) {
+        return readAfter(chatRoomId, archivedMessageCount, messageId - 1, 1).stream()
+                .filter(message -> message.getId() == messageId)
+                .findFirst();
+    }
+
+    private static AIChatRoomMsgResponse toResponse(Long chatRoomId, ChatSegmentStore.Entry entry) {
+        return AIChatRoomMsgResponse.builder()
+                .id(entry.id())
+                .chatRoomId(chatRoomId)
+                .createDate(entry.createDate())
+                .modifyDate(entry.modifyDate())
+                .userMessage(entry.userMessage())
+                .botMessage(entry.botMessage())
+                .build();
+    }
+
+    private record ArchiveCandidate(int archivedMessageCount, List<AIChatRoomMsgResponse> messages) {
+    }
+}
@@ -0,0 +1,135 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.global.config.ChatCompactionProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// 대화 응답 경로 밖에서 채팅방 요약을 만드는 백그라운드 compaction
+// - 턴이 저장된 채팅방을 dirty 로 표시해 두었다가 주기적으로 batchSize 개씩 꺼내 parallelism 개까지 동시에 요약
+// - backfill: 기존 채팅방 전체를 ID 순으로 훑으며 밀린 요약을 채움 (실행마다 한 batch 씩 진행)
+// 진행 상황은 채팅방별 마지막 요약의 endMessageIndex(watermark)로 판단하므로 재시작해도 이어서 처리된다
+// 요약이 끝난 채팅방은 이어서 오래된 메시지를 콜드 스토리지로 옮긴다 (chatbot.archive)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIChatRoomCompactionScheduler implements InitializingBean {
+
+    private final AIChatRoomService aiChatRoomService;
+    private final AIChatRoomArchiveService aiChatRoomArchiveService;
+    private final ChatCompactionProperties chatCompactionProperties;
+    private final ChatMetrics chatMetrics;
+    private final Scheduler blockingScheduler;
+    private final ChatShardRouter chatShardRouter;
+
+    private final Set<Long> dirtyChatRoomIds = ConcurrentHashMap.newKeySet();
+
+    // 다음 backfill 을 시작할 채팅방 ID (null 이면 backfill 없음)
+    private volatile Long backfillCursor;
+
+    // 요약 실행 중 여부 (한 번에 하나만 실행)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public void afterPropertiesSet() {
+        if (chatCompactionProperties.isBackfillOnStartup()) {
+            backfillCursor = 0L;
+        }
+    }
+
+    // 새 턴이 저장된 채팅방 (커밋 후 호출)
+    public void markDirty(Long chatRoomId) {
+        dirtyChatRoomIds.add(chatRoomId);
+    }
+
+    // 기존 채팅방 전체 backfill 시작
+    public void startBackfill() {
+        backfillCursor = 0L;
+    }
+
+    // 요약은 오래 걸릴 수 있으므로 다른 예약 작업과 함께 쓰는 @Scheduled 스레드를 막지 않고 blockingScheduler 에서 실행
+    // 이전 실행이 아직 끝나지 않았으면 이번 주기는 건너뜀
+    @Scheduled(fixedDelayString = "${chatbot.compaction.interval:5s}")
+    public void compact() {
+        if (!chatCompactionProperties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Mono.defer(() -> compactAll(pollDirty(chatCompactionProperties.getBatchSize())))
+                .then(Mono.defer(this::backfill))
+                .subscribeOn(blockingScheduler)
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, e -> log.error("채팅방 요약 실행 실패", e));
+    }
+
+    private Mono<Void> backfill() {
+        Long cursor = backfillCursor;
+        if (cursor == null) {
+            return Mono.empty();
+        }
+
+        List<Long> chatRoomIds = chatShardRouter.mergeIds(shard -> aiChatRoomService
+                .findChatRoomIdsNeedingSummary(cursor, chatCompactionProperties.getBatchSize()),
+                chatCompactionProperties.getBatchSize());
+
+        return compactAll(chatRoomIds).doOnSuccess(done -> {
+            backfillCursor = chatRoomIds.size() < chatCompactionProperties.getBatchSize()
+                    ? null
+                    : chatRoomIds.getLast();
+            if (backfillCursor == null) {
+                log.info("채팅방 요약 backfill 완료");
+            }
+        });
+    }
+
+    private List<Long> pollDirty(int limit) {
+        List<Long> chatRoomIds = new ArrayList<>();
+
+        Iterator<Long> iterator = dirtyChatRoomIds.iterator();
+        while (chatRoomIds.size() < limit && iterator.hasNext()) {
+            chatRoomIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        return chatRoomIds;
+    }
+
+    private Mono<Void> compactAll(List<Long> chatRoomIds) {
+        return Flux.fromIterable(chatRoomIds)
+                .flatMap(chatRoomId -> Mono.fromCallable(() -> compact(chatRoomId))
+                                .subscribeOn(blockingScheduler)
+                                .onErrorResume(e -> {
+                                    log.error("채팅방 요약 실패. chatRoomId={}", chatRoomId, e);
+                                    return Mono.empty();
+                                }),
+                        chatCompactionProperties.getParallelism())
+                .then();
+    }
+
+    private boolean compact(Long chatRoomId) {
+        boolean remaining = chatMetrics.recordDb("compact_summary", () ->
+                aiChatRoomService.compactSummary(chatRoomId, chatCompactionProperties.getMaxSegmentsPerRoom()));
+
+        // 요약이 끝난 오래된 메시지는 세그먼트 파일로 옮겨 DB 를 작게 유지
+        chatMetrics.recordDb("archive_messages", () -> aiChatRoomArchiveService.archive(chatRoomId));
+
+        // 한 번에 다 못 만든 구간은 다음 실행에서 이어서 처리
+        if (remaining) {
+            markDirty(chatRoomId);
+        }
+        return remaining;
+    }
+}
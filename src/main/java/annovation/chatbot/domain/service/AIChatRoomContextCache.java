@@ -0,0 +1,278 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.global.config.ChatContextCacheProperties;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+// 채팅방별 최근 대화 컨텍스트(마지막 요약 + 최근 턴 링 버퍼) 캐시
+// 대화 중인 채팅방은 DB 조회 없이 프롬프트를 만들 수 있다
+// 캐시 통계(hit/miss/eviction)는 cache.* 메트릭(cache=chat.room.context)으로 노출된다
+// 턴은 DB 저장보다 먼저 반영되므로, 아직 저장되지 않은 턴(pending)을 채팅방별로 추적해서
+// DB 에서 다시 읽을 때 빠지거나 두 번 들어가지 않게 한다
+// 쓰기(턴 추가, 저장 시작/끝, 무효화)마다 채팅방의 쓰기 세대(generation)를 올리고,
+// DB 조회 전후로 세대가 같을 때만 조회 결과를 캐시에 넣는다 (다르면 캐시하지 않은 결과를 반환)
+@Component
+public class AIChatRoomContextCache {
+
+    // 조회 중에 쓰기가 겹치면 다시 조회하는 횟수 (넘으면 캐시하지 않은 결과 반환)
+    private static final int MAX_LOAD_ATTEMPTS = 2;
+
+    private final ChatContextCacheProperties chatContextCacheProperties;
+    private final int ringBufferSize;
+    private final Cache<Long, ChatRoomContext> cache;
+
+    // 채팅방별 저장 대기/저장 중인 턴과 쓰기 세대 (쓰기와 조회가 모두 끝나면 항목 삭제)
+    private final Map<Long, RoomWrites> roomWrites = new ConcurrentHashMap<>();
+
+    public AIChatRoomContextCache(
+            ChatContextCacheProperties chatContextCacheProperties,
+            ChatPromptProperties chatPromptProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.chatContextCacheProperties = chatContextCacheProperties;
+        this.ringBufferSize = chatPromptProperties.getMaxHistoryMessages();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(chatContextCacheProperties.getMaximumSize())
+                .expireAfterAccess(chatContextCacheProperties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.room.context");
+    }
+
+    // 캐시에 있으면 캐시에서, 없으면 loader 로 DB 에서 조회 (조회 중 쓰기가 없었을 때만 캐시에 저장)
+    public AIChatRoomPromptContext get(Long chatRoomId,
+            Function<Long, AIChatRoomPromptContext> loader) {
+        if (!chatContextCacheProperties.isEnabled()) {
+            return loader.apply(chatRoomId);
+        }
+
+        ChatRoomContext context = cache.getIfPresent(chatRoomId);
+        if (context != null) {
+            return context.snapshot();
+        }
+
+        return load(chatRoomId, loader).snapshot();
+    }
+
+    // 완료된 턴을 캐시된 컨텍스트에 바로 반영 (DB 저장 완료를 기다리지 않음)
+    // 캐시 항목의 키 잠금 안에서 처리되므로, 조회 결과를 캐시에 넣는 것과 겹치지 않는다
+    public void append(AIChatTurn turn) {
+        if (!chatContextCacheProperties.isEnabled()) {
+            return;
+        }
+
+        cache.asMap().compute(turn.getChatRoomId(), (chatRoomId, context) -> {
+            roomWrites.compute(chatRoomId, (id, writes) -> {
+                RoomWrites updated = writes == null ? new RoomWrites() : writes;
+                updated.pending.add(turn);
+                updated.generation++;
+                return updated;
+            });
+
+            if (context != null) {
+                context.append(toMessage(turn));
+            }
+            return context;
+        });
+    }
+
+    // 턴 저장 트랜잭션 시작 전에 호출 (저장 중에는 DB 조회 결과를 캐시하지 않음)
+    public void committing(List<AIChatTurn> turns) {
+        if (!chatContextCacheProperties.isEnabled()) {
+            return;
+        }
+
+        for (AIChatTurn turn : turns) {
+            roomWrites.computeIfPresent(turn.getChatRoomId(), (id, writes) -> {
+                writes.committing++;
+                writes.generation++;
+                return writes;
+            });
+        }
+    }
+
+    // 턴 저장이 끝난 뒤(실패 포함) 호출, 이제 DB 조회 결과에 포함되므로 pending 에서 제외
+    public void committed(List<AIChatTurn> turns) {
+        if (!chatContextCacheProperties.isEnabled()) {
+            return;
+        }
+
+        for (AIChatTurn turn : turns) {
+            roomWrites.computeIfPresent(turn.getChatRoomId(), (id, writes) -> {
+                writes.committing = Math.max(writes.committing - 1, 0);
+                writes.pending.remove(turn);
+                writes.generation++;
+                return writes.isIdle() ? null : writes;
+            });
+        }
+    }
+
+    // 새 요약이 커밋되면 캐시된 요약을 교체
+    // 진행 중인 조회가 이전 요약을 읽었을 수 있으므로 그 결과는 캐시에 들어가지 않도록 쓰기 세대를 올린다
+    public void updateSummary(Long chatRoomId, String summaryMessage) {
+        roomWrites.computeIfPresent(chatRoomId, (id, writes) -> {
+            writes.generation++;
+            return writes;
+        });
+
+        ChatRoomContext context = cache.getIfPresent(chatRoomId);
+        if (context == null) {
+            return;
+        }
+
+        context.updateSummary(summaryMessage);
+    }
+
+    // 캐시된 컨텍스트가 DB 와 달라졌을 때 (예: 먼저 반영한 턴의 저장 실패) 비운다
+    // 진행 중인 조회 결과도 캐시에 들어가지 않도록 쓰기 세대를 올린다
+    public void invalidate(Long chatRoomId) {
+        roomWrites.computeIfPresent(chatRoomId, (id, writes) -> {
+            writes.generation++;
+            return writes;
+        });
+        cache.invalidate(chatRoomId);
+    }
+
+    // DB 조회 + 아직 저장되지 않은 턴으로 컨텍스트를 만든다 (키 잠금 밖에서 조회)
+    // 조회 전에 저장 중인 턴이 없고 조회가 끝날 때까지 쓰기 세대가 그대로면, DB 결과에는 pending 턴이 하나도 없다
+    // 이때만 캐시에 넣고, 아니면 다시 조회한 뒤 그래도 겹치면 캐시하지 않은 결과를 반환한다
+    private ChatRoomContext load(Long chatRoomId, Function<Long, AIChatRoomPromptContext> loader) {
+        for (int attempt = 1; ; attempt++) {
+            WriteState before = beginLoad(chatRoomId);
+            try {
+                AIChatRoomPromptContext promptContext = loader.apply(chatRoomId);
+
+                if (before.committing() == 0) {
+                    ChatRoomContext context = new ChatRoomContext(promptContext, ringBufferSize);
+                    before.pending().forEach(turn -> context.append(toMessage(turn)));
+
+                    ChatRoomContext installed = cache.asMap().compute(chatRoomId, (id, existing) -> {
+                        if (existing != null) {
+                            return existing;
+                        }
+                        return writeState(id).generation() == before.generation() ? context : null;
+                    });
+                    if (installed != null) {
+                        return installed;
+                    }
+                }
+
+                if (attempt >= MAX_LOAD_ATTEMPTS) {
+                    // 저장 중이던 턴은 DB 결과에 들어 있을 수도 있으므로 지금 저장 대기 중인 턴만 더함
+                    ChatRoomContext context = new ChatRoomContext(promptContext, ringBufferSize);
+                    WriteState after = writeState(chatRoomId);
+                    if (after.committing() == 0) {
+                        after.pending().forEach(turn -> context.append(toMessage(turn)));
+                    }
+                    return context;
+                }
+            } finally {
+                endLoad(chatRoomId);
+            }
+        }
+    }
+
+    // 조회 중에는 항목이 지워지지 않도록 표시하고 (쓰기 세대 유지), 현재 쓰기 상태를 반환
+    private WriteState beginLoad(Long chatRoomId) {
+        WriteState[] state = new WriteState[1];
+        roomWrites.compute(chatRoomId, (id, writes) -> {
+            RoomWrites updated = writes == null ? new RoomWrites() : writes;
+            updated.loading++;
+            state[0] = updated.state();
+            return updated;
+        });
+        return state[0];
+    }
+
+    private void endLoad(Long chatRoomId) {
+        roomWrites.computeIfPresent(chatRoomId, (id, writes) -> {
+            writes.loading--;
+            return writes.isIdle() ? null : writes;
+        });
+    }
+
+    private WriteState writeState(Long chatRoomId) {
+        WriteState[] state = {new WriteState(List.of(), 0, 0)};
+        roomWrites.computeIfPresent(chatRoomId, (id, writes) -> {
+            state[0] = writes.state();
+            return writes;
+        });
+        return state[0];
+    }
+
+    private static AIChatRoomMessage toMessage(AIChatTurn turn) {
+        return AIChatRoomMessage.builder()
+                .userMessage(turn.getUserMessage())
+                .botMessage(turn.getBotMessage())
+                .build();
+    }
+
+    // roomWrites.compute 안에서만 읽고 씀
+    private static class RoomWrites {
+
+        private final List<AIChatTurn> pending = new ArrayList<>();
+        private int committing;
+        private int loading;
+        private long generation;
+
+        boolean isIdle() {
+            return pending.isEmpty() && committing == 0 && loading == 0;
+        }
+
+        WriteState state() {
+            return new WriteState(List.copyOf(pending), committing, generation);
+        }
+    }
+
+    private record WriteState(List<AIChatTurn> pending, int committing, long generation) {
+    }
+
+    private static class ChatRoomContext {
+
+        private final int capacity;
+        private final ArrayDeque<AIChatRoomMessage> recentMessages;
+        private String summaryMessage;
+
+        ChatRoomContext(AIChatRoomPromptContext promptContext, int capacity) {
+            this.capacity = capacity;
+            this.recentMessages = new ArrayDeque<>(capacity);
+            this.summaryMessage = promptContext.getSummaryMessage();
+            promptContext.getPreviousMessages().forEach(this::append);
+        }
+
+        synchronized void append(AIChatRoomMessage message) {
+            if (capacity == 0) {
+                return;
+            }
+            if (recentMessages.size() == capacity) {
+                recentMessages.removeFirst();
+            }
+            recentMessages.addLast(message);
+        }
+
+        synchronized void updateSummary(String summaryMessage) {
+            this.summaryMessage = summaryMessage;
+        }
+
+        synchronized AIChatRoomPromptContext snapshot() {
+            return AIChatRoomPromptContext.builder()
+                    .summaryMessage(summaryMessage)
+                    .previousMessages(new ArrayList<>(recentMessages))
+                    .build();
+        }
+    }
+}
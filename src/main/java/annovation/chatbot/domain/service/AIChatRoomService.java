@@ -1,11 +1,37 @@
 package annovation.chatbot.domain.service;
 
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgPageResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomResponse;
 import annovation.chatbot.domain.entity.AIChatRoom;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.entity.AIChatRoomSummaryMessage;
+import annovation.chatbot.domain.entity.AIChatRoomSummaryPolicy;
+import annovation.chatbot.domain.repository.AIChatRoomMessageRepository;
 import annovation.chatbot.domain.repository.AIChatRoomRepository;
+import annovation.chatbot.domain.repository.AIChatRoomSummaryMessageRepository;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import annovation.chatbot.global.config.ChatSummaryProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.shard.ShardKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 
@@ -14,6 +40,13 @@ import org.springframework.web.server.ResponseStatusException;
 public class AIChatRoomService {
 
     private final AIChatRoomRepository aiChatRoomRepository;
+    private final AIChatRoomMessageRepository aiChatRoomMessageRepository;
+    private final AIChatRoomSummaryMessageRepository aiChatRoomSummaryMessageRepository;
+    private final ChatSummaryProperties chatSummaryProperties;
+    private final ChatPromptProperties chatPromptProperties;
+    private final AIChatRoomContextCache aiChatRoomContextCache;
+    private final AIChatRoomArchiveService aiChatRoomArchiveService;
+    private final ChatMetrics chatMetrics;
 
     @Transactional
     public AIChatRoom createRoom() {
@@ -26,7 +59,7 @@ public class AIChatRoomService {
 
 
     @Transactional
-    public AIChatRoom findById(Long chatRoomId) {
+    public AIChatRoom findById(@ShardKey Long chatRoomId) {
 
         AIChatRoom aiChatRoom = aiChatRoomRepository.findById(chatRoomId)
                 .orElseThrow(
@@ -35,6 +68,275 @@ public class AIChatRoomService {
         return aiChatRoom;
     }
 
+    // 채팅방 조회 응답 (DTO 프로젝션)
+    @Transactional(readOnly = true)
+    public AIChatRoomResponse getRoom(@ShardKey Long chatRoomId) {
+        return aiChatRoomRepository.findResponseById(chatRoomId)
+                .orElseThrow(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "채팅방이 존재하지 않습니다."));
+    }
+
+    // 채팅방 수정 시간 (메시지/요약이 추가될 때마다 갱신되므로 ETag 로 사용)
+    @Transactional(readOnly = true)
+    public LocalDateTime getModifyDate(@ShardKey Long chatRoomId) {
+        return aiChatRoomRepository.findModifyDateById(chatRoomId)
+                .orElseThrow(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "채팅방이 존재하지 않습니다."));
+    }
+
+    // 프롬프트 생성용 컨텍스트 조회
+    // 대화 중인 채팅방은 컨텍스트 캐시에서 바로 반환하고, 캐시에 없을 때만 DB 를 조회한다
+    public AIChatRoomPromptContext getPromptContext(@ShardKey Long chatRoomId) {
+        return aiChatRoomContextCache.get(chatRoomId, this::loadPromptContext);
+    }
+
+    // 채팅방 전체 메시지/요약 컬렉션을 로딩하지 않고, 최근 메시지 N개와 마지막 요약 1건만 조회한다
+    private AIChatRoomPromptContext loadPromptContext(Long chatRoomId) {
+        return chatMetrics.recordDb("load_context", () -> queryPromptContext(chatRoomId));
+    }
+
+    private AIChatRoomPromptContext queryPromptContext(Long chatRoomId) {
+        checkExists(chatRoomId);
+
+        // 최신순으로 조회되므로 프롬프트 순서(오래된 순)에 맞게 뒤집는다
+        List<AIChatRoomMessage> previousMessages = new ArrayList<>(
+                aiChatRoomMessageRepository.findByChatRoomIdOrderByIdDesc(
+                        chatRoomId, Limit.of(chatPromptProperties.getMaxHistoryMessages())));
+        Collections.reverse(previousMessages);
+
+        String summaryMessage = aiChatRoomSummaryMessageRepository
+                .findFirstByChatRoomIdOrderByIdDesc(chatRoomId)
+                .map(AIChatRoomSummaryMessage::getMessage)
+                .orElse(null);
+
+        return AIChatRoomPromptContext.builder()
+                .summaryMessage(summaryMessage)
+                .previousMessages(previousMessages)
+                .build();
+    }
+
+    // 채팅방 메시지 전체 조회 (보관된 메시지 + DB 에 남은 메시지, 엔티티 대신 DTO 프로젝션)
+    @Transactional(readOnly = true)
+    public List<AIChatRoomMsgResponse> getMessages(@ShardKey Long chatRoomId) {
+        checkExists(chatRoomId);
+
+        return readConsistently(chatRoomId, archivedMessageCount -> {
+            List<AIChatRoomMsgResponse> messages = new ArrayList<>(aiChatRoomArchiveService.readAfter(
+                    chatRoomId, archivedMessageCount, 0, Integer.MAX_VALUE));
+            messages.addAll(aiChatRoomMessageRepository.findResponsesByChatRoomId(chatRoomId));
+            return messages;
+        });
+    }
+
+    // 채팅방 메시지 커서 페이지 조회 (cursor 보다 ID 가 큰 메시지를 size 개)
+    // 보관된 범위는 세그먼트 파일에서, 나머지는 DB 에서 이어서 조회한다
+    @Transactional(readOnly = true)
+    public AIChatRoomMsgPageResponse getMessagesPage(@ShardKey Long chatRoomId, long cursor, int size) {
+        checkExists(chatRoomId);
+
+        // 다음 페이지 존재 여부 확인을 위해 한 개 더 조회
+        List<AIChatRoomMsgResponse> messages = readConsistently(chatRoomId, archivedMessageCount -> {
+            List<AIChatRoomMsgResponse> page = new ArrayList<>(aiChatRoomArchiveService.readAfter(
+                    chatRoomId, archivedMessageCount, cursor, size + 1));
+
+            int remaining = size + 1 - page.size();
+            if (remaining > 0) {
+                long dbCursor = page.isEmpty() ? cursor : page.getLast().getId();
+                page.addAll(aiChatRoomMessageRepository
+                        .findResponsesByChatRoomIdAfter(chatRoomId, dbCursor, Limit.of(remaining)));
+            }
+            return page;
+        });
+
+        boolean hasNext = messages.size() > size;
+        if (hasNext) {
+            messages = messages.subList(0, size);
+        }
+
+        return AIChatRoomMsgPageResponse.builder()
+                .messages(messages)
+                .nextCursor(hasNext ? messages.getLast().getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // 채팅방 메시지를 한 건씩 읽어 consumer 에 전달 (메시지 수와 무관하게 메모리 사용량 일정)
+    // 보관된 메시지는 세그먼트 블록 단위로, 나머지는 DB 커서로 읽는다
+    // 이미 전달한 메시지는 되돌릴 수 없으므로, DB 쿼리를 시작한 뒤 보관 메시지 수가 그대로인지 확인하고 나서 DB 메시지를 전달한다
+    // 바뀌었으면 (그 사이 옮겨진 메시지가 파일에 있으므로) 마지막으로 전달한 메시지 다음부터 파일을 다시 읽는다
+    @Transactional(readOnly = true)
+    public void streamMessages(@ShardKey Long chatRoomId, Consumer<AIChatRoomMsgResponse> consumer) {
+        checkExists(chatRoomId);
+        forEachMessageAfter(chatRoomId, 0, consumer);
+    }
+
+    // afterId 이후 메시지를 ID 순으로 한 건씩 전달 (재색인/장기 기억 로딩에서 사용, 채팅방이 없으면 아무것도 전달하지 않음)
+    @Transactional(readOnly = true)
+    public void forEachMessageAfter(@ShardKey Long chatRoomId, long afterId, Consumer<AIChatRoomMsgResponse> consumer) {
+        long[] lastId = {afterId};
+        while (true) {
+            int archivedMessageCount = aiChatRoomArchiveService.archivedMessageCount(chatRoomId);
+            aiChatRoomArchiveService.forEachAfter(chatRoomId, archivedMessageCount, lastId[0], message -> {
+                lastId[0] = message.getId();
+                consumer.accept(message);
+            });
+
+            try (Stream<AIChatRoomMsgResponse> messages =
+                    aiChatRoomMessageRepository.streamResponsesByChatRoomIdAfter(chatRoomId, lastId[0])) {
+                if (aiChatRoomArchiveService.archivedMessageCount(chatRoomId) != archivedMessageCount) {
+                    continue;
+                }
+
+                messages.forEach(consumer);
+                return;
+            }
+        }
+    }
+
+    // 세그먼트 파일과 DB 를 나눠 읽는 동안 보관 작업이 커밋되면 (메시지가 DB 에서 파일로 옮겨져 빠질 수 있으므로) 다시 읽음
+    // 계속 겹치면 보관 작업을 막고 읽는다 (일관되지 않은 결과는 반환하지 않음)
+    private <T> T readConsistently(Long chatRoomId, IntFunction<T> reader) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            int archivedMessageCount = aiChatRoomArchiveService.archivedMessageCount(chatRoomId);
+            T result = reader.apply(archivedMessageCount);
+
+            if (aiChatRoomArchiveService.archivedMessageCount(chatRoomId) == archivedMessageCount) {
+                return result;
+            }
+        }
+
+        return aiChatRoomArchiveService.withArchiveLock(chatRoomId,
+                () -> reader.apply(aiChatRoomArchiveService.archivedMessageCount(chatRoomId)));
+    }
+
+    private void checkExists(Long chatRoomId) {
+        if (!aiChatRoomRepository.existsById(chatRoomId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "채팅방이 존재하지 않습니다.");
+        }
+    }
+
+    // 완료된 대화 한 턴을 채팅방에 추가
+    // 채팅방 엔티티(메시지/요약 컬렉션)를 로딩하지 않고 메시지만 insert 한다 (요약은 백그라운드에서 생성)
+    @Transactional
+    public AIChatRoomMessage addMessage(@ShardKey Long chatRoomId, String userMessage, String botMessage) {
+        checkExists(chatRoomId);
+
+        AIChatRoomMessage message = aiChatRoomMessageRepository.save(newMessage(chatRoomId, userMessage, botMessage));
+        aiChatRoomRepository.touch(List.of(chatRoomId), LocalDateTime.now());
+
+        return message;
+    }
+
+    // 여러 채팅방의 완료된 턴을 한 트랜잭션으로 저장 (write-behind writer 에서 사용)
+    // 존재하지 않는 채팅방이 섞여 있으면 FK 제약으로 실패하고, writer 가 한 건씩 다시 저장한다
+    @Transactional
+    public List<AIChatRoomMessage> addMessages(List<AIChatTurn> turns) {
+        List<AIChatRoomMessage> messages = turns.stream()
+                .map(turn -> newMessage(turn.getChatRoomId(), turn.getUserMessage(), turn.getBotMessage()))
+                .toList();
+
+        aiChatRoomMessageRepository.saveAll(messages);
+
+        // 채팅방 조회 ETag 가 바뀌도록 수정 시간 갱신
+        Set<Long> chatRoomIds = turns.stream().map(AIChatTurn::getChatRoomId).collect(Collectors.toSet());
+        aiChatRoomRepository.touch(chatRoomIds, LocalDateTime.now());
+
+        return messages;
+    }
+
+    private AIChatRoomMessage newMessage(Long chatRoomId, String userMessage, String botMessage) {
+        return AIChatRoomMessage.builder()
+                .chatRoom(aiChatRoomRepository.getReferenceById(chatRoomId))
+                .userMessage(userMessage)
+                .botMessage(botMessage)
+                .build();
+    }
+
+    // afterId 이후 요약이 밀린 채팅방 ID 를 limit 개 조회 (backfill 용)
+    @Transactional(readOnly = true)
+    public List<Long> findChatRoomIdsNeedingSummary(long afterId, int limit) {
+        return aiChatRoomRepository.findIdsNeedingSummary(afterId, AIChatRoom.PREVIEWS_MESSAGES_COUNT,
+                Limit.of(limit));
+    }
+
+    // 마지막 요약의 endMessageIndex(watermark) 이후 쌓인 구간을 최대 maxSegments 개 요약
+    // 아직 요약할 구간이 남아 있으면 true
+    @Transactional
+    public boolean compactSummary(@ShardKey Long chatRoomId, int maxSegments) {
+        AIChatRoomSummaryMessage lastSummary = aiChatRoomSummaryMessageRepository
+                .findFirstByChatRoomIdOrderByIdDesc(chatRoomId)
+                .orElse(null);
+        int watermark = lastSummary == null ? -1 : lastSummary.getEndMessageIndex();
+
+        // 세그먼트 파일로 옮긴 메시지도 순번에 포함
+        int archivedMessageCount = aiChatRoomArchiveService.archivedMessageCount(chatRoomId);
+        long messageCount = archivedMessageCount + aiChatRoomMessageRepository.countByChatRoomId(chatRoomId);
+
+        if (!AIChatRoom.needsSummary(messageCount, watermark)) {
+            return false;
+        }
+
+        // 요약할 구간 전체의 메시지를 한 번에 조회
+        int firstMessageIndex = watermark + 1;
+        int lastEndMessageIndex = watermark;
+        int segments = 0;
+        while (segments < maxSegments && AIChatRoom.needsSummary(messageCount, lastEndMessageIndex)) {
+            lastEndMessageIndex = lastEndMessageIndex + 1 + AIChatRoom.PREVIEWS_MESSAGES_COUNT;
+            segments++;
+        }
+        // 보관은 요약이 끝난 메시지만 하므로 요약할 구간은 항상 DB 에 있음
+        if (firstMessageIndex < archivedMessageCount) {
+            throw new IllegalStateException("요약되지 않은 메시지가 보관되었습니다. chatRoomId=" + chatRoomId);
+        }
+        List<AIChatRoomMessage> messages = aiChatRoomMessageRepository.findRangeByChatRoomId(
+                chatRoomId, firstMessageIndex - archivedMessageCount, lastEndMessageIndex - firstMessageIndex);
+
+        AIChatRoomSummaryPolicy summaryPolicy = chatSummaryProperties.toPolicy();
+        AIChatRoom aiChatRoom = aiChatRoomRepository.getReferenceById(chatRoomId);
+        String summary = lastSummary == null ? null : lastSummary.getMessage();
+        List<AIChatRoomSummaryMessage> summaryMessages = new ArrayList<>();
+
+        for (int startMessageIndex = firstMessageIndex; startMessageIndex < lastEndMessageIndex;
+                startMessageIndex += AIChatRoom.PREVIEWS_MESSAGES_COUNT + 1) {
+            int endMessageIndex = startMessageIndex + AIChatRoom.PREVIEWS_MESSAGES_COUNT;
+            summary = AIChatRoom.buildSummaryMessage(summary,
+                    messages.subList(startMessageIndex - firstMessageIndex, endMessageIndex - firstMessageIndex),
+                    startMessageIndex, endMessageIndex, summaryPolicy);
+
+            // ROLLING 정책은 요약 행을 하나만 유지하므로 마지막 구간의 요약만 저장
+            if (summaryPolicy.isRolling()) {
+                summaryMessages.clear();
+            }
+            summaryMessages.add(AIChatRoomSummaryMessage.builder()
+                    .chatRoom(aiChatRoom)
+                    .message(summary)
+                    .startMessageIndex(startMessageIndex)
+                    .endMessageIndex(endMessageIndex)
+                    .build());
+        }
+
+        if (summaryPolicy.isRolling()) {
+            // 이전 요약은 새 요약에 포함되었으므로 제거
+            aiChatRoomSummaryMessageRepository.deleteByChatRoomId(chatRoomId);
+        }
+        aiChatRoomSummaryMessageRepository.saveAll(summaryMessages);
+        aiChatRoomRepository.touch(List.of(chatRoomId), LocalDateTime.now());
+
+        summaryMessages.forEach(summaryMessage ->
+                chatMetrics.recordSummaryCreated(summaryMessage.getMessage().length()));
+
+        // 커밋 전에 캐시를 바꾸면 롤백되었을 때 저장되지 않은 요약이 남으므로 커밋 후 반영
+        String committedSummary = summary;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aiChatRoomContextCache.updateSummary(chatRoomId, committedSummary);
+            }
+        });
+
+        return AIChatRoom.needsSummary(messageCount, lastEndMessageIndex);
+    }
+
     @Transactional
     public void save(AIChatRoom aiChatRoom) {
         aiChatRoomRepository.save(aiChatRoom);
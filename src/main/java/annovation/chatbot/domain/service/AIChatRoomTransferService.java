@@ -0,0 +1,351 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatRoomTransferLine;
+import annovation.chatbot.domain.dto.response.AIChatRoomImportResponse;
+import annovation.chatbot.domain.entity.AIChatRoom;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.repository.AIChatRoomRepository;
+import annovation.chatbot.global.config.ChatTransferProperties;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceIdAllocator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+// 채팅방/메시지/요약 NDJSON 내보내기/가져오기 (백업, 다른 DB 로 이전)
+// - 내보내기 : 채팅방 ID 를 키셋으로 조금씩 조회하고, 채팅방마다 메시지(보관 파일 포함)와 요약을 커서로 읽어 한 줄씩 출력
+//   엔티티를 로딩하지 않으므로 메시지 수와 무관하게 메모리 사용량이 일정
+// - 가져오기 : 한 줄씩 읽어 importBatchSize 개씩 JDBC batch insert (파일의 채팅방 ID -> 새 채팅방 ID 대응만 기억)
+//   메시지/요약 ID 는 엔티티와 같은 SequenceIdAllocator 에서 받으므로 애플리케이션이 저장하는 메시지와 겹치지 않는다
+//   보관 파일로 옮겨졌던 메시지도 DB 에 넣으므로 가져온 채팅방의 보관 메시지 수는 0 이고 요약 순번은 그대로 맞는다
+//   (오래된 메시지는 이후 compaction 이 다시 보관) JPA 감사를 거치지 않아 원래 생성/수정 시간이 유지된다
+// 샤딩 모드에서 내보내기는 샤드별로 채팅방을 훑고, 가져오기는 채팅방마다 새 채팅방을 만들 샤드(nextShard)에 저장한다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIChatRoomTransferService {
+
+    private static final String INSERT_ROOM = """
+            insert into AICHAT_ROOM (create_date, modify_date, archived_message_count) values (?, ?, 0)""";
+    private static final String INSERT_MESSAGE = """
+            insert into AICHAT_ROOM_MESSAGE (id, create_date, modify_date, chat_room_id, user_message, bot_message)
+            values (?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_SUMMARY = """
+            insert into AICHAT_ROOM_SUMMARY_MESSAGE
+            (id, create_date, modify_date, chat_room_chat_room_id, message, start_message_index, end_message_index)
+            values (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final AIChatRoomService aiChatRoomService;
+    private final AIChatRoomRepository aiChatRoomRepository;
+    private final AIChatRoomCompactionScheduler aiChatRoomCompactionScheduler;
+    private final ChatSearchService chatSearchService;
+    private final ChatTransferProperties chatTransferProperties;
+    private final ChatShardRouter chatShardRouter;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // chatRoomId 가 null 이면 전체 채팅방
+    public void export(Long chatRoomId, OutputStream outputStream) {
+        Consumer<AIChatRoomTransferLine> writer = line -> write(outputStream, line);
+
+        if (chatRoomId != null) {
+            exportRoom(chatRoomId, writer);
+            return;
+        }
+
+        int pageSize = chatTransferProperties.getExportPageSize();
+        for (int shard = 0; shard < chatShardRouter.shardCount(); shard++) {
+            int current = shard;
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                List<Long> chatRoomIds = chatShardRouter.callOn(current,
+                        () -> aiChatRoomRepository.findIdsAfter(cursor, Limit.of(pageSize)));
+
+                // 다른 샤드로 옮겨진 뒤 원래 샤드에 남은 행은 건너뜀 (옮겨간 샤드에서 내보냄)
+                chatRoomIds.stream()
+                        .filter(id -> chatShardRouter.shardOf(id) == current)
+                        .forEach(id -> exportRoom(id, writer));
+
+                if (chatRoomIds.size() < pageSize) {
+                    break;
+                }
+                afterId = chatRoomIds.getLast();
+            }
+        }
+    }
+
+    // 채팅방 하나를 한 트랜잭션에서 내보냄 (내보내는 사이 삭제된 채팅방은 건너뜀)
+    private void exportRoom(Long chatRoomId, Consumer<AIChatRoomTransferLine> writer) {
+        chatShardRouter.run(chatRoomId, () -> transactionTemplate.executeWithoutResult(status -> {
+            List<AIChatRoomTransferLine> room = jdbcTemplate.query(
+                    "select chat_room_id, create_date, modify_date from AICHAT_ROOM where chat_room_id = ?",
+                    (resultSet, rowNum) -> AIChatRoomTransferLine.builder()
+                            .type(AIChatRoomTransferLine.ROOM)
+                            .id(resultSet.getLong("chat_room_id"))
+                            .createDate(toText(resultSet.getTimestamp("create_date")))
+                            .modifyDate(toText(resultSet.getTimestamp("modify_date")))
+                            .build(),
+                    chatRoomId);
+            if (room.isEmpty()) {
+                return;
+            }
+            writer.accept(room.getFirst());
+
+            // 보관 파일의 메시지 다음 DB 의 메시지 (오래된 순)
+            aiChatRoomService.streamMessages(chatRoomId,
+                    message -> writer.accept(AIChatRoomTransferLine.message(message)));
+
+            jdbcTemplate.query("""
+                            select id, create_date, modify_date, message, start_message_index, end_message_index
+                            from AICHAT_ROOM_SUMMARY_MESSAGE where chat_room_chat_room_id = ? order by id""",
+                    (RowCallbackHandler) resultSet -> writer.accept(AIChatRoomTransferLine.builder()
+                            .type(AIChatRoomTransferLine.SUMMARY)
+                            .id(resultSet.getLong("id"))
+                            .chatRoomId(chatRoomId)
+                            .createDate(toText(resultSet.getTimestamp("create_date")))
+                            .modifyDate(toText(resultSet.getTimestamp("modify_date")))
+                            .message(resultSet.getString("message"))
+                            .startMessageIndex(resultSet.getInt("start_message_index"))
+                            .endMessageIndex(resultSet.getInt("end_message_index"))
+                            .build()),
+                    chatRoomId);
+        }));
+    }
+
+    private void write(OutputStream outputStream, AIChatRoomTransferLine line) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(line));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // NDJSON 또는 gzip 으로 압축한 NDJSON (앞 2 바이트로 판단)
+    // 잘못된 줄을 만나면 400 으로 중단되고, 그 전까지 insert 된 채팅방은 남는다
+    public AIChatRoomImportResponse importRooms(InputStream body) {
+        Importer importer = new Importer();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(decompress(body), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                importer.accept(lineNumber, parseLine(lineNumber, text));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        importer.flush();
+
+        // 밀린 요약/보관은 백그라운드에서 처리
+        importer.chatRoomIds.values().forEach(aiChatRoomCompactionScheduler::markDirty);
+
+        log.info("채팅방 가져오기 완료. rooms={}, messages={}, summaryMessages={}",
+                importer.chatRoomIds.size(), importer.messages, importer.summaryMessages);
+
+        return AIChatRoomImportResponse.builder()
+                .rooms(importer.chatRoomIds.size())
+                .messages(importer.messages)
+                .summaryMessages(importer.summaryMessages)
+                .chatRoomIds(importer.chatRoomIds)
+                .build();
+    }
+
+    private static InputStream decompress(InputStream body) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(body, 64 * 1024);
+        input.mark(2);
+        int first = input.read();
+        int second = input.read();
+        input.reset();
+
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(input, 64 * 1024);
+        }
+        return input;
+    }
+
+    private AIChatRoomTransferLine parseLine(int lineNumber, String text) {
+        try {
+            return objectMapper.readValue(text, AIChatRoomTransferLine.class);
+        } catch (JsonProcessingException e) {
+            throw invalidLine(lineNumber, "JSON 을 읽을 수 없습니다.");
+        }
+    }
+
+    // 가져오기 한 번의 상태 (채팅방 ID 대응과 insert 대기 중인 한 batch 만 메모리에 둠)
+    private class Importer {
+
+        private final Map<Long, Long> chatRoomIds = new LinkedHashMap<>();
+
+        private final List<Object[]> messageRows = new ArrayList<>();
+        private final List<Object[]> summaryRows = new ArrayList<>();
+
+        // 커밋 후 검색 인덱스에 추가할 메시지
+        private final List<AIChatRoomMessage> indexMessages = new ArrayList<>();
+
+        // batch 는 한 샤드의 행만 담음
+        private int batchShard;
+
+        private long messages;
+        private long summaryMessages;
+
+        void accept(int lineNumber, AIChatRoomTransferLine line) {
+            if (line.getType() == null) {
+                throw invalidLine(lineNumber, "type 이 없습니다.");
+            }
+
+            switch (line.getType()) {
+                case AIChatRoomTransferLine.ROOM -> {
+                    if (line.getId() == null || chatRoomIds.containsKey(line.getId())) {
+                        throw invalidLine(lineNumber, "채팅방 id 가 없거나 중복되었습니다.");
+                    }
+                    chatRoomIds.put(line.getId(), insertRoom(
+                            toTimestamp(lineNumber, line.getCreateDate()), toTimestamp(lineNumber, line.getModifyDate())));
+                }
+                case AIChatRoomTransferLine.MESSAGE -> {
+                    Long chatRoomId = targetChatRoomId(lineNumber, line);
+                    beginRow(chatRoomId);
+                    long id = sequenceIdAllocator.next(IdSequences.MESSAGE);
+
+                    messageRows.add(new Object[]{id, toTimestamp(lineNumber, line.getCreateDate()),
+                            toTimestamp(lineNumber, line.getModifyDate()), chatRoomId,
+                            line.getUserMessage(), line.getBotMessage()});
+                    indexMessages.add(AIChatRoomMessage.builder()
+                            .id(id)
+                            .chatRoom(AIChatRoom.builder().id(chatRoomId).build())
+                            .userMessage(line.getUserMessage())
+                            .botMessage(line.getBotMessage())
+                            .build());
+                }
+                case AIChatRoomTransferLine.SUMMARY -> {
+                    if (line.getStartMessageIndex() == null || line.getEndMessageIndex() == null) {
+                        throw invalidLine(lineNumber, "요약 구간(startMessageIndex, endMessageIndex)이 없습니다.");
+                    }
+                    Long chatRoomId = targetChatRoomId(lineNumber, line);
+                    beginRow(chatRoomId);
+                    long id = sequenceIdAllocator.next(IdSequences.SUMMARY_MESSAGE);
+
+                    summaryRows.add(new Object[]{id, toTimestamp(lineNumber, line.getCreateDate()),
+                            toTimestamp(lineNumber, line.getModifyDate()), chatRoomId, line.getMessage(),
+                            line.getStartMessageIndex(), line.getEndMessageIndex()});
+                }
+                default -> throw invalidLine(lineNumber, "알 수 없는 type 입니다. type=" + line.getType());
+            }
+
+            if (messageRows.size() + summaryRows.size() >= chatTransferProperties.getImportBatchSize()) {
+                flush();
+            }
+        }
+
+        private Long targetChatRoomId(int lineNumber, AIChatRoomTransferLine line) {
+            Long chatRoomId = line.getChatRoomId() == null ? null : chatRoomIds.get(line.getChatRoomId());
+            if (chatRoomId == null) {
+                throw invalidLine(lineNumber, "앞에서 나오지 않은 채팅방입니다. chatRoomId=" + line.getChatRoomId());
+            }
+            return chatRoomId;
+        }
+
+        // 다른 샤드의 행이면 지금까지 모은 batch 를 먼저 저장
+        private void beginRow(Long chatRoomId) {
+            int shard = chatShardRouter.shardOf(chatRoomId);
+            if (shard != batchShard) {
+                flush();
+                batchShard = shard;
+            }
+        }
+
+        void flush() {
+            if (messageRows.isEmpty() && summaryRows.isEmpty()) {
+                return;
+            }
+
+            chatShardRouter.runOn(batchShard, () -> transactionTemplate.executeWithoutResult(status -> {
+                if (!messageRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_MESSAGE, messageRows);
+                }
+                if (!summaryRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SUMMARY, summaryRows);
+                }
+            }));
+            chatSearchService.index(indexMessages);
+
+            messages += messageRows.size();
+            summaryMessages += summaryRows.size();
+            messageRows.clear();
+            summaryRows.clear();
+            indexMessages.clear();
+        }
+    }
+
+    // 새 채팅방을 만들 샤드에 insert 하고 생성된 ID 반환 (ID 에 샤드가 들어감)
+    private Long insertRoom(Timestamp createDate, Timestamp modifyDate) {
+        return chatShardRouter.callOn(chatShardRouter.nextShard(), () -> transactionTemplate.execute(status -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_ROOM, Statement.RETURN_GENERATED_KEYS);
+                statement.setTimestamp(1, createDate);
+                statement.setTimestamp(2, modifyDate);
+                return statement;
+            }, keyHolder);
+            return keyHolder.getKeyAs(Long.class);
+        }));
+    }
+
+    private static Timestamp toTimestamp(int lineNumber, String text) {
+        if (text == null || text.equals("null")) {
+            return Timestamp.valueOf(LocalDateTime.now());
+        }
+
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(text));
+        } catch (DateTimeParseException e) {
+            throw invalidLine(lineNumber, "날짜 형식이 잘못되었습니다. " + text);
+        }
+    }
+
+    private static String toText(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime().toString();
+    }
+
+    private static ResponseStatusException invalidLine(int lineNumber, String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "%d 번째 줄 : %s".formatted(lineNumber, reason));
+    }
+}
@@ -0,0 +1,75 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.global.config.ChatConcurrencyProperties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+// 채팅방별로 대화 턴을 순서대로 실행하는 컴포넌트
+// 같은 채팅방의 턴은 이전 턴이 끝난 뒤 시작하고, 다른 채팅방의 턴은 서로 기다리지 않는다
+// 채팅방마다 대기 중인 턴 수가 maxQueuedTurnsPerRoom 을 넘으면 429 로 거절한다
+@Component
+@RequiredArgsConstructor
+public class AIChatRoomTurnSequencer {
+
+    private final ChatConcurrencyProperties chatConcurrencyProperties;
+
+    // 진행 중이거나 대기 중인 턴이 있는 채팅방만 보관 (모든 턴이 끝나면 제거)
+    private final ConcurrentHashMap<Long, RoomLane> lanes = new ConcurrentHashMap<>();
+
+    // turn 은 이전 턴이 완료(또는 취소)된 뒤에 구독된다
+    // 대기열이 가득 차면 즉시 ResponseStatusException(429) 을 던진다
+    public <T> Flux<T> sequence(Long chatRoomId, Supplier<Flux<T>> turn) {
+        Sinks.Empty<Void> completion = Sinks.empty();
+        Mono<Void> previousTurn = admit(chatRoomId, completion.asMono());
+
+        return previousTurn
+                .thenMany(Flux.defer(turn))
+                .doFinally(signal -> {
+                    completion.tryEmitEmpty();
+                    release(chatRoomId);
+                });
+    }
+
+    private Mono<Void> admit(Long chatRoomId, Mono<Void> completion) {
+        int maxPendingTurns = chatConcurrencyProperties.getMaxQueuedTurnsPerRoom() + 1;
+
+        AtomicReference<Mono<Void>> previousTurn = new AtomicReference<>();
+
+        lanes.compute(chatRoomId, (id, current) -> {
+            RoomLane roomLane = current == null ? new RoomLane() : current;
+
+            if (roomLane.pendingTurns >= maxPendingTurns) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "채팅방에 처리 중인 대화가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+
+            roomLane.pendingTurns++;
+            previousTurn.set(roomLane.tail);
+            roomLane.tail = completion;
+            return roomLane;
+        });
+
+        return previousTurn.get();
+    }
+
+    private void release(Long chatRoomId) {
+        lanes.computeIfPresent(chatRoomId, (id, lane) -> --lane.pendingTurns == 0 ? null : lane);
+    }
+
+    // 채팅방별 실행 순서 정보 (lanes.compute 안에서만 수정)
+    private static class RoomLane {
+
+        private int pendingTurns;
+
+        // 마지막으로 등록된 턴의 완료 신호 (다음 턴은 이 신호를 기다린다)
+        private Mono<Void> tail = Mono.empty();
+    }
+}
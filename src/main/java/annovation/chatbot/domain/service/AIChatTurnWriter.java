@@ -0,0 +1,248 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.global.config.ChatPersistenceProperties;
+import annovation.chatbot.global.config.ChatPersistenceProperties.Durability;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// 완료된 대화 턴을 큐에 모았다가 전용 스레드에서 배치로 저장하는 write-behind writer
+// SSE 스트리밍 스레드에서 DB 저장 지연을 제거하고, 여러 채팅방의 턴을 한 트랜잭션으로 묶어 저장한다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AIChatTurnWriter implements SmartLifecycle {
+
+    // 웹 서버가 먼저 멈춘 뒤(새 턴이 더 이상 들어오지 않을 때) 큐를 비우도록 늦게 종료
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final AIChatRoomService aiChatRoomService;
+    private final ChatPersistenceProperties chatPersistenceProperties;
+    private final AIChatRoomContextCache aiChatRoomContextCache;
+    private final AIChatRoomCompactionScheduler aiChatRoomCompactionScheduler;
+    private final ChatMemoryService chatMemoryService;
+    private final ChatSearchService chatSearchService;
+    private final ChatShardRouter chatShardRouter;
+    private final ChatMetrics chatMetrics;
+
+    // 큐를 거치지 않고 바로 저장할 때 Reactor 스레드를 막지 않도록 사용하는 스케줄러
+    private final Scheduler blockingScheduler;
+
+    private BlockingQueue<PendingTurn> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // 큐에 넣는 것(read)과 종료(write)를 나눠, 종료 후 큐에 남아 저장되지 않는 턴이 없도록 함
+    private final ReentrantReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    // 완료된 턴 저장 요청
+    // durability 가 SYNC 이면 커밋이 끝난 뒤 완료되는 Mono, ASYNC 이면 바로 완료되는 Mono 를 반환
+    public Mono<Void> submit(AIChatTurn turn) {
+        // 다음 요청이 DB 저장 완료를 기다리지 않고 이 턴을 볼 수 있도록 컨텍스트 캐시에 먼저 반영
+        aiChatRoomContextCache.append(turn);
+
+        if (!chatPersistenceProperties.isWriteBehind()) {
+            return Mono.<Void>fromRunnable(() -> write(turn)).subscribeOn(blockingScheduler);
+        }
+
+        PendingTurn pendingTurn = new PendingTurn(turn, new CompletableFuture<>());
+
+        // running 확인과 큐에 넣기를 종료와 겹치지 않게 처리 (종료 중이면 바로 저장)
+        lifecycleLock.readLock().lock();
+        try {
+            if (!running) {
+                return Mono.<Void>fromRunnable(() -> write(turn)).subscribeOn(blockingScheduler);
+            }
+
+            if (!queue.offer(pendingTurn)) {
+                // 큐가 가득 차면 호출한 스레드에서 바로 저장 (배압)
+                log.warn("대화 저장 큐가 가득 차 바로 저장합니다. chatRoomId={}", turn.getChatRoomId());
+                return Mono.<Void>fromRunnable(() -> write(turn)).subscribeOn(blockingScheduler);
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+
+        if (chatPersistenceProperties.getDurability() == Durability.SYNC) {
+            return Mono.fromFuture(pendingTurn.persisted());
+        }
+
+        return Mono.empty();
+    }
+
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(chatPersistenceProperties.getQueueCapacity());
+        running = true;
+
+        writerThread = new Thread(this::runWriter, "chat-turn-writer");
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        // 이 뒤로는 큐에 새 턴이 들어오지 않음 (진행 중인 submit 이 끝날 때까지 대기)
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // writer 종료 직전에 들어온 턴까지 모두 저장
+        List<PendingTurn> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        int batchSize = chatPersistenceProperties.getBatchSize();
+        List<PendingTurn> batch = new ArrayList<>(batchSize);
+
+        // 종료 요청 후에도 큐가 빌 때까지 저장
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTurn first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collectBatch(batch, batchSize);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 첫 턴 이후 maxLinger 동안 batchSize 까지 턴을 더 모은다
+    private void collectBatch(List<PendingTurn> batch, int batchSize) throws InterruptedException {
+        long deadline = System.nanoTime() + chatPersistenceProperties.getMaxLinger().toNanos();
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) {
+                return;
+            }
+
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+
+            PendingTurn next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // 샤딩 모드에서는 샤드별로 나눠 샤드마다 한 트랜잭션으로 저장
+    private void flush(List<PendingTurn> batch) {
+        chatShardRouter.partition(batch, pendingTurn -> pendingTurn.turn().getChatRoomId())
+                .forEach((shard, shardBatch) -> chatShardRouter.runOn(shard, () -> flushShard(shardBatch)));
+    }
+
+    private void flushShard(List<PendingTurn> batch) {
+        List<AIChatTurn> turns = batch.stream().map(PendingTurn::turn).toList();
+        List<AIChatRoomMessage> messages;
+        aiChatRoomContextCache.committing(turns);
+        try {
+            messages = chatMetrics.recordDb("save_turns", () -> aiChatRoomService.addMessages(turns));
+        } catch (RuntimeException e) {
+            log.error("대화 배치 저장 실패, 한 건씩 다시 저장합니다. size={}", batch.size(), e);
+
+            // 배치 중 문제가 된 턴만 실패 처리되도록 한 건씩 재시도
+            for (PendingTurn pendingTurn : batch) {
+                try {
+                    write(pendingTurn.turn());
+                    pendingTurn.persisted().complete(null);
+                } catch (RuntimeException retryException) {
+                    log.error("대화 저장 실패. chatRoomId={}", pendingTurn.turn().getChatRoomId(),
+                            retryException);
+                    pendingTurn.persisted().completeExceptionally(retryException);
+                }
+            }
+            return;
+        } finally {
+            aiChatRoomContextCache.committed(turns);
+        }
+
+        afterCommit(turns, messages);
+        batch.forEach(pendingTurn -> pendingTurn.persisted().complete(null));
+    }
+
+    private void write(AIChatTurn turn) {
+        AIChatRoomMessage message;
+        aiChatRoomContextCache.committing(List.of(turn));
+        try {
+            message = chatMetrics.recordDb("save_turn",
+                    () -> aiChatRoomService.addMessage(turn.getChatRoomId(), turn.getUserMessage(), turn.getBotMessage()));
+        } catch (RuntimeException e) {
+            // 저장 전에 컨텍스트 캐시에 먼저 반영한 턴이므로, 저장되지 않은 턴이 캐시에 남지 않도록 비움
+            aiChatRoomContextCache.invalidate(turn.getChatRoomId());
+            throw e;
+        } finally {
+            aiChatRoomContextCache.committed(List.of(turn));
+        }
+
+        afterCommit(List.of(turn), List.of(message));
+    }
+
+    // 요약과 장기 기억/검색 인덱싱은 응답 경로 밖에서 백그라운드로 처리
+    // 턴은 이미 커밋되었으므로 여기서 실패해도 저장 실패로 보지 않음 (다시 저장하면 같은 턴이 중복 저장됨)
+    private void afterCommit(List<AIChatTurn> turns, List<AIChatRoomMessage> messages) {
+        runAfterCommit("요약 대상 표시", () -> turns.forEach(
+                turn -> aiChatRoomCompactionScheduler.markDirty(turn.getChatRoomId())));
+        runAfterCommit("장기 기억 인덱싱", () -> chatMemoryService.index(messages));
+        runAfterCommit("검색 인덱싱", () -> chatSearchService.index(messages));
+    }
+
+    private void runAfterCommit(String name, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("대화 저장 후 처리 실패 ({})", name, e);
+        }
+    }
+
+    private record PendingTurn(AIChatTurn turn, CompletableFuture<Void> persisted) {
+    }
+}
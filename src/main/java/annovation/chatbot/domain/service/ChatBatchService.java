@@ -0,0 +1,496 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatBatchPrompt;
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.dto.response.AIChatBatchItemPageResponse;
+import annovation.chatbot.domain.dto.response.AIChatBatchItemResponse;
+import annovation.chatbot.domain.dto.response.AIChatBatchJobResponse;
+import annovation.chatbot.domain.entity.AIChatBatchItem;
+import annovation.chatbot.domain.entity.AIChatBatchJob;
+import annovation.chatbot.domain.repository.AIChatBatchItemRepository;
+import annovation.chatbot.domain.repository.AIChatBatchJobRepository;
+import annovation.chatbot.global.config.ChatBatchProperties;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import annovation.chatbot.global.upstream.AdmissionControlledChatModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+// NDJSON 으로 올린 프롬프트 수천 개를 백그라운드에서 생성하는 대량 생성 작업
+// - 업로드한 줄은 모두 PENDING 항목으로 저장하고, 항목이 끝날 때마다 결과를 바로 저장한다
+//   (재시작하면 PENDING 으로 남은 항목부터 이어서 실행, 실행 도중 끊긴 항목은 다시 생성)
+// - 작업은 올라온 순서대로 하나씩, 작업 안의 프롬프트는 parallelism 개까지 동시에 실행
+// - 채팅방 프롬프트는 채팅 API 와 같은 순서 보장(AIChatRoomTurnSequencer)과 프롬프트 생성/저장 경로를 사용
+//   (응답을 항목 결과로 먼저 저장하고, 그 실행이 결과를 저장한 경우에만 대화 턴을 저장하므로 다시 실행해도 턴이 두 번 저장되지 않음)
+// - 결과 저장 등 DB 오류로 실행이 멈추면 backoff 후 다시 실행
+// - 모델 호출 대기열은 작업 하나를 채팅방 하나처럼 취급해 대화 중인 채팅방이 밀리지 않게 함
+// 작업/항목 테이블은 0 번 샤드(샤딩이 꺼져 있으면 기본 DB)에 둔다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatBatchService {
+
+    private static final int BATCH_SHARD = 0;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ChatModel chatClient;
+    private final AIChatRoomService aiChatRoomService;
+    private final AIChatTurnWriter aiChatTurnWriter;
+    private final PromptAssembler promptAssembler;
+    private final ChatMemoryService chatMemoryService;
+    private final AIChatRoomTurnSequencer aiChatRoomTurnSequencer;
+    private final AIChatBatchJobRepository aiChatBatchJobRepository;
+    private final AIChatBatchItemRepository aiChatBatchItemRepository;
+    private final ChatBatchProperties chatBatchProperties;
+    private final ChatShardRouter chatShardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingScheduler;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // 연속으로 실패한 실행 수 (다시 실행할 때까지 기다리는 시간 계산용)
+    private final AtomicInteger restartAttempts = new AtomicInteger();
+
+    // 재시작 전에 끝나지 않은 작업 이어서 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        if (chatBatchProperties.isEnabled()) {
+            start();
+        }
+    }
+
+    // NDJSON 업로드를 작업으로 저장하고 실행 시작 (한 줄이라도 잘못되면 작업을 만들지 않음)
+    public AIChatBatchJobResponse submit(InputStream body) {
+        requireEnabled();
+
+        List<Line> lines = parse(body);
+        if (lines.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "프롬프트가 없습니다.");
+        }
+
+        // 채팅방이 있는지 먼저 확인 (채팅방마다 자기 샤드에서 조회)
+        lines.stream()
+                .map(line -> line.prompt().getChatRoomId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(this::requireChatRoom);
+
+        AIChatBatchJob job = inBatchStore(status -> insert(lines));
+        log.info("대량 생성 작업 등록. jobId={}, items={}", job.getId(), job.getTotalItems());
+
+        start();
+        return AIChatBatchJobResponse.from(job);
+    }
+
+    public AIChatBatchJobResponse getJob(Long jobId) {
+        requireEnabled();
+
+        return AIChatBatchJobResponse.from(findJob(jobId));
+    }
+
+    // 끝난 항목 키셋 페이지 조회 (cursor 는 이전 페이지의 nextCursor, 처음에는 0)
+    public AIChatBatchItemPageResponse getResults(Long jobId, int cursor, int size) {
+        requireEnabled();
+
+        return poll(jobId, cursor, size).page();
+    }
+
+    // 끝난 항목(event: item)과 진행 상황(event: progress)을 작업이 끝날 때까지 전송
+    // 항목 이벤트 ID 는 결과 커서이므로 연결이 끊기면 Last-Event-ID 로 이어서 받을 수 있음
+    public Flux<ServerSentEvent<String>> events(Long jobId, int cursor) {
+        requireEnabled();
+        findJob(jobId);
+
+        AtomicInteger position = new AtomicInteger(cursor);
+        return Flux.interval(Duration.ZERO, chatBatchProperties.getProgressInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromCallable(() ->
+                                poll(jobId, position.get(), chatBatchProperties.getMaxPageSize()))
+                        .subscribeOn(blockingScheduler), 1)
+                .takeUntil(poll -> !poll.page().isHasNext())
+                .concatMapIterable(poll -> {
+                    position.set(poll.page().getNextCursor());
+                    return toEvents(poll);
+                });
+    }
+
+    private List<ServerSentEvent<String>> toEvents(Poll poll) {
+        List<ServerSentEvent<String>> events = new ArrayList<>();
+        for (AIChatBatchItemResponse item : poll.page().getItems()) {
+            events.add(ServerSentEvent.<String>builder()
+                    .id(String.valueOf(item.getResultIndex()))
+                    .event("item")
+                    .data(toJson(item))
+                    .build());
+        }
+        events.add(ServerSentEvent.<String>builder()
+                .event("progress")
+                .data(toJson(poll.job()))
+                .build());
+        return events;
+    }
+
+    // 작업을 먼저 읽고 결과를 읽어야 작업이 끝났을 때 남은 결과를 빠뜨리지 않음 (작업은 모든 항목이 끝난 뒤 완료)
+    private Poll poll(Long jobId, int cursor, int size) {
+        return inBatchStore(status -> {
+            AIChatBatchJob job = findJob(jobId);
+            List<AIChatBatchItem> items = aiChatBatchItemRepository
+                    .findByJobIdAndResultIndexGreaterThanOrderByResultIndex(jobId, cursor, Limit.of(size));
+
+            AIChatBatchItemPageResponse page = AIChatBatchItemPageResponse.builder()
+                    .items(items.stream().map(AIChatBatchItemResponse::from).toList())
+                    .nextCursor(items.isEmpty() ? cursor : items.getLast().getResultIndex())
+                    .hasNext(job.getStatus() == AIChatBatchJob.Status.RUNNING || items.size() == size)
+                    .build();
+            return new Poll(AIChatBatchJobResponse.from(job), page);
+        });
+    }
+
+    private List<Line> parse(InputStream body) {
+        List<Line> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                if (lines.size() >= chatBatchProperties.getMaxItemsPerJob()) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "한 작업에는 프롬프트를 최대 %d 개까지 올릴 수 있습니다."
+                                    .formatted(chatBatchProperties.getMaxItemsPerJob()));
+                }
+
+                lines.add(new Line(lineNumber, parseLine(lineNumber, text)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return lines;
+    }
+
+    private AIChatBatchPrompt parseLine(int lineNumber, String text) {
+        AIChatBatchPrompt prompt;
+        try {
+            prompt = objectMapper.readValue(text, AIChatBatchPrompt.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "%d 번째 줄을 읽을 수 없습니다.".formatted(lineNumber));
+        }
+
+        if (prompt.getPrompt() == null || prompt.getPrompt().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "%d 번째 줄에 prompt 가 없습니다.".formatted(lineNumber));
+        }
+        return prompt;
+    }
+
+    private void requireChatRoom(Long chatRoomId) {
+        try {
+            aiChatRoomService.getModifyDate(chatRoomId);
+        } catch (ResponseStatusException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "채팅방이 존재하지 않습니다. chatRoomId=" + chatRoomId);
+        }
+    }
+
+    // 작업과 항목을 한 트랜잭션으로 저장 (항목은 시퀀스 ID 라 JDBC batch insert)
+    private AIChatBatchJob insert(List<Line> lines) {
+        AIChatBatchJob job = aiChatBatchJobRepository.save(AIChatBatchJob.builder()
+                .status(AIChatBatchJob.Status.RUNNING)
+                .totalItems(lines.size())
+                .build());
+
+        List<AIChatBatchItem> items = lines.stream()
+                .map(line -> AIChatBatchItem.builder()
+                        .jobId(job.getId())
+                        .lineNumber(line.lineNumber())
+                        .chatRoomId(line.prompt().getChatRoomId())
+                        .prompt(line.prompt().getPrompt())
+                        .status(AIChatBatchItem.Status.PENDING)
+                        .build())
+                .toList();
+        aiChatBatchItemRepository.saveAll(items);
+
+        return job;
+    }
+
+    // 실행 중이 아니면 남은 작업 실행 시작
+    private void start() {
+        if (running.compareAndSet(false, true)) {
+            blockingScheduler.schedule(this::runJobs);
+        }
+    }
+
+    private void runJobs() {
+        try {
+            Optional<AIChatBatchJob> job;
+            while ((job = findRunningJob()).isPresent()) {
+                runJob(job.get().getId());
+            }
+        } catch (RuntimeException e) {
+            // running 은 그대로 두고 다시 실행 예약 (그동안 올라온 작업도 그 실행에서 처리)
+            Duration delay = restartDelay(restartAttempts.incrementAndGet());
+            log.error("대량 생성 작업 실행 실패. {} 후 다시 실행합니다.", delay, e);
+            blockingScheduler.schedule(this::runJobs, delay.toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        restartAttempts.set(0);
+        running.set(false);
+
+        // 마지막 확인과 running 해제 사이에 올라온 작업 (확인에 실패해도 다시 실행해서 backoff 경로를 탐)
+        try {
+            if (findRunningJob().isEmpty()) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("남은 대량 생성 작업을 확인하지 못했습니다.", e);
+        }
+        start();
+    }
+
+    // restartBackoff 부터 실패할 때마다 두 배씩, 최대 maxRestartBackoff
+    private Duration restartDelay(int attempts) {
+        Duration delay = chatBatchProperties.getRestartBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(chatBatchProperties.getMaxRestartBackoff()) > 0
+                ? chatBatchProperties.getMaxRestartBackoff()
+                : delay;
+    }
+
+    private Optional<AIChatBatchJob> findRunningJob() {
+        return inBatchStore(status -> aiChatBatchJobRepository.findFirstByStatusOrderById(AIChatBatchJob.Status.RUNNING));
+    }
+
+    private void runJob(Long jobId) {
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<AIChatBatchItem> items = inBatchStore(status -> aiChatBatchItemRepository
+                    .findByJobIdAndStatusAndIdGreaterThanOrderById(jobId, AIChatBatchItem.Status.PENDING, cursor,
+                            Limit.of(chatBatchProperties.getFetchSize())));
+            if (items.isEmpty()) {
+                break;
+            }
+
+            runItems(jobId, items);
+            afterId = items.getLast().getId();
+        }
+
+        inBatchStore(status -> aiChatBatchJobRepository.complete(jobId, LocalDateTime.now()));
+        log.info("대량 생성 작업 완료. jobId={}", jobId);
+    }
+
+    // 같은 채팅방의 항목은 한 줄로 묶어 순서대로, 채팅방이 없는 항목과 다른 채팅방은 parallelism 개까지 동시에 실행
+    // (조회 단위마다 모두 끝난 뒤 다음 단위를 조회하므로 채팅방 순서는 단위가 바뀌어도 유지됨)
+    private void runItems(Long jobId, List<AIChatBatchItem> items) {
+        List<List<AIChatBatchItem>> lanes = new ArrayList<>();
+        Map<Long, List<AIChatBatchItem>> roomLanes = new LinkedHashMap<>();
+
+        for (AIChatBatchItem item : items) {
+            if (item.getChatRoomId() == null) {
+                lanes.add(List.of(item));
+                continue;
+            }
+            roomLanes.computeIfAbsent(item.getChatRoomId(), chatRoomId -> {
+                List<AIChatBatchItem> lane = new ArrayList<>();
+                lanes.add(lane);
+                return lane;
+            }).add(item);
+        }
+
+        Flux.fromIterable(lanes)
+                .flatMap(lane -> Flux.fromIterable(lane).concatMap(item -> execute(jobId, item)),
+                        chatBatchProperties.getParallelism())
+                .blockLast();
+    }
+
+    // 결과 저장 실패는 그대로 전파되어 작업 실행이 멈추고 (backoff 후 다시 실행), 항목은 PENDING 으로 남음
+    private Mono<Void> execute(Long jobId, AIChatBatchItem item) {
+        if (item.getChatRoomId() == null) {
+            return outcome(jobId, item, generate(new Prompt(item.getPrompt())))
+                    .flatMap(outcome -> finish(jobId, item.getId(), outcome))
+                    .then();
+        }
+
+        // 채팅방 대기열이 가득 차 거절되면 다시 기다렸다가 들어가고, 끝내 거절되면 항목 실패로 저장
+        return Mono.defer(() -> aiChatRoomTurnSequencer.sequence(item.getChatRoomId(),
+                        () -> executeInRoom(jobId, item).flux()).then())
+                .retryWhen(retryRejected())
+                .onErrorResume(ChatBatchService::isRejected, e ->
+                        finish(jobId, item.getId(), failed(jobId, item, e)).then());
+    }
+
+    // 채팅 API 와 같은 경로 : 최근 대화/요약/장기 기억으로 프롬프트 생성 → 응답 → 항목 결과 저장 → write-behind 턴 저장
+    // 턴은 이 실행이 항목 결과를 저장했을 때만 저장 (결과 저장 전에 끊기면 항목을 다시 생성하지만 턴은 아직 없음)
+    // 결과 저장과 턴 저장 사이에 종료되면 그 턴은 채팅방에 남지 않음 (항목 결과에는 남음)
+    private Mono<Void> executeInRoom(Long jobId, AIChatBatchItem item) {
+        Long chatRoomId = item.getChatRoomId();
+        String message = item.getPrompt();
+
+        Mono<String> generation = Mono.fromCallable(() -> promptAssembler.assemble(
+                        aiChatRoomService.getPromptContext(chatRoomId),
+                        chatMemoryService.recall(chatRoomId, message), message))
+                .subscribeOn(blockingScheduler)
+                .flatMap(this::generate);
+
+        return outcome(jobId, item, generation)
+                .flatMap(outcome -> finish(jobId, item.getId(), outcome)
+                        .filter(recorded -> recorded && outcome.status() == AIChatBatchItem.Status.COMPLETED)
+                        .flatMap(recorded -> aiChatTurnWriter.submit(AIChatTurn.builder()
+                                        .chatRoomId(chatRoomId)
+                                        .userMessage(message)
+                                        .botMessage(outcome.result())
+                                        .build())
+                                // 항목 결과는 이미 저장되었으므로 턴 저장 실패는 기록만 하고 계속 실행
+                                .onErrorResume(e -> {
+                                    log.error("대량 생성 결과를 채팅방에 저장하지 못했습니다. jobId={}, itemId={}, chatRoomId={}",
+                                            jobId, item.getId(), chatRoomId, e);
+                                    return Mono.empty();
+                                })));
+    }
+
+    // 생성 결과를 항목 결과로 변환 (생성 실패만 항목 실패)
+    private Mono<Outcome> outcome(Long jobId, AIChatBatchItem item, Mono<String> generation) {
+        return generation
+                .retryWhen(retryRejected())
+                // 모델 호출 대기열은 작업 단위로 공정하게 나눔
+                .contextWrite(Context.of(AdmissionControlledChatModel.QUEUE_KEY, "batch-" + jobId))
+                .map(result -> new Outcome(AIChatBatchItem.Status.COMPLETED, result, null))
+                .onErrorResume(e -> Mono.just(failed(jobId, item, e)));
+    }
+
+    private Outcome failed(Long jobId, AIChatBatchItem item, Throwable e) {
+        log.warn("대량 생성 항목 실패. jobId={}, itemId={}", jobId, item.getId(), e);
+        return new Outcome(AIChatBatchItem.Status.FAILED, null, errorMessage(e));
+    }
+
+    // 대기열이 가득 차 거절된 경우만 재시도 (업스트림 429 는 AdmissionControlledChatModel 에서 재시도)
+    private Retry retryRejected() {
+        return Retry.backoff(chatBatchProperties.getMaxRetries(), chatBatchProperties.getRetryBackoff())
+                .filter(ChatBatchService::isRejected)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    // 스트리밍으로 받아 합침 (대기열 키를 Reactor Context 로 넘기기 위해 call 대신 stream 사용)
+    private Mono<String> generate(Prompt prompt) {
+        return chatClient.stream(prompt)
+                .mapNotNull(chunk -> {
+                    if (chunk.getResult() == null || chunk.getResult().getOutput() == null) {
+                        return null;
+                    }
+                    return chunk.getResult().getOutput().getText();
+                })
+                .collect(Collectors.joining());
+    }
+
+    // 항목 결과와 작업 진행 수를 한 트랜잭션으로 저장
+    // 진행 수를 먼저 올려 작업 행을 잠그고 그 값을 항목의 결과 순번(resultIndex)으로 사용
+    // 이미 끝난 항목이면 진행 수를 되돌리고 건너뜀 (같은 항목을 두 번 저장해도 결과와 진행 수가 한 번만 반영됨)
+    // 이번에 결과를 저장했으면 true
+    private Mono<Boolean> finish(Long jobId, Long itemId, Outcome outcome) {
+        return Mono.fromCallable(() -> inBatchStore(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    aiChatBatchJobRepository.addProgress(jobId,
+                            outcome.status() == AIChatBatchItem.Status.COMPLETED ? 1 : 0,
+                            outcome.status() == AIChatBatchItem.Status.FAILED ? 1 : 0, now);
+                    int resultIndex = aiChatBatchJobRepository.countFinishedItems(jobId);
+
+                    if (aiChatBatchItemRepository.finish(itemId, outcome.status(), outcome.result(), outcome.error(),
+                            resultIndex, now) == 0) {
+                        status.setRollbackOnly();
+                        log.warn("이미 끝난 대량 생성 항목이므로 결과를 저장하지 않습니다. jobId={}, itemId={}", jobId, itemId);
+                        return false;
+                    }
+                    return true;
+                }))
+                .subscribeOn(blockingScheduler);
+    }
+
+    private AIChatBatchJob findJob(Long jobId) {
+        return inBatchStore(status -> aiChatBatchJobRepository.findById(jobId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "대량 생성 작업이 존재하지 않습니다."));
+    }
+
+    // 작업/항목 테이블은 0 번 샤드에서 트랜잭션으로 접근
+    private <T> T inBatchStore(TransactionCallback<T> action) {
+        return chatShardRouter.callOn(BATCH_SHARD, () -> transactionTemplate.execute(action));
+    }
+
+    private void requireEnabled() {
+        if (!chatBatchProperties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "대량 생성이 비활성화되어 있습니다.");
+        }
+    }
+
+    private static boolean isRejected(Throwable e) {
+        return e instanceof ResponseStatusException exception
+                && (exception.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                || exception.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private static String errorMessage(Throwable e) {
+        String message = e instanceof ResponseStatusException exception && exception.getReason() != null
+                ? exception.getReason()
+                : Objects.toString(e.getMessage(), e.getClass().getSimpleName());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Line(int lineNumber, AIChatBatchPrompt prompt) {
+    }
+
+    private record Outcome(AIChatBatchItem.Status status, String result, String error) {
+    }
+
+    private record Poll(AIChatBatchJobResponse job, AIChatBatchItemPageResponse page) {
+    }
+}
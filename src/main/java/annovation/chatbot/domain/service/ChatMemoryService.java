@@ -0,0 +1,330 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatRoomMemory;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.repository.AIChatRoomMessageRepository;
+import annovation.chatbot.global.config.ChatMemoryProperties;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import annovation.chatbot.global.memory.HashingEmbedder;
+import annovation.chatbot.global.memory.HnswIndex;
+import annovation.chatbot.global.shard.ShardKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+
+// 채팅방별 장기 기억 : 과거 대화 턴을 해싱 임베딩 + HNSW 인덱스로 검색해 현재 질문과 관련된 턴을 찾는다
+// - 인덱스는 채팅방을 처음 검색할 때 파일({chatRoomId}.hnsw)에서 읽고, 그 뒤 저장된 턴(보관 파일 + DB)만 이어서 추가
+// - 새 턴은 DB 커밋 후 메모리에 올라온 인덱스에 바로 추가 (올라와 있지 않은 채팅방은 다음 로딩 때 추가)
+//   같은 채팅방의 턴은 커밋 순서대로 한 번에 하나의 작업에서 추가하고, 로딩 중이면 로딩이 끝난 뒤 추가한다
+// - 캐시는 채팅방 수가 아니라 올라와 있는 벡터 수로 제한
+// - 변경된 인덱스는 flushInterval 마다, 캐시에서 밀려날 때, 종료 시 파일로 저장
+// 검색 시간은 chat.memory.recall 메트릭으로 노출된다
+@Slf4j
+@Service
+public class ChatMemoryService {
+
+    private final ChatMemoryProperties chatMemoryProperties;
+    private final ChatPromptProperties chatPromptProperties;
+    private final AIChatRoomMessageRepository aiChatRoomMessageRepository;
+    private final AIChatRoomArchiveService aiChatRoomArchiveService;
+    private final AIChatRoomService aiChatRoomService;
+    private final Scheduler blockingScheduler;
+    private final Path directory;
+    private final Cache<Long, RoomMemory> memories;
+    // 채팅방별 인덱싱 대기열 (키가 있으면 그 채팅방의 추가 작업이 예약되었거나 실행 중)
+    private final ConcurrentHashMap<Long, List<AIChatRoomMessage>> pendingMessages = new ConcurrentHashMap<>();
+    private final Timer recallTimer;
+
+    public ChatMemoryService(
+            ChatMemoryProperties chatMemoryProperties,
+            ChatPromptProperties chatPromptProperties,
+            AIChatRoomMessageRepository aiChatRoomMessageRepository,
+            AIChatRoomArchiveService aiChatRoomArchiveService,
+            AIChatRoomService aiChatRoomService,
+            Scheduler blockingScheduler,
+            MeterRegistry meterRegistry
+    ) {
+        this.chatMemoryProperties = chatMemoryProperties;
+        this.chatPromptProperties = chatPromptProperties;
+        this.aiChatRoomMessageRepository = aiChatRoomMessageRepository;
+        this.aiChatRoomArchiveService = aiChatRoomArchiveService;
+        this.aiChatRoomService = aiChatRoomService;
+        this.blockingScheduler = blockingScheduler;
+        this.directory = Path.of(chatMemoryProperties.getDirectory());
+        this.memories = Caffeine.newBuilder()
+                .maximumWeight(chatMemoryProperties.getMaximumIndexedVectors())
+                .weigher((Long chatRoomId, RoomMemory memory) -> Math.max(memory.index.size(), 1))
+                .removalListener((Long chatRoomId, RoomMemory memory, RemovalCause cause) -> {
+                    if (chatRoomId != null && memory != null && cause.wasEvicted()) {
+                        save(chatRoomId, memory);
+                    }
+                })
+                .build();
+        this.recallTimer = Timer.builder("chat.memory.recall")
+                .description("관련된 과거 대화 검색 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // 현재 질문과 관련된 과거 턴 (유사도 내림차순)
+    // 프롬프트에 이미 들어가는 최근 턴(maxHistoryMessages 개)은 제외
+    public List<AIChatRoomMemory> recall(@ShardKey Long chatRoomId, String query) {
+        if (!chatMemoryProperties.isEnabled()) {
+            return List.of();
+        }
+
+        return recallTimer.record(() -> {
+            RoomMemory memory = memories.get(chatRoomId, this::load);
+            float[] queryVector = HashingEmbedder.embed(query, chatMemoryProperties.getDimensions());
+
+            List<HnswIndex.Match> matches;
+            memory.lock.readLock().lock();
+            try {
+                matches = memory.index.search(queryVector, chatMemoryProperties.getTopK(),
+                        chatMemoryProperties.getEfSearch(),
+                        memory.index.size() - chatPromptProperties.getMaxHistoryMessages());
+            } finally {
+                memory.lock.readLock().unlock();
+            }
+
+            List<HnswIndex.Match> relevant = matches.stream()
+                    .filter(match -> match.score() >= chatMemoryProperties.getMinScore())
+                    .toList();
+
+            return relevant.isEmpty() ? List.<AIChatRoomMemory>of() : loadTurns(chatRoomId, relevant);
+        });
+    }
+
+    // 저장된 턴을 인덱스에 추가 (writer 에서 커밋 후 호출, 임베딩/인덱싱은 blockingScheduler 에서 실행)
+    public void index(List<AIChatRoomMessage> messages) {
+        if (!chatMemoryProperties.isEnabled() || messages.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<AIChatRoomMessage>> byChatRoom = messages.stream()
+                .collect(Collectors.groupingBy(message -> message.getChatRoom().getId(), LinkedHashMap::new,
+                        Collectors.toList()));
+
+        byChatRoom.forEach((chatRoomId, roomMessages) -> {
+            boolean[] schedule = {false};
+            pendingMessages.compute(chatRoomId, (id, pending) -> {
+                if (pending == null) {
+                    schedule[0] = true;
+                    return new ArrayList<>(roomMessages);
+                }
+                pending.addAll(roomMessages);
+                return pending;
+            });
+
+            if (schedule[0]) {
+                blockingScheduler.schedule(() -> drain(chatRoomId));
+            }
+        });
+    }
+
+    // 대기열이 빌 때까지 추가 (비면 키를 지워 다음 index 호출이 새 작업을 예약하도록 함)
+    private void drain(Long chatRoomId) {
+        while (true) {
+            List<AIChatRoomMessage> batch = new ArrayList<>();
+            pendingMessages.computeIfPresent(chatRoomId, (id, pending) -> {
+                if (pending.isEmpty()) {
+                    return null;
+                }
+                batch.addAll(pending);
+                pending.clear();
+                return pending;
+            });
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                add(chatRoomId, batch);
+            } catch (RuntimeException e) {
+                log.error("장기 기억 인덱싱 실패. chatRoomId={}", chatRoomId, e);
+            }
+        }
+    }
+
+    private void add(Long chatRoomId, List<AIChatRoomMessage> messages) {
+        // 로딩 중이면 로딩이 끝날 때까지 기다림 (로딩이 읽은 턴과 겹치는 것은 ID 로 걸러짐)
+        RoomMemory memory = memories.asMap().computeIfPresent(chatRoomId, (id, current) -> current);
+        if (memory == null) {
+            return;
+        }
+
+        for (AIChatRoomMessage message : messages) {
+            memory.add(message.getId(), message.getUserMessage(), message.getBotMessage(),
+                    chatMemoryProperties.getDimensions());
+        }
+
+        // 늘어난 벡터 수로 캐시 무게를 다시 계산
+        memories.asMap().computeIfPresent(chatRoomId, (id, current) -> current);
+    }
+
+    // 변경된 인덱스 저장
+    @Scheduled(fixedDelayString = "${chatbot.memory.flush-interval:1m}")
+    public void flush() {
+        memories.asMap().forEach((chatRoomId, memory) -> {
+            if (memory.dirty) {
+                save(chatRoomId, memory);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    // 파일에서 인덱스를 읽고, 그 뒤에 저장된 턴(보관 파일 → DB 순)을 이어서 추가
+    // (읽는 도중 보관 작업이 커밋되어도 빠지는 턴이 없도록 AIChatRoomService 의 일관된 읽기 사용)
+    private RoomMemory load(Long chatRoomId) {
+        RoomMemory memory = read(chatRoomId);
+        int dimensions = chatMemoryProperties.getDimensions();
+
+        aiChatRoomService.forEachMessageAfter(chatRoomId, memory.maxMessageId, message ->
+                memory.add(message.getId(), message.getUserMessage(), message.getBotMessage(), dimensions));
+
+        return memory;
+    }
+
+    private RoomMemory read(Long chatRoomId) {
+        Path path = indexPath(chatRoomId);
+        if (Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                long maxMessageId = in.readLong();
+                HnswIndex index = HnswIndex.readFrom(in, chatMemoryProperties.getDimensions(),
+                        chatMemoryProperties.getMaxConnections(), chatMemoryProperties.getEfConstruction());
+                if (index != null) {
+                    return new RoomMemory(index, maxMessageId);
+                }
+            } catch (IOException e) {
+                log.warn("장기 기억 인덱스를 읽지 못해 다시 만듭니다. chatRoomId={}", chatRoomId, e);
+            }
+        }
+
+        return new RoomMemory(new HnswIndex(chatMemoryProperties.getDimensions(),
+                chatMemoryProperties.getMaxConnections(), chatMemoryProperties.getEfConstruction()), 0);
+    }
+
+    // 임시 파일에 쓴 뒤 교체 (쓰는 도중 종료되어도 이전 파일 유지)
+    private void save(Long chatRoomId, RoomMemory memory) {
+        memory.lock.readLock().lock();
+        try {
+            Files.createDirectories(directory);
+            Path path = indexPath(chatRoomId);
+            Path temp = directory.resolve(chatRoomId + ".hnsw.tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(memory.maxMessageId);
+                memory.index.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            memory.dirty = false;
+        } catch (IOException e) {
+            log.error("장기 기억 인덱스 저장 실패. chatRoomId={}", chatRoomId, e);
+        } finally {
+            memory.lock.readLock().unlock();
+        }
+    }
+
+    // 검색된 턴의 내용 조회 (DB 에 없으면 보관 파일에서)
+    // 채팅방 ID 로도 거르므로 인덱스에 다른 채팅방 메시지 ID 가 섞여 있어도 그 내용은 반환하지 않음
+    private List<AIChatRoomMemory> loadTurns(Long chatRoomId, List<HnswIndex.Match> matches) {
+        Map<Long, AIChatRoomMsgResponse> messages = aiChatRoomMessageRepository
+                .findResponsesByChatRoomIdAndIdIn(chatRoomId, matches.stream().map(HnswIndex.Match::id).toList())
+                .stream()
+                .collect(Collectors.toMap(AIChatRoomMsgResponse::getId, Function.identity()));
+
+        int archivedMessageCount = -1;
+        List<AIChatRoomMemory> turns = new ArrayList<>(matches.size());
+
+        for (HnswIndex.Match match : matches) {
+            AIChatRoomMsgResponse message = messages.get(match.id());
+            if (message != null) {
+                turns.add(new AIChatRoomMemory(match.id(), message.getUserMessage(), message.getBotMessage(),
+                        match.score()));
+                continue;
+            }
+
+            if (archivedMessageCount < 0) {
+                archivedMessageCount = aiChatRoomArchiveService.archivedMessageCount(chatRoomId);
+            }
+            aiChatRoomArchiveService.find(chatRoomId, archivedMessageCount, match.id())
+                    .ifPresent(archived -> turns.add(new AIChatRoomMemory(match.id(), archived.getUserMessage(),
+                            archived.getBotMessage(), match.score())));
+        }
+
+        turns.sort(Comparator.comparingDouble(AIChatRoomMemory::getScore).reversed());
+        return turns;
+    }
+
+    private Path indexPath(Long chatRoomId) {
+        return directory.resolve(chatRoomId + ".hnsw");
+    }
+
+    private static class RoomMemory {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final HnswIndex index;
+        private final Set<Long> messageIds;
+        // 이어서 로딩할 위치 (같은 채팅방의 턴은 ID 순서대로 추가됨)
+        private long maxMessageId;
+        private volatile boolean dirty;
+
+        RoomMemory(HnswIndex index, long maxMessageId) {
+            this.index = index;
+            this.maxMessageId = maxMessageId;
+            this.messageIds = new HashSet<>(index.size() * 2);
+            for (int node = 0; node < index.size(); node++) {
+                messageIds.add(index.id(node));
+            }
+        }
+
+        // 이미 추가된 턴은 건너뜀
+        void add(long messageId, String userMessage, String botMessage, int dimensions) {
+            float[] vector = HashingEmbedder.embed(userMessage + "\n" + botMessage, dimensions);
+
+            lock.writeLock().lock();
+            try {
+                if (!messageIds.add(messageId)) {
+                    return;
+                }
+                index.add(messageId, vector);
+                maxMessageId = Math.max(maxMessageId, messageId);
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.global.config.ChatResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+// 상태 없는 /ai/chat/generate 응답 캐시
+// - 정규화된 질문 + 모델 옵션을 키로 TTL 동안 응답을 재사용
+// - 같은 키의 요청이 동시에 들어오면 업스트림 호출 한 번의 결과를 함께 사용 (single-flight)
+//   함께 기다리는 요청은 coalesce-timeout 까지만 기다리고 504 로 끝난다 (업스트림 호출은 계속 진행)
+// hit / miss / coalesced 요청 수는 chat.response.cache.requests 메트릭(result 태그)으로 노출된다
+@Component
+public class ChatResponseCache {
+
+    private final ChatResponseCacheProperties chatResponseCacheProperties;
+
+    // 완료된 응답과 진행 중인 호출을 함께 보관 (실패한 호출은 Caffeine 이 자동으로 제거)
+    private final AsyncCache<CacheKey, String> cache;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public ChatResponseCache(ChatResponseCacheProperties chatResponseCacheProperties,
+            MeterRegistry meterRegistry) {
+        this.chatResponseCacheProperties = chatResponseCacheProperties;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(chatResponseCacheProperties.getTtl())
+                .maximumSize(chatResponseCacheProperties.getMaximumSize())
+                .buildAsync();
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.coalescedCounter = requestCounter(meterRegistry, "coalesced");
+
+        Gauge.builder("chat.response.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .description("캐시된 응답 수")
+                .register(meterRegistry);
+    }
+
+    public String get(String message, ChatOptions chatOptions, Supplier<String> loader) {
+        if (!chatResponseCacheProperties.isEnabled()) {
+            return loader.get();
+        }
+
+        CacheKey key = CacheKey.of(message, chatOptions);
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = cache.asMap().putIfAbsent(key, created);
+
+        if (existing != null) {
+            // 이미 완료된 응답이면 hit, 아직 진행 중인 호출이면 그 결과를 함께 기다림
+            if (existing.isDone()) {
+                hitCounter.increment();
+                return join(existing);
+            }
+
+            coalescedCounter.increment();
+            // 공유 future 에 직접 timeout 을 걸면 다른 요청까지 실패하므로 복사본에 건다
+            return join(existing.copy().orTimeout(
+                    chatResponseCacheProperties.getCoalesceTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        missCounter.increment();
+
+        // Error 등 어떤 예외로 끝나도 future 를 완료해야 함께 기다리는 요청이 멈추지 않음
+        try {
+            created.complete(loader.get());
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+
+        return join(created);
+    }
+
+    private String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 업스트림 예외를 그대로 전달
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "같은 요청의 응답을 기다리는 시간이 초과되었습니다.");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.response.cache.requests")
+                .description("응답 캐시 요청 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // 공백을 정규화한 질문 + 모델 옵션 전체를 캐시 키로 사용 (옵션이 하나라도 다르면 다른 응답)
+    private record CacheKey(
+            String message,
+            String model,
+            Double temperature,
+            Integer maxTokens,
+            Double topP,
+            Integer topK,
+            Double frequencyPenalty,
+            Double presencePenalty,
+            List<String> stopSequences
+    ) {
+
+        static CacheKey of(String message, ChatOptions chatOptions) {
+            String normalizedMessage = message.strip().replaceAll("\\s+", " ");
+
+            if (chatOptions == null) {
+                return new CacheKey(normalizedMessage, null, null, null, null, null, null, null, null);
+            }
+
+            return new CacheKey(normalizedMessage, chatOptions.getModel(), chatOptions.getTemperature(),
+                    chatOptions.getMaxTokens(), chatOptions.getTopP(), chatOptions.getTopK(),
+                    chatOptions.getFrequencyPenalty(), chatOptions.getPresencePenalty(),
+                    chatOptions.getStopSequences() == null ? null : List.copyOf(chatOptions.getStopSequences()));
+        }
+    }
+}
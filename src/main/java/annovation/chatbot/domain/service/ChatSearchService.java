@@ -0,0 +1,253 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.dto.response.AIChatSearchHitResponse;
+import annovation.chatbot.domain.dto.response.AIChatSearchPageResponse;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.domain.repository.AIChatRoomMessageRepository;
+import annovation.chatbot.domain.repository.AIChatRoomRepository;
+import annovation.chatbot.global.config.ChatSearchProperties;
+import annovation.chatbot.global.search.InvertedIndex;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.scheduler.Scheduler;
+
+// 대화 기록 전문 검색 (채팅방별 / 전체)
+// - 인덱스(InvertedIndex)는 메모리에만 두고, 시작 시 또는 요청 시 DB(+ 보관 파일)에서 다시 만든다
+// - 새 턴은 DB 커밋 후 writer 가 바로 추가 (재색인 중 들어온 턴은 따로 모았다가 새 인덱스에 반영)
+// - 결과 내용은 검색된 메시지 ID 로 DB 에서 조회하고, 보관 파일로 옮겨진 메시지는 보관 파일에서 읽는다
+// 검색 시간은 chat.search.latency, 인덱스 문서 수는 chat.search.documents 메트릭으로 노출된다
+@Slf4j
+@Service
+public class ChatSearchService {
+
+    private final ChatSearchProperties chatSearchProperties;
+    private final AIChatRoomRepository aiChatRoomRepository;
+    private final AIChatRoomMessageRepository aiChatRoomMessageRepository;
+    private final AIChatRoomArchiveService aiChatRoomArchiveService;
+    private final AIChatRoomService aiChatRoomService;
+    private final Scheduler blockingScheduler;
+    private final ChatShardRouter chatShardRouter;
+    private final Timer searchTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private InvertedIndex index = new InvertedIndex();
+
+    // 재색인 중 추가된 턴 (재색인 중이 아니면 null)
+    private List<Document> pending;
+
+    public ChatSearchService(
+            ChatSearchProperties chatSearchProperties,
+            AIChatRoomRepository aiChatRoomRepository,
+            AIChatRoomMessageRepository aiChatRoomMessageRepository,
+            AIChatRoomArchiveService aiChatRoomArchiveService,
+            AIChatRoomService aiChatRoomService,
+            Scheduler blockingScheduler,
+            ChatShardRouter chatShardRouter,
+            MeterRegistry meterRegistry
+    ) {
+        this.chatSearchProperties = chatSearchProperties;
+        this.aiChatRoomRepository = aiChatRoomRepository;
+        this.aiChatRoomMessageRepository = aiChatRoomMessageRepository;
+        this.aiChatRoomArchiveService = aiChatRoomArchiveService;
+        this.aiChatRoomService = aiChatRoomService;
+        this.blockingScheduler = blockingScheduler;
+        this.chatShardRouter = chatShardRouter;
+        this.searchTimer = Timer.builder("chat.search.latency")
+                .description("대화 기록 검색 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("chat.search.documents", this, service -> service.index.size())
+                .description("검색 인덱스에 들어 있는 대화 턴 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (chatSearchProperties.isEnabled() && chatSearchProperties.isRebuildOnStartup()) {
+            startRebuild();
+        }
+    }
+
+    // 재색인을 백그라운드에서 시작 (이미 진행 중이면 false)
+    public boolean startRebuild() {
+        if (!chatSearchProperties.isEnabled() || rebuilding.get()) {
+            return false;
+        }
+
+        blockingScheduler.schedule(this::rebuild);
+        return true;
+    }
+
+    // 저장된 턴을 인덱스에 추가 (writer 에서 커밋 후 호출)
+    public void index(List<AIChatRoomMessage> messages) {
+        if (!chatSearchProperties.isEnabled() || messages.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (AIChatRoomMessage message : messages) {
+                Document document = new Document(message.getId(), message.getChatRoom().getId(),
+                        text(message.getUserMessage(), message.getBotMessage()));
+                index.add(document.messageId(), document.chatRoomId(), document.text());
+
+                if (pending != null) {
+                    pending.add(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // chatRoomId 가 null 이면 전체 채팅방 검색, page 는 0 부터
+    // 깊은 페이지는 상위 (page + 1) * size 개를 힙에 모아야 하므로 maxResultWindow 까지만 허용
+    public AIChatSearchPageResponse search(String query, Long chatRoomId, int page, int size) {
+        if (!chatSearchProperties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "검색이 비활성화되어 있습니다.");
+        }
+
+        long pageEnd = ((long) page + 1) * size;
+        if (pageEnd > chatSearchProperties.getMaxResultWindow()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "검색 결과는 앞에서부터 %d 개까지만 조회할 수 있습니다."
+                    .formatted(chatSearchProperties.getMaxResultWindow()));
+        }
+
+        return searchTimer.record(() -> {
+            InvertedIndex.Result result;
+            lock.readLock().lock();
+            try {
+                result = index.search(query, chatRoomId, (int) (pageEnd - size), size,
+                        chatSearchProperties.getK1(), chatSearchProperties.getB());
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            return AIChatSearchPageResponse.builder()
+                    .hits(loadHits(result.hits()))
+                    .page(page)
+                    .size(size)
+                    .totalHits(result.totalHits())
+                    .hasNext(pageEnd < result.totalHits())
+                    .build();
+        });
+    }
+
+    // 전체 채팅방을 ID 순으로 훑으며 새 인덱스를 만든 뒤 교체
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            InvertedIndex rebuilt = new InvertedIndex();
+            int batchSize = chatSearchProperties.getRebuildBatchSize();
+            long cursor = 0;
+
+            while (true) {
+                long afterId = cursor;
+                List<Long> chatRoomIds = chatShardRouter.mergeIds(
+                        shard -> aiChatRoomRepository.findIdsAfter(afterId, Limit.of(batchSize)), batchSize);
+                chatRoomIds.forEach(chatRoomId -> chatShardRouter.run(chatRoomId, () -> indexRoom(rebuilt, chatRoomId)));
+
+                if (chatRoomIds.size() < batchSize) {
+                    break;
+                }
+                cursor = chatRoomIds.getLast();
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach(document -> rebuilt.add(document.messageId(), document.chatRoomId(), document.text()));
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("검색 인덱스 재색인 완료. documents={}, terms={}, postingBytes={}, elapsedMs={}",
+                    rebuilt.size(), rebuilt.termCount(), rebuilt.postingBytes(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("검색 인덱스 재색인 실패", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // 보관 파일 → DB 순으로 채팅방의 턴을 추가 (그 사이 보관 작업이 커밋되어도 빠지는 턴 없음)
+    private void indexRoom(InvertedIndex target, Long chatRoomId) {
+        aiChatRoomService.forEachMessageAfter(chatRoomId, 0, message -> target.add(message.getId(), chatRoomId,
+                text(message.getUserMessage(), message.getBotMessage())));
+    }
+
+    // 검색된 턴의 내용 조회 (DB 에 없으면 보관 파일에서, 둘 다 없으면 제외)
+    private List<AIChatSearchHitResponse> loadHits(List<InvertedIndex.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        // 샤딩 모드에서는 채팅방의 샤드별로 나눠 조회
+        Map<Long, AIChatRoomMsgResponse> messages = new HashMap<>();
+        chatShardRouter.partition(hits, InvertedIndex.Hit::chatRoomId).forEach((shard, shardHits) ->
+                chatShardRouter.runOn(shard, () -> aiChatRoomMessageRepository
+                        .findResponsesByIdIn(shardHits.stream().map(InvertedIndex.Hit::messageId).toList())
+                        .forEach(message -> messages.put(message.getId(), message))));
+
+        Map<Long, Integer> archivedMessageCounts = new HashMap<>();
+        List<AIChatSearchHitResponse> responses = new ArrayList<>(hits.size());
+
+        for (InvertedIndex.Hit hit : hits) {
+            AIChatRoomMsgResponse message = messages.get(hit.messageId());
+            if (message != null) {
+                responses.add(AIChatSearchHitResponse.of(message, hit.score()));
+                continue;
+            }
+
+            int archivedMessageCount = archivedMessageCounts.computeIfAbsent(hit.chatRoomId(),
+                    aiChatRoomArchiveService::archivedMessageCount);
+            aiChatRoomArchiveService.find(hit.chatRoomId(), archivedMessageCount, hit.messageId())
+                    .ifPresent(archived -> responses.add(AIChatSearchHitResponse.of(archived, hit.score())));
+        }
+
+        return responses;
+    }
+
+    private static String text(String userMessage, String botMessage) {
+        return userMessage + "\n" + botMessage;
+    }
+
+    private record Document(long messageId, long chatRoomId, String text) {
+    }
+}
@@ -0,0 +1,224 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.global.config.ChatReplayProperties;
+import annovation.chatbot.global.util.TextSizes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+
+// 진행 중이거나 방금 끝난 응답 생성을 ID 로 보관하는 재연결 버퍼
+// 응답 생성은 클라이언트 연결과 별개로 끝까지 실행되며, 이벤트 id 는 "{generationId}:{index}" 형식이다
+// 연결이 끊긴 클라이언트가 Last-Event-ID 로 다시 요청하면 LLM 을 다시 호출하지 않고
+// 놓친 이벤트를 재전송한 뒤 진행 중인 응답에 이어 붙는다
+@Component
+public class GenerationReplayRegistry {
+
+    private final ChatReplayProperties chatReplayProperties;
+    private final Scheduler blockingScheduler;
+    private final Cache<String, ReplayBuffer> buffers;
+
+    public GenerationReplayRegistry(ChatReplayProperties chatReplayProperties, Scheduler blockingScheduler) {
+        this.chatReplayProperties = chatReplayProperties;
+        this.blockingScheduler = blockingScheduler;
+        this.buffers = Caffeine.newBuilder()
+                .maximumSize(chatReplayProperties.getMaxGenerations())
+                .expireAfter(new ReplayBufferExpiry())
+                .build();
+    }
+
+    // 응답 생성을 시작하고 (클라이언트 구독과 무관하게 바로 구독) 버퍼를 반환
+    public ReplayBuffer start(Long chatRoomId, Flux<ServerSentEvent<String>> generation) {
+        String generationId = UUID.randomUUID().toString().replace("-", "");
+        ReplayBuffer buffer = new ReplayBuffer(generationId, chatRoomId,
+                chatReplayProperties.getMaxBytesPerGeneration());
+        buffers.put(generationId, buffer);
+
+        generation.subscribe(
+                buffer::append,
+                error -> {
+                    buffer.fail(error);
+                    buffers.put(generationId, buffer); // 보관 시간을 retention 으로 갱신
+                },
+                () -> {
+                    buffer.complete();
+                    buffers.put(generationId, buffer);
+                }
+        );
+
+        return buffer;
+    }
+
+    // Last-Event-ID 로 해당 채팅방의 응답 버퍼를 찾음 (없거나 만료되었으면 empty)
+    public Optional<ReplayBuffer> find(Long chatRoomId, String lastEventId) {
+        EventId eventId = EventId.parse(lastEventId);
+        if (eventId == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(buffers.getIfPresent(eventId.generationId()))
+                .filter(buffer -> buffer.chatRoomId.equals(chatRoomId));
+    }
+
+    // Last-Event-ID 이후 이벤트부터 전달하는 Flux
+    public Flux<ServerSentEvent<String>> attach(ReplayBuffer buffer, String lastEventId) {
+        EventId eventId = EventId.parse(lastEventId);
+        return buffer.attach(eventId == null ? -1 : eventId.index())
+                // 버퍼 lock 을 잡은 스레드에서 네트워크 쓰기를 하지 않도록 분리
+                .publishOn(blockingScheduler);
+    }
+
+    public Flux<ServerSentEvent<String>> attach(ReplayBuffer buffer) {
+        return buffer.attach(-1).publishOn(blockingScheduler);
+    }
+
+    private record EventId(String generationId, int index) {
+
+        static EventId parse(String value) {
+            if (value == null) {
+                return null;
+            }
+
+            int separator = value.lastIndexOf(':');
+            if (separator <= 0) {
+                return null;
+            }
+
+            try {
+                return new EventId(value.substring(0, separator), Integer.parseInt(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    public static class ReplayBuffer {
+
+        private final String generationId;
+        private final Long chatRoomId;
+        private final int maxBytes;
+
+        // events.get(0) 의 이벤트 index (maxBytes 를 넘어 앞쪽 이벤트를 버리면 증가)
+        private int firstIndex;
+        private final List<ServerSentEvent<String>> events = new ArrayList<>();
+        private long bytes;
+        private boolean completed;
+        private Throwable error;
+        private final List<FluxSink<ServerSentEvent<String>>> listeners = new ArrayList<>();
+
+        ReplayBuffer(String generationId, Long chatRoomId, int maxBytes) {
+            this.generationId = generationId;
+            this.chatRoomId = chatRoomId;
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized boolean isCompleted() {
+            return completed;
+        }
+
+        synchronized void append(ServerSentEvent<String> source) {
+            int index = firstIndex + events.size();
+            ServerSentEvent<String> event = ServerSentEvent.<String>builder()
+                    .id(generationId + ":" + index)
+                    .event(source.event())
+                    .data(source.data())
+                    .build();
+
+            events.add(event);
+            bytes += size(event);
+
+            // 메모리 제한을 넘으면 오래된 이벤트부터 버림 (마지막 이벤트는 유지)
+            while (bytes > maxBytes && events.size() > 1) {
+                bytes -= size(events.removeFirst());
+                firstIndex++;
+            }
+
+            listeners.forEach(listener -> listener.next(event));
+        }
+
+        synchronized void complete() {
+            completed = true;
+            listeners.forEach(FluxSink::complete);
+            listeners.clear();
+        }
+
+        synchronized void fail(Throwable error) {
+            this.completed = true;
+            this.error = error;
+            listeners.forEach(listener -> listener.error(error));
+            listeners.clear();
+        }
+
+        Flux<ServerSentEvent<String>> attach(int lastIndex) {
+            return Flux.create(sink -> {
+                synchronized (this) {
+                    // 이미 버려진 이벤트부터 요청하면 이어서 보낼 수 없음
+                    if (lastIndex + 1 < firstIndex) {
+                        sink.error(new ResponseStatusException(HttpStatus.GONE,
+                                "재연결 가능한 범위를 벗어났습니다. 다시 요청해주세요."));
+                        return;
+                    }
+
+                    for (int index = Math.max(lastIndex + 1, firstIndex); index < firstIndex + events.size(); index++) {
+                        sink.next(events.get(index - firstIndex));
+                    }
+
+                    if (completed) {
+                        if (error != null) {
+                            sink.error(error);
+                        } else {
+                            sink.complete();
+                        }
+                        return;
+                    }
+
+                    listeners.add(sink);
+                    sink.onDispose(() -> {
+                        synchronized (this) {
+                            listeners.remove(sink);
+                        }
+                    });
+                }
+            });
+        }
+
+        private static int size(ServerSentEvent<String> event) {
+            return event.data() == null ? 0 : TextSizes.utf8Length(event.data());
+        }
+    }
+
+    // 진행 중인 응답은 maxGenerationTime, 끝난 응답은 retention 동안 보관
+    private class ReplayBufferExpiry implements Expiry<String, ReplayBuffer> {
+
+        @Override
+        public long expireAfterCreate(String key, ReplayBuffer buffer, long currentTime) {
+            return expiry(buffer);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ReplayBuffer buffer, long currentTime, long currentDuration) {
+            return expiry(buffer);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ReplayBuffer buffer, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long expiry(ReplayBuffer buffer) {
+            return buffer.isCompleted()
+                    ? chatReplayProperties.getRetention().toNanos()
+                    : chatReplayProperties.getMaxGenerationTime().toNanos();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.domain.dto.AIChatRoomMemory;
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.util.TokenEstimator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.stereotype.Component;
+
+// 토큰 예산 안에서 프롬프트를 구성하는 컴포넌트
+// 시스템 메시지와 현재 질문은 항상 포함하고, 남은 예산을 요약 → 관련된 이전 대화(장기 기억) → 최근 대화(최신순) 순서로 채운다
+@Component
+public class PromptAssembler {
+
+    // AI에게 대화 컨텍스트(지침)를 알려주는 시스템 메시지 (한국인 컨텍스트)
+    public static final String SYSTEM_PROMPT = """
+            당신은 한국인과 대화하고 있습니다.
+            한국의 문화와 정서를 이해하고 있어야 합니다.
+            최대한 한국어/영어만 사용해줘요.
+            한자, 일본어 사용 자제해주세요.
+            영어보다 한국어를 우선적으로 사용해줘요.
+            """;
+
+    private static final String SUMMARY_PREFIX = "지난 대화 요약\n\n";
+
+    private static final String MEMORY_PREFIX = "관련된 이전 대화\n\n";
+
+    private static final int SYSTEM_PROMPT_TOKENS = TokenEstimator.estimateMessage(SYSTEM_PROMPT);
+
+    private final ChatPromptProperties chatPromptProperties;
+
+    // 메시지 ID 별 토큰 수 캐시 (요청마다 같은 메시지를 다시 추정하지 않도록)
+    private final Cache<Long, Integer> messageTokenCounts;
+
+    private final ChatMetrics chatMetrics;
+
+    public PromptAssembler(ChatPromptProperties chatPromptProperties, ChatMetrics chatMetrics) {
+        this.chatPromptProperties = chatPromptProperties;
+        this.chatMetrics = chatMetrics;
+        this.messageTokenCounts = Caffeine.newBuilder()
+                .maximumSize(chatPromptProperties.getTokenCountCacheSize())
+                .build();
+    }
+
+    public Prompt assemble(AIChatRoomPromptContext promptContext, String userMessage) {
+        return assemble(promptContext, List.of(), userMessage);
+    }
+
+    // memories : 현재 질문과 관련된 과거 대화 (유사도 내림차순)
+    public Prompt assemble(AIChatRoomPromptContext promptContext, List<AIChatRoomMemory> memories,
+                           String userMessage) {
+        int remainingTokens = chatPromptProperties.getTokenBudget()
+                - SYSTEM_PROMPT_TOKENS
+                - TokenEstimator.estimateMessage(userMessage);
+
+        // 요약은 예산 안에 들어올 때만 포함
+        String summary = null;
+        if (promptContext.hasSummaryMessage()) {
+            String candidate = SUMMARY_PREFIX + promptContext.getSummaryMessage();
+            int summaryTokens = TokenEstimator.estimateMessage(candidate);
+
+            if (summaryTokens <= remainingTokens) {
+                summary = candidate;
+                remainingTokens -= summaryTokens;
+            }
+        }
+
+        // 관련된 이전 대화는 memoryTokenBudget 안에서 유사도 높은 순으로 선택
+        String memory = null;
+        if (!memories.isEmpty()) {
+            memory = memoryMessage(memories, Math.min(remainingTokens, chatPromptProperties.getMemoryTokenBudget()));
+            if (memory != null) {
+                remainingTokens -= TokenEstimator.estimateMessage(memory);
+            }
+        }
+
+        // 최근 대화부터 거꾸로 예산이 허락하는 만큼 선택 (previousMessages 는 오래된 순)
+        List<AIChatRoomMessage> previousMessages = promptContext.getPreviousMessages();
+        int windowStart = previousMessages.size();
+
+        while (windowStart > 0) {
+            int turnTokens = tokenCount(previousMessages.get(windowStart - 1));
+            if (turnTokens > remainingTokens) {
+                break;
+            }
+
+            remainingTokens -= turnTokens;
+            windowStart--;
+        }
+
+        List<AIChatRoomMessage> window = previousMessages.subList(windowStart, previousMessages.size());
+
+        List<Message> messages = new ArrayList<>(window.size() * 2 + 4);
+        messages.add(new SystemMessage(SYSTEM_PROMPT));
+
+        // 가장 마지막 요약 메시지를 시스템 메시지 형태로 추가
+        if (summary != null) {
+            messages.add(new SystemMessage(summary));
+        }
+
+        if (memory != null) {
+            messages.add(new SystemMessage(memory));
+        }
+
+        // 이전 대화 메시지들을 시스템 메시지 뒤에 이어 붙임
+        for (AIChatRoomMessage message : window) {
+            messages.add(new UserMessage(message.getUserMessage()));
+            messages.add(new AssistantMessage(message.getBotMessage()));
+        }
+
+        messages.add(new UserMessage(userMessage)); // 사용자가 현재 입력한 메시지를 추가
+
+        chatMetrics.recordPrompt(window.size(), messages.size(),
+                chatPromptProperties.getTokenBudget() - remainingTokens);
+
+        return new Prompt(messages);
+    }
+
+    // 예산 안에 들어오는 과거 대화를 골라 "Q:/A:" 형식으로 (대화 순서대로) 이어 붙임, 하나도 못 넣으면 null
+    private String memoryMessage(List<AIChatRoomMemory> memories, int budget) {
+        int remainingTokens = budget - TokenEstimator.estimateMessage(MEMORY_PREFIX);
+        List<AIChatRoomMemory> selected = new ArrayList<>(memories.size());
+
+        for (AIChatRoomMemory memory : memories) {
+            int turnTokens = TokenEstimator.estimateMessage(memoryTurn(memory));
+            if (turnTokens <= remainingTokens) {
+                selected.add(memory);
+                remainingTokens -= turnTokens;
+            }
+        }
+
+        if (selected.isEmpty()) {
+            return null;
+        }
+
+        selected.sort(Comparator.comparing(AIChatRoomMemory::getMessageId));
+
+        StringBuilder sb = new StringBuilder(MEMORY_PREFIX);
+        for (AIChatRoomMemory memory : selected) {
+            sb.append(memoryTurn(memory));
+        }
+        return sb.toString();
+    }
+
+    private static String memoryTurn(AIChatRoomMemory memory) {
+        return "Q: " + memory.getUserMessage() + "\nA: " + memory.getBotMessage() + "\n\n";
+    }
+
+    // 대화 한 턴(질문 + 응답)의 토큰 수
+    private int tokenCount(AIChatRoomMessage message) {
+        if (message.getId() == null) {
+            return estimateTurn(message);
+        }
+
+        return messageTokenCounts.get(message.getId(), id -> estimateTurn(message));
+    }
+
+    private int estimateTurn(AIChatRoomMessage message) {
+        return TokenEstimator.estimateMessage(message.getUserMessage())
+                + TokenEstimator.estimateMessage(message.getBotMessage());
+    }
+}
@@ -0,0 +1,76 @@
+package annovation.chatbot.domain.service;
+
+import annovation.chatbot.global.config.ChatSseProperties;
+import annovation.chatbot.global.util.TextSizes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+// 모델이 생성한 텍스트 chunk 들을 SSE 프레임으로 묶는 인코더
+// chunk 마다 이벤트를 보내지 않고 maxLinger 동안 또는 maxFrameBytes 까지 모아서 한 프레임으로 전송한다
+// 각 프레임은 {"seq":n,"text":"..."} 형태의 JSON 이며, 이벤트 id 로 seq 를 사용한다
+@Component
+@RequiredArgsConstructor
+public class SseFrameEncoder {
+
+    private final ChatSseProperties chatSseProperties;
+    private final ObjectMapper objectMapper;
+
+    public Flux<ServerSentEvent<String>> encode(Flux<String> texts) {
+        AtomicLong sequence = new AtomicLong();
+
+        return texts
+                // maxLinger 마다 구간을 나누고, 구간 안에서는 maxFrameBytes 를 넘으면 바로 프레임을 자른다
+                .windowTimeout(Integer.MAX_VALUE, chatSseProperties.getMaxLinger())
+                .concatMap(window -> window.bufferUntil(
+                        new FrameSizeLimit(chatSseProperties.getMaxFrameBytes())))
+                .map(chunks -> frame(sequence.getAndIncrement(), String.join("", chunks)));
+    }
+
+    private ServerSentEvent<String> frame(long sequence, String text) {
+        return ServerSentEvent.<String>builder()
+                .id(Long.toString(sequence))
+                .data(toJson(new Frame(sequence, text)))
+                .build();
+    }
+
+    private String toJson(Frame frame) {
+        try {
+            return objectMapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE 프레임 JSON 변환 실패", e);
+        }
+    }
+
+    // SSE data 로 전송되는 프레임 (따옴표, 줄바꿈 등은 JSON 으로 이스케이프)
+    public record Frame(long seq, String text) {
+    }
+
+    // 누적 크기가 maxFrameBytes 이상이 되면 그 chunk 까지를 한 프레임으로 자르는 조건
+    private static class FrameSizeLimit implements Predicate<String> {
+
+        private final int maxFrameBytes;
+        private int frameBytes;
+
+        FrameSizeLimit(int maxFrameBytes) {
+            this.maxFrameBytes = maxFrameBytes;
+        }
+
+        @Override
+        public boolean test(String text) {
+            frameBytes += TextSizes.utf8Length(text);
+            if (frameBytes < maxFrameBytes) {
+                return false;
+            }
+
+            frameBytes = 0;
+            return true;
+        }
+    }
+}
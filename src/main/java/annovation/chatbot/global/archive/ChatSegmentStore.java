@@ -0,0 +1,328 @@
+package annovation.chatbot.global.archive;
+
+import annovation.chatbot.global.config.ChatArchiveProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.stereotype.Component;
+
+// 채팅방별 append-only 압축 세그먼트 파일 저장소
+// - {chatRoomId}.seg : 메시지 묶음(블록)을 Deflate 로 압축해 이어 붙인 데이터 파일
+// - {chatRoomId}.idx : 블록마다 고정 크기(44바이트) 항목을 이어 붙인 오프셋 인덱스
+//   (첫 메시지 순번, 메시지 수, 첫/마지막 메시지 ID, 데이터 오프셋, 압축/원본 크기, CRC)
+// 읽기는 두 파일을 메모리 매핑해서 처리한다
+// 어디까지가 유효한지는 DB 에 커밋된 보관 메시지 수(committedCount)로 판단하고,
+// 그 뒤에 남은 블록(파일은 썼지만 DB 커밋 전에 실패한 경우)은 무시하거나 다음 append 때 잘라낸다
+// append 는 committedCount 를 믿고 꼬리를 자르므로, 보관 작업은 withRoomLock 안에서 DB 의 값을 읽고 커밋해야 한다
+@Component
+public class ChatSegmentStore {
+
+    private static final int INDEX_ENTRY_BYTES = 44;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path directory;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ChatSegmentStore(ChatArchiveProperties chatArchiveProperties) {
+        this.directory = Path.of(chatArchiveProperties.getDirectory());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // 보관된 메시지 한 건
+    public record Entry(long id, String createDate, String modifyDate, String userMessage, String botMessage) {
+    }
+
+    // 블록 인덱스 항목
+    private record Block(int firstMessageIndex, int messageCount, long firstMessageId, long lastMessageId,
+                         long offset, int compressedLength, int rawLength, int crc) {
+
+        int endMessageIndex() {
+            return firstMessageIndex + messageCount;
+        }
+    }
+
+    // 채팅방의 세그먼트 파일 잠금을 잡고 실행 (같은 채팅방의 보관 작업과 겹치지 않음)
+    public <T> T withRoomLock(long chatRoomId, Supplier<T> action) {
+        synchronized (lock(chatRoomId)) {
+            return action.get();
+        }
+    }
+
+    // 메시지 묶음을 새 블록으로 추가하고 디스크에 동기화
+    // committedCount : DB 에 커밋된 보관 메시지 수 (새 블록의 첫 메시지 순번), withRoomLock 안에서 읽은 값이어야 함
+    public void append(long chatRoomId, int committedCount, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        synchronized (lock(chatRoomId)) {
+            try {
+                Files.createDirectories(directory);
+
+                try (FileChannel data = FileChannel.open(dataPath(chatRoomId),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                        FileChannel index = FileChannel.open(indexPath(chatRoomId),
+                                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                    // 커밋된 블록이 committedCount 까지 이어지지 않으면 파일이 DB 보다 뒤처진 것 (잘라내면 보관 데이터를 잃음)
+                    List<Block> blocks = committedBlocks(index, committedCount);
+                    int committedEnd = blocks.isEmpty() ? 0 : blocks.getLast().endMessageIndex();
+                    if (committedEnd != committedCount) {
+                        throw new IllegalStateException("세그먼트 파일이 보관 메시지 수와 맞지 않습니다. chatRoomId=%d, committed=%d, file=%d"
+                                .formatted(chatRoomId, committedCount, committedEnd));
+                    }
+
+                    // 커밋되지 않은 꼬리 블록 정리
+                    long dataEnd = blocks.isEmpty() ? 0 : blocks.getLast().offset() + blocks.getLast().compressedLength();
+                    index.truncate((long) blocks.size() * INDEX_ENTRY_BYTES);
+                    data.truncate(dataEnd);
+
+                    byte[] raw = encode(entries);
+                    byte[] compressed = compress(raw);
+                    CRC32 crc = new CRC32();
+                    crc.update(compressed);
+
+                    // 데이터를 먼저 쓰고 동기화한 뒤 인덱스 항목 추가
+                    writeFully(data, ByteBuffer.wrap(compressed), dataEnd);
+                    data.force(false);
+
+                    ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES)
+                            .putInt(committedCount)
+                            .putInt(entries.size())
+                            .putLong(entries.getFirst().id())
+                            .putLong(entries.getLast().id())
+                            .putLong(dataEnd)
+                            .putInt(compressed.length)
+                            .putInt(raw.length)
+                            .putInt((int) crc.getValue())
+                            .flip();
+                    writeFully(index, entry, (long) blocks.size() * INDEX_ENTRY_BYTES);
+                    index.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // afterId 보다 ID 가 큰 보관 메시지를 ID 순으로 최대 limit 개 조회
+    public List<Entry> readAfter(long chatRoomId, int committedCount, long afterId, int limit) {
+        List<Entry> result = new ArrayList<>();
+        if (committedCount == 0 || limit <= 0) {
+            return result;
+        }
+
+        scan(chatRoomId, committedCount, afterId, entry -> result.add(entry), () -> result.size() >= limit);
+
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    // afterId 보다 ID 가 큰 보관 메시지를 ID 순으로 하나씩 전달 (블록 하나만큼만 메모리 사용)
+    public void forEachAfter(long chatRoomId, int committedCount, long afterId, Consumer<Entry> consumer) {
+        if (committedCount == 0) {
+            return;
+        }
+
+        scan(chatRoomId, committedCount, afterId, consumer, () -> false);
+    }
+
+    private void scan(long chatRoomId, int committedCount, long afterId, Consumer<Entry> consumer,
+            BooleanSupplier done) {
+        try (FileChannel index = FileChannel.open(indexPath(chatRoomId), StandardOpenOption.READ);
+                FileChannel data = FileChannel.open(dataPath(chatRoomId), StandardOpenOption.READ)) {
+
+            List<Block> blocks = committedBlocks(index, committedCount);
+            if (blocks.isEmpty() || blocks.getLast().endMessageIndex() < committedCount) {
+                throw new IllegalStateException("보관된 메시지 세그먼트가 없습니다. chatRoomId=" + chatRoomId);
+            }
+
+            long dataSize = data.size();
+            for (Block block : blocks.subList(firstBlockAfter(blocks, afterId), blocks.size())) {
+                // 인덱스는 있는데 데이터가 잘린 블록
+                if (block.offset() + block.compressedLength() > dataSize) {
+                    throw new IllegalStateException("잘린 세그먼트 블록입니다. chatRoomId=%d, offset=%d"
+                            .formatted(chatRoomId, block.offset()));
+                }
+
+                MappedByteBuffer mapped = data.map(FileChannel.MapMode.READ_ONLY, block.offset(),
+                        block.compressedLength());
+                ByteBuffer raw = ByteBuffer.wrap(decompress(chatRoomId, block, mapped));
+
+                for (int i = 0; i < block.messageCount(); i++) {
+                    Entry entry = decodeEntry(raw);
+                    if (entry.id() > afterId) {
+                        consumer.accept(entry);
+                    }
+                }
+
+                if (done.getAsBoolean()) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 마지막 메시지 ID 가 afterId 보다 큰 첫 블록 (이진 탐색)
+    private static int firstBlockAfter(List<Block> blocks, long afterId) {
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blocks.get(mid).lastMessageId() > afterId) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // 인덱스에서 committedCount 안에 들어가는 연속된 블록만 읽음
+    private static List<Block> committedBlocks(FileChannel index, int committedCount) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        long size = index.size() - index.size() % INDEX_ENTRY_BYTES;
+        if (size == 0) {
+            return blocks;
+        }
+
+        MappedByteBuffer mapped = index.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int expectedMessageIndex = 0;
+
+        while (mapped.remaining() >= INDEX_ENTRY_BYTES) {
+            Block block = new Block(mapped.getInt(), mapped.getInt(), mapped.getLong(), mapped.getLong(),
+                    mapped.getLong(), mapped.getInt(), mapped.getInt(), mapped.getInt());
+
+            if (block.firstMessageIndex() != expectedMessageIndex || block.endMessageIndex() > committedCount) {
+                break;
+            }
+
+            blocks.add(block);
+            expectedMessageIndex = block.endMessageIndex();
+        }
+
+        return blocks;
+    }
+
+    private static byte[] encode(List<Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        for (Entry entry : entries) {
+            out.writeLong(entry.id());
+            writeString(out, entry.createDate());
+            writeString(out, entry.modifyDate());
+            writeString(out, entry.userMessage());
+            writeString(out, entry.botMessage());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // 길이(int, null 이면 -1) + UTF-8 바이트
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Entry decodeEntry(ByteBuffer raw) {
+        return new Entry(raw.getLong(), readString(raw), readString(raw), readString(raw), readString(raw));
+    }
+
+    private static String readString(ByteBuffer raw) {
+        int length = raw.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        String value = new String(raw.array(), raw.position(), length, StandardCharsets.UTF_8);
+        raw.position(raw.position() + length);
+        return value;
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(long chatRoomId, Block block, ByteBuffer compressed) {
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != block.crc()) {
+            throw new IllegalStateException("손상된 세그먼트 블록입니다. chatRoomId=%d, offset=%d"
+                    .formatted(chatRoomId, block.offset()));
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[block.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("세그먼트 블록 압축 해제 실패. chatRoomId=" + chatRoomId, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private Object lock(long chatRoomId) {
+        return locks[Long.hashCode(chatRoomId) & (LOCK_STRIPES - 1)];
+    }
+
+    private Path dataPath(long chatRoomId) {
+        return directory.resolve(chatRoomId + ".seg");
+    }
+
+    private Path indexPath(long chatRoomId) {
+        return directory.resolve(chatRoomId + ".idx");
+    }
+}
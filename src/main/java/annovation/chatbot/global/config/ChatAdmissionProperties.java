@@ -0,0 +1,35 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 업스트림 모델 호출 제한 설정 (application.yml 의 chatbot.admission)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.admission")
+public class ChatAdmissionProperties {
+
+    private boolean enabled = true;
+
+    // 동시에 진행할 수 있는 최대 모델 호출 수
+    private int maxConcurrency = 16;
+
+    // 분당 최대 요청 수
+    private int requestsPerMinute = 30;
+
+    // 분당 최대 토큰 수 (프롬프트 추정치로 예약하고, 응답 토큰은 호출이 끝난 뒤 차감)
+    private int tokensPerMinute = 30_000;
+
+    // 대기열에서 기다릴 수 있는 최대 시간 (넘으면 503)
+    private Duration maxQueueWait = Duration.ofSeconds(10);
+
+    // 429 / 일시적 오류 재시도 횟수
+    private int maxRetries = 3;
+
+    // 재시도 대기 시간 (지수 증가 + jitter, Retry-After 가 있으면 그 값을 따름)
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    private Duration maxBackoff = Duration.ofSeconds(10);
+}
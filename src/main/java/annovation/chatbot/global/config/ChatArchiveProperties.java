@@ -0,0 +1,26 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 오래된 대화 턴 콜드 스토리지 설정 (application.yml 의 chatbot.archive)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.archive")
+public class ChatArchiveProperties {
+
+    private boolean enabled = false;
+
+    // 채팅방별 세그먼트 파일(.seg)과 오프셋 인덱스(.idx)를 저장할 디렉터리
+    private String directory = "./archive";
+
+    // 요약이 끝났더라도 DB 에 남겨 둘 최근 메시지 수 (프롬프트 컨텍스트 조회용, max-history-messages 이상)
+    private int keepRecentMessages = 100;
+
+    // 옮길 메시지가 이 수보다 적으면 다음 기회로 미룸 (작은 블록이 너무 많아지지 않도록)
+    private int minBatchMessages = 50;
+
+    // 한 번에 옮길 최대 메시지 수 (압축 블록 하나)
+    private int maxBatchMessages = 1000;
+}
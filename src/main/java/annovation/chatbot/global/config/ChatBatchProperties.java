@@ -0,0 +1,41 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 대량 생성 작업 설정 (application.yml 의 chatbot.batch)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.batch")
+public class ChatBatchProperties {
+
+    private boolean enabled = true;
+
+    // 동시에 실행할 최대 프롬프트 수 (같은 채팅방의 프롬프트는 줄 순서대로 하나씩)
+    private int parallelism = 4;
+
+    // 한 작업에 올릴 수 있는 최대 프롬프트 수
+    private int maxItemsPerJob = 10000;
+
+    // 실행할 항목을 한 번에 조회할 수
+    private int fetchSize = 100;
+
+    // 대기열 초과(429 / 503)로 실패한 프롬프트 재시도 횟수와 첫 대기 시간 (지수 backoff)
+    private int maxRetries = 3;
+
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    // 결과 저장 등 DB 오류로 실행이 멈췄을 때 다시 실행하기까지 기다리는 시간 (연속으로 실패하면 두 배씩, 최대 maxRestartBackoff)
+    private Duration restartBackoff = Duration.ofSeconds(5);
+
+    private Duration maxRestartBackoff = Duration.ofMinutes(5);
+
+    // 진행 상황 SSE 에서 새 결과를 확인하는 주기
+    private Duration progressInterval = Duration.ofSeconds(1);
+
+    private int defaultPageSize = 20;
+
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,30 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 백그라운드 요약(compaction) 설정 (application.yml 의 chatbot.compaction)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.compaction")
+public class ChatCompactionProperties {
+
+    private boolean enabled = true;
+
+    // 요약이 필요한 채팅방을 확인하는 주기 (이전 실행이 끝난 뒤부터)
+    private Duration interval = Duration.ofSeconds(5);
+
+    // 한 번에 처리할 최대 채팅방 수
+    private int batchSize = 100;
+
+    // 동시에 요약할 최대 채팅방 수
+    private int parallelism = 4;
+
+    // 채팅방 하나에서 한 번에 만들 최대 요약 구간 수 (나머지는 다음 실행에서 이어서 처리)
+    private int maxSegmentsPerRoom = 50;
+
+    // 시작 시 기존 채팅방 전체를 훑어 밀린 요약을 채움
+    private boolean backfillOnStartup = true;
+}
@@ -0,0 +1,15 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 채팅방별 동시 요청 처리 설정 (application.yml 의 chatbot.concurrency)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.concurrency")
+public class ChatConcurrencyProperties {
+
+    // 한 채팅방에서 진행 중인 턴 뒤에 대기할 수 있는 최대 턴 수 (초과 시 429)
+    private int maxQueuedTurnsPerRoom = 2;
+}
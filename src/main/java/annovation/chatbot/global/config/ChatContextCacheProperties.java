@@ -0,0 +1,21 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 채팅방별 대화 컨텍스트 캐시 설정 (application.yml 의 chatbot.context-cache)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.context-cache")
+public class ChatContextCacheProperties {
+
+    private boolean enabled = true;
+
+    // 캐시할 최대 채팅방 수
+    private long maximumSize = 10_000;
+
+    // 마지막 접근 후 이 시간이 지나면 제거
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+}
@@ -0,0 +1,18 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 메시지 기록 조회 설정 (application.yml 의 chatbot.history)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.history")
+public class ChatHistoryProperties {
+
+    // 커서 페이지 조회 시 기본 페이지 크기
+    private int defaultPageSize = 20;
+
+    // 커서 페이지 조회 시 최대 페이지 크기
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,41 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 채팅방별 장기 기억(과거 대화 벡터 검색) 설정 (application.yml 의 chatbot.memory)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.memory")
+public class ChatMemoryProperties {
+
+    private boolean enabled = true;
+
+    // 채팅방별 인덱스 파일({chatRoomId}.hnsw)을 저장할 디렉터리
+    private String directory = "./memory";
+
+    // 해싱 임베딩 차원 (바꾸면 기존 인덱스 파일은 버리고 DB 에서 다시 만듦)
+    private int dimensions = 128;
+
+    // 프롬프트에 넣을 최대 과거 대화 수
+    private int topK = 4;
+
+    // 이 유사도보다 낮은 대화는 넣지 않음
+    private float minScore = 0.3f;
+
+    // HNSW 노드별 최대 이웃 수 (레벨 0 은 두 배)
+    private int maxConnections = 16;
+
+    private int efConstruction = 64;
+
+    private int efSearch = 64;
+
+    // 메모리에 올려 둘 최대 벡터 수 (채팅방 인덱스 크기의 합, 밀려난 인덱스는 파일로 저장)
+    // 벡터 하나에 dimensions * 4 바이트 + 이웃 목록이 들므로 기본값은 128 차원 기준 약 100MB
+    private long maximumIndexedVectors = 150_000;
+
+    // 변경된 인덱스를 파일로 저장하는 주기
+    private Duration flushInterval = Duration.ofMinutes(1);
+}
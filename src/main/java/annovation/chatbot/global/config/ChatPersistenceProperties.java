@@ -0,0 +1,34 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 완료된 대화 턴 저장 설정 (application.yml 의 chatbot.persistence)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.persistence")
+public class ChatPersistenceProperties {
+
+    // true 면 완료된 턴을 큐에 넣고 전용 writer 스레드가 배치로 저장 (write-behind)
+    private boolean writeBehind = true;
+
+    // ASYNC : 큐에 넣자마자 [DONE] 전송 (재시작 직전 큐에 남은 턴은 종료 시 flush)
+    // SYNC  : writer 가 DB 에 커밋한 뒤 [DONE] 전송
+    private Durability durability = Durability.ASYNC;
+
+    // 큐 최대 크기 (가득 차면 호출한 스레드에서 바로 저장)
+    private int queueCapacity = 10_000;
+
+    // 한 트랜잭션에서 저장할 최대 턴 수
+    private int batchSize = 100;
+
+    // 첫 턴이 들어온 뒤 배치를 더 모으기 위해 기다리는 최대 시간
+    private Duration maxLinger = Duration.ofMillis(20);
+
+    public enum Durability {
+        ASYNC,
+        SYNC
+    }
+}
@@ -0,0 +1,24 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 프롬프트 구성 설정 (application.yml 의 chatbot.prompt)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.prompt")
+public class ChatPromptProperties {
+
+    // 프롬프트에 사용할 최대 토큰 수 (모델 컨텍스트에서 응답에 쓸 토큰을 뺀 값)
+    private int tokenBudget = 6000;
+
+    // 토큰 예산을 채우기 위해 DB 에서 가져올 최근 메시지 최대 수
+    private int maxHistoryMessages = 20;
+
+    // 관련된 과거 대화(장기 기억)에 쓸 최대 토큰 수 (tokenBudget 안에서 최근 대화보다 먼저 배정)
+    private int memoryTokenBudget = 800;
+
+    // 메시지별 토큰 수 캐시 최대 크기
+    private int tokenCountCacheSize = 100_000;
+}
@@ -0,0 +1,25 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 스트리밍 응답 재연결(Last-Event-ID) 버퍼 설정 (application.yml 의 chatbot.replay)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.replay")
+public class ChatReplayProperties {
+
+    // 응답 하나당 보관할 최대 이벤트 크기 (넘으면 오래된 이벤트부터 버림)
+    private int maxBytesPerGeneration = 256 * 1024;
+
+    // 동시에 보관할 최대 응답 수
+    private long maxGenerations = 10_000;
+
+    // 응답이 끝난 뒤 재연결을 위해 보관하는 시간
+    private Duration retention = Duration.ofMinutes(5);
+
+    // 끝나지 않은 응답을 보관하는 최대 시간
+    private Duration maxGenerationTime = Duration.ofMinutes(30);
+}
@@ -0,0 +1,25 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// /ai/chat/generate 응답 캐시 설정 (application.yml 의 chatbot.response-cache)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.response-cache")
+public class ChatResponseCacheProperties {
+
+    // 기본 비활성화 (같은 질문에 같은 답을 돌려줘도 되는 경우에만 사용)
+    private boolean enabled = false;
+
+    // 응답을 캐시에 보관하는 시간
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // 캐시할 최대 응답 수
+    private long maximumSize = 1_000;
+
+    // 진행 중인 같은 요청의 응답을 함께 기다리는 최대 시간 (넘으면 504)
+    private Duration coalesceTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,45 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 여러 OpenAI 호환 엔드포인트 간 라우팅 설정 (application.yml 의 chatbot.routing)
+// 기본 엔드포인트(spring.ai.openai)에 endpoints 를 추가하면 지연 시간 기반 라우팅을 사용
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.routing")
+public class ChatRoutingProperties {
+
+    // 추가 엔드포인트 (비어 있으면 기본 엔드포인트만 사용하고 라우터를 만들지 않음)
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    // EWMA 가중치 (클수록 최근 응답 시간을 더 크게 반영)
+    private double ewmaAlpha = 0.3;
+
+    // 오류가 난 엔드포인트에 반영할 지연 시간
+    private Duration errorPenalty = Duration.ofSeconds(10);
+
+    // 첫 토큰(동기 호출은 응답)이 hedge-delay 안에 오지 않으면 다음 엔드포인트에 한 번 더 요청
+    private boolean hedgingEnabled = false;
+
+    private Duration hedgeDelay = Duration.ofSeconds(2);
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        private String name;
+
+        private String baseUrl;
+
+        // 비어 있으면 spring.ai.openai.api-key 사용
+        private String apiKey;
+
+        // 비어 있으면 기본 엔드포인트의 모델 사용
+        private String model;
+    }
+}
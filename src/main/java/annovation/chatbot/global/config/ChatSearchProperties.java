@@ -0,0 +1,32 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 대화 기록 전문 검색 설정 (application.yml 의 chatbot.search)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.search")
+public class ChatSearchProperties {
+
+    private boolean enabled = true;
+
+    // 시작 시 DB(+ 보관 파일)에서 인덱스를 다시 만듦 (인덱스는 메모리에만 있음)
+    private boolean rebuildOnStartup = true;
+
+    // 재색인 시 한 번에 조회할 채팅방 수
+    private int rebuildBatchSize = 100;
+
+    private int defaultPageSize = 20;
+
+    private int maxPageSize = 100;
+
+    // 페이지를 넘겨 볼 수 있는 최대 결과 수 ((page + 1) * size 가 이보다 크면 400)
+    private int maxResultWindow = 1000;
+
+    // BM25 파라미터
+    private float k1 = 1.2f;
+
+    private float b = 0.75f;
+}
@@ -0,0 +1,32 @@
+package annovation.chatbot.global.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 채팅방 단위 샤딩 설정 (application.yml 의 chatbot.sharding)
+// 켜면 spring.datasource 대신 shards 의 DB 들을 사용하고, 채팅방 ID 로 DB 를 골라 조회/저장한다
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.sharding")
+public class ChatShardingProperties {
+
+    private boolean enabled = false;
+
+    // 순서가 샤드 번호 (0 번 샤드에 채팅방 → 샤드 디렉터리 테이블을 둠)
+    // 샤드를 추가할 때는 뒤에 붙이고, 순서를 바꾸거나 빼면 안 됨
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+    }
+}
@@ -0,0 +1,19 @@
+package annovation.chatbot.global.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// SSE 프레임 설정 (application.yml 의 chatbot.sse)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.sse")
+public class ChatSseProperties {
+
+    // 한 프레임에 모을 최대 텍스트 크기 (UTF-8 바이트)
+    private int maxFrameBytes = 1024;
+
+    // chunk 를 모으기 위해 기다리는 최대 시간
+    private Duration maxLinger = Duration.ofMillis(30);
+}
@@ -0,0 +1,23 @@
+package annovation.chatbot.global.config;
+
+import annovation.chatbot.domain.entity.AIChatRoomSummaryPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 요약 메시지 설정 (application.yml 의 chatbot.summary)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.summary")
+public class ChatSummaryProperties {
+
+    // 요약 생성 방식 (rolling: 크기 제한 압축, cumulative: 기존 누적 방식)
+    private AIChatRoomSummaryPolicy.Mode mode = AIChatRoomSummaryPolicy.Mode.ROLLING;
+
+    // rolling 모드에서 요약 메시지 최대 길이 (문자 수)
+    private int maxLength = 4000;
+
+    public AIChatRoomSummaryPolicy toPolicy() {
+        return new AIChatRoomSummaryPolicy(mode, maxLength);
+    }
+}
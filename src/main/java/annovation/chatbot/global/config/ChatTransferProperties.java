@@ -0,0 +1,18 @@
+package annovation.chatbot.global.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// 채팅방 내보내기/가져오기 설정 (application.yml 의 chatbot.transfer)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chatbot.transfer")
+public class ChatTransferProperties {
+
+    // 내보낼 채팅방 ID 를 한 번에 조회할 수
+    private int exportPageSize = 100;
+
+    // 가져올 때 한 번에 insert 할 메시지/요약 수 (한 트랜잭션)
+    private int importBatchSize = 1000;
+}
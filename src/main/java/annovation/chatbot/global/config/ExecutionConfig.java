@@ -0,0 +1,34 @@
+package annovation.chatbot.global.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// 블로킹 작업 실행 방식 설정
+// 스트리밍(Reactor) 스레드에서 JPA 조회/저장 같은 블로킹 작업을 하지 않도록 blockingScheduler 로 옮겨서 실행한다
+// spring.threads.virtual.enabled=true 이면 Spring Boot 가 Tomcat 요청 처리와 MVC 비동기 처리(SSE, StreamingResponseBody)를
+// 가상 스레드에서 실행하고, 블로킹 작업도 같은 가상 스레드 executor(applicationTaskExecutor)에서 실행한다
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(name = "blockingScheduler", destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler platformBlockingScheduler() {
+        return Schedulers.boundedElastic();
+    }
+
+    // executor 종료는 Spring Boot 가 관리 (spring.task.execution.shutdown 설정만큼 진행 중인 작업을 기다림)
+    @Bean(name = "blockingScheduler", destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualBlockingScheduler(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor applicationTaskExecutor
+    ) {
+        return Schedulers.fromExecutor(applicationTaskExecutor);
+    }
+}
@@ -0,0 +1,36 @@
+package annovation.chatbot.global.config;
+
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceIdAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// 시작 시 메시지/요약/대량 생성 항목 시퀀스를 테이블의 max(id) 위로 옮김
+// (IDENTITY 로 쓰던 기존 DB 는 SequenceIdAllocator 가 만든 시퀀스가 처음부터 시작해 기존 ID 와 겹침)
+// 샤딩 모드에서는 ShardDirectory 가 모든 샤드의 max(id) 위로 같은 일을 함
+@Component
+@ConditionalOnProperty(prefix = "chatbot.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class IdSequenceMigration implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+
+    // EntityManagerFactory(ddl-auto 로 테이블 생성)가 끝난 뒤 실행되도록 주입받음
+    public IdSequenceMigration(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+            SequenceIdAllocator sequenceIdAllocator) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sequenceIdAllocator = sequenceIdAllocator;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String sequence : IdSequences.TABLES.keySet()) {
+            IdSequences.restartAbove(jdbcTemplate, sequence, 0, Long.MAX_VALUE);
+        }
+        sequenceIdAllocator.reset();
+    }
+}
@@ -0,0 +1,27 @@
+package annovation.chatbot.global.config;
+
+import annovation.chatbot.global.shard.ShardRoutingDataSource;
+import annovation.chatbot.global.util.SequenceIdAllocator;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 메시지/요약/대량 생성 항목 ID 발급기 설정
+// 샤딩 모드에서는 0 번 샤드의 시퀀스로 모든 샤드의 ID 를 발급하고, 발급기를 Hibernate 설정에 넣어 @SequenceId 가 쓰게 한다
+@Configuration
+public class SequenceIdConfig {
+
+    @Bean
+    public SequenceIdAllocator sequenceIdAllocator(DataSource dataSource) {
+        if (dataSource instanceof ShardRoutingDataSource routingDataSource) {
+            return new SequenceIdAllocator(routingDataSource.shard(0));
+        }
+        return new SequenceIdAllocator(dataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sequenceIdAllocatorCustomizer(SequenceIdAllocator sequenceIdAllocator) {
+        return properties -> properties.put(SequenceIdAllocator.PROPERTY, sequenceIdAllocator);
+    }
+}
@@ -0,0 +1,77 @@
+package annovation.chatbot.global.config;
+
+import annovation.chatbot.global.shard.ChatShardRouter;
+import annovation.chatbot.global.shard.ShardDirectory;
+import annovation.chatbot.global.shard.ShardKeyInterceptor;
+import annovation.chatbot.global.shard.ShardRoutingDataSource;
+import annovation.chatbot.global.util.SequenceIdAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+// 샤딩 모드(chatbot.sharding.enabled=true) 설정
+// spring.datasource 대신 샤드별 커넥션 풀을 묶은 라우팅 DataSource 를 사용하고,
+// @ShardKey 메서드를 채팅방의 샤드에서 실행하는 advisor 를 트랜잭션 advisor 바깥에 등록한다
+@Configuration
+@ConditionalOnProperty(prefix = "chatbot.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ChatShardingProperties chatShardingProperties) {
+        List<ChatShardingProperties.Shard> shards = chatShardingProperties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("chatbot.sharding.shards 가 비어 있습니다.");
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            ChatShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + i);
+            targets.put(i, dataSource);
+        }
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards.size());
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(0));
+        return routingDataSource;
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardRoutingDataSource dataSource, JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties, EntityManagerFactory entityManagerFactory,
+            SequenceIdAllocator sequenceIdAllocator) {
+        return new ShardDirectory(dataSource, jpaProperties, hibernateProperties, entityManagerFactory,
+                sequenceIdAllocator);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor shardKeyAdvisor(ObjectProvider<ChatShardRouter> chatShardRouter) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ShardKeyInterceptor.Pointcut(), new ShardKeyInterceptor(chatShardRouter));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
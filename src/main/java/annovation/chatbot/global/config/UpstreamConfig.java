@@ -0,0 +1,116 @@
+package annovation.chatbot.global.config;
+
+import annovation.chatbot.global.upstream.AdmissionControlledChatModel;
+import annovation.chatbot.global.upstream.LatencyRoutingChatModel;
+import annovation.chatbot.global.upstream.UpstreamAdmissionController;
+import annovation.chatbot.global.upstream.UpstreamRateLimitInterceptor;
+import annovation.chatbot.global.upstream.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// 업스트림 모델(Groq) 호출 설정
+// - 429 / 503 응답을 Retry-After 를 담은 UpstreamRateLimitedException 으로 변환
+// - 컨트롤러 등에서 주입받는 ChatModel 을 admission -> (엔드포인트 라우터) -> 모델 순으로 감싼 모델로 교체
+@Configuration
+public class UpstreamConfig {
+
+    // 동기 호출 (ChatModel.call)
+    @Bean
+    public RestClientCustomizer upstreamRateLimitRestClientCustomizer() {
+        return builder -> builder.requestInterceptor(new UpstreamRateLimitInterceptor());
+    }
+
+    // 스트리밍 호출 (ChatModel.stream)
+    @Bean
+    public WebClientCustomizer upstreamRateLimitWebClientCustomizer() {
+        return builder -> builder.filter(ExchangeFilterFunction.ofResponseProcessor(response -> {
+            int statusCode = response.statusCode().value();
+            if (!UpstreamRateLimitedException.isRateLimited(statusCode)) {
+                return Mono.just(response);
+            }
+
+            String retryAfter = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            return response.releaseBody()
+                    .then(Mono.error(new UpstreamRateLimitedException(statusCode,
+                            UpstreamRateLimitedException.parseRetryAfter(retryAfter))));
+        }));
+    }
+
+    @Bean
+    @Primary
+    public ChatModel chatModel(
+            @Qualifier("openAiChatModel") ChatModel openAiChatModel,
+            @Value("${spring.ai.openai.api-key}") String defaultApiKey,
+            ObjectProvider<RestClient.Builder> restClientBuilderProvider,
+            ObjectProvider<WebClient.Builder> webClientBuilderProvider,
+            ChatRoutingProperties chatRoutingProperties,
+            Scheduler blockingScheduler,
+            MeterRegistry meterRegistry,
+            UpstreamAdmissionController upstreamAdmissionController,
+            ChatAdmissionProperties chatAdmissionProperties,
+            RetryTemplate retryTemplate
+    ) {
+        ChatModel upstream = openAiChatModel;
+
+        // 추가 엔드포인트가 있으면 admission 아래에 지연 시간 기반 라우터를 둠
+        if (!chatRoutingProperties.getEndpoints().isEmpty()) {
+            List<LatencyRoutingChatModel.RoutedEndpoint> endpoints = new ArrayList<>();
+            endpoints.add(new LatencyRoutingChatModel.RoutedEndpoint("default", openAiChatModel));
+
+            for (int i = 0; i < chatRoutingProperties.getEndpoints().size(); i++) {
+                ChatRoutingProperties.Endpoint endpoint = chatRoutingProperties.getEndpoints().get(i);
+                OpenAiApi openAiApi = OpenAiApi.builder()
+                        .baseUrl(endpoint.getBaseUrl())
+                        .apiKey(StringUtils.hasText(endpoint.getApiKey()) ? endpoint.getApiKey() : defaultApiKey)
+                        .restClientBuilder(restClientBuilderProvider.getObject())
+                        .webClientBuilder(webClientBuilderProvider.getObject())
+                        .build();
+
+                String model = StringUtils.hasText(endpoint.getModel())
+                        ? endpoint.getModel()
+                        : openAiChatModel.getDefaultOptions().getModel();
+
+                // 이름이 없으면 목록 순서로 이름을 붙임 (메트릭 태그)
+                String name = StringUtils.hasText(endpoint.getName()) ? endpoint.getName() : "endpoint-" + (i + 1);
+
+                endpoints.add(new LatencyRoutingChatModel.RoutedEndpoint(name,
+                        OpenAiChatModel.builder()
+                                .openAiApi(openAiApi)
+                                .defaultOptions(OpenAiChatOptions.builder().model(model).build())
+                                // 기본 모델과 같은 spring.ai.retry 설정 사용 (재시도는 admission 계층에서)
+                                .retryTemplate(retryTemplate)
+                                .build()));
+            }
+
+            upstream = new LatencyRoutingChatModel(endpoints, chatRoutingProperties, blockingScheduler,
+                    meterRegistry);
+        }
+
+        if (!chatAdmissionProperties.isEnabled()) {
+            return upstream;
+        }
+
+        return new AdmissionControlledChatModel(upstream, upstreamAdmissionController, chatAdmissionProperties);
+    }
+}
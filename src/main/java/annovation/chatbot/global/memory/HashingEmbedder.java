@@ -0,0 +1,93 @@
+package annovation.chatbot.global.memory;
+
+// 네트워크/모델 없이 텍스트를 고정 길이 벡터로 바꾸는 해싱 임베딩
+// 공백을 정리한 소문자 텍스트의 글자 2-gram, 3-gram 을 해시해 차원에 +1/-1 로 누적하고 L2 정규화한다
+// (한글은 형태소 분석 없이도 글자 n-gram 으로 어느 정도 의미 유사도를 얻을 수 있음)
+public final class HashingEmbedder {
+
+    private static final int BIGRAM_SEED = 0x9E3779B9;
+    private static final int TRIGRAM_SEED = 0x85EBCA6B;
+
+    private HashingEmbedder() {
+    }
+
+    public static float[] embed(String text, int dimensions) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isEmpty()) {
+            return vector;
+        }
+
+        char[] chars = normalize(text);
+
+        for (int i = 0; i + 1 < chars.length; i++) {
+            add(vector, mix(BIGRAM_SEED + chars[i] * 31 + chars[i + 1]));
+            if (i + 2 < chars.length) {
+                add(vector, mix(TRIGRAM_SEED + (chars[i] * 31 + chars[i + 1]) * 31 + chars[i + 2]));
+            }
+        }
+
+        normalizeLength(vector);
+        return vector;
+    }
+
+    // 코사인 유사도 (둘 다 정규화된 벡터이므로 내적)
+    public static float similarity(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    // 소문자 + 연속 공백은 하나로 (앞뒤에 공백을 붙여 단어 경계도 n-gram 에 포함)
+    private static char[] normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            } else {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        if (normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+
+        char[] chars = new char[normalized.length()];
+        normalized.getChars(0, normalized.length(), chars, 0);
+        return chars;
+    }
+
+    private static void add(float[] vector, int hash) {
+        int index = Math.floorMod(hash, vector.length);
+        vector[index] += (hash & 0x8000_0000) == 0 ? 1f : -1f;
+    }
+
+    // murmur3 fmix32
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static void normalizeLength(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        if (sum == 0) {
+            return;
+        }
+
+        float scale = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
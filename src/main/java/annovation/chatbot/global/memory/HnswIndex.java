@@ -0,0 +1,331 @@
+package annovation.chatbot.global.memory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+// HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스
+// 벡터는 float[] 배열로, 이웃 목록은 int[] 배열로 보관한다 (노드 번호 = 추가된 순서)
+// 동기화하지 않으므로 호출하는 쪽에서 읽기/쓰기 잠금을 관리해야 한다
+public class HnswIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final int dimensions;
+    private final int maxConnections;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private float[][] vectors = new float[16][];
+    private long[] ids = new long[16];
+    // links[node][level] = 이웃 노드 번호 (앞에서부터 linkCounts[node][level] 개만 유효)
+    private int[][][] links = new int[16][][];
+    private int[][] linkCounts = new int[16][];
+    private int size;
+    private int entryPoint = -1;
+
+    // 추가(add) 시 방문 표시용 (쓰기는 한 번에 하나만 하므로 재사용, 검색은 호출마다 BitSet 사용)
+    private int[] visitMarks = new int[16];
+    private int visitEpoch;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int maxConnections, int efConstruction) {
+        this.dimensions = dimensions;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLevel0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxConnections);
+    }
+
+    // 검색 결과 (score : 코사인 유사도)
+    public record Match(long id, int node, float score) {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public long id(int node) {
+        return ids[node];
+    }
+
+    public void add(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("벡터 차원이 다릅니다. expected=%d, actual=%d"
+                    .formatted(dimensions, vector.length));
+        }
+
+        int node = size;
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        ensureCapacity(node + 1);
+
+        vectors[node] = vector;
+        ids[node] = id;
+        links[node] = new int[level + 1][];
+        linkCounts[node] = new int[level + 1];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxConnections(l) + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        // 위쪽 레벨에서는 가장 가까운 노드 하나만 따라 내려감
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedySearch(vector, current, l);
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Match> candidates = searchLayer(vector, current, efConstruction, l, nextVisit());
+            int maxLinks = maxConnections(l);
+
+            for (int i = 0; i < Math.min(maxLinks, candidates.size()); i++) {
+                int neighbor = candidates.get(i).node();
+                addLink(node, neighbor, l);
+                addLink(neighbor, node, l);
+            }
+            current = candidates.getFirst().node();
+        }
+
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    // query 와 가장 비슷한 k 개 (유사도 내림차순), excludeFromNode 이후에 추가된 노드는 제외
+    public List<Match> search(float[] query, int k, int ef, int excludeFromNode) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedySearch(query, current, l);
+        }
+
+        List<Match> result = new ArrayList<>(k);
+        for (Match match : searchLayer(query, current, Math.max(ef, k), 0, searchVisit())) {
+            if (match.node() < excludeFromNode) {
+                result.add(match);
+                if (result.size() == k) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnectionsLevel0 : maxConnections;
+    }
+
+    private int greedySearch(float[] query, int start, int level) {
+        int current = start;
+        float best = HashingEmbedder.similarity(query, vectors[current]);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[current][level];
+            for (int i = 0; i < linkCounts[current][level]; i++) {
+                float score = HashingEmbedder.similarity(query, vectors[neighbors[i]]);
+                if (score > best) {
+                    best = score;
+                    current = neighbors[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // 한 레벨에서 ef 개 후보를 찾는 best-first 탐색 (유사도 내림차순으로 반환)
+    private List<Match> searchLayer(float[] query, int start, int ef, int level, IntPredicate visit) {
+        PriorityQueue<Match> candidates = new PriorityQueue<>(Comparator.comparingDouble(Match::score).reversed());
+        PriorityQueue<Match> found = new PriorityQueue<>(Comparator.comparingDouble(Match::score));
+
+        Match first = new Match(ids[start], start, HashingEmbedder.similarity(query, vectors[start]));
+        visit.test(start);
+        candidates.add(first);
+        found.add(first);
+
+        while (!candidates.isEmpty()) {
+            Match candidate = candidates.poll();
+            if (found.size() >= ef && candidate.score() < found.peek().score()) {
+                break;
+            }
+
+            int node = candidate.node();
+            if (level >= links[node].length) {
+                continue;
+            }
+
+            int[] neighbors = links[node][level];
+            for (int i = 0; i < linkCounts[node][level]; i++) {
+                int neighbor = neighbors[i];
+                if (!visit.test(neighbor)) {
+                    continue;
+                }
+
+                float score = HashingEmbedder.similarity(query, vectors[neighbor]);
+                if (found.size() < ef || score > found.peek().score()) {
+                    Match match = new Match(ids[neighbor], neighbor, score);
+                    candidates.add(match);
+                    found.add(match);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        Match[] sorted = found.toArray(new Match[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(Match::score).reversed());
+        return Arrays.asList(sorted);
+    }
+
+    // 처음 방문한 노드면 true (검색은 동시에 여러 개가 실행될 수 있으므로 호출마다 새 BitSet)
+    private IntPredicate searchVisit() {
+        BitSet visited = new BitSet(size);
+        return node -> {
+            if (visited.get(node)) {
+                return false;
+            }
+            visited.set(node);
+            return true;
+        };
+    }
+
+    private IntPredicate nextVisit() {
+        if (++visitEpoch == 0) {
+            Arrays.fill(visitMarks, 0);
+            visitEpoch = 1;
+        }
+
+        int epoch = visitEpoch;
+        return node -> {
+            if (visitMarks[node] == epoch) {
+                return false;
+            }
+            visitMarks[node] = epoch;
+            return true;
+        };
+    }
+
+    // from 의 이웃 목록에 to 추가 (가득 차면 가장 덜 비슷한 이웃을 버림)
+    private void addLink(int from, int to, int level) {
+        int[] neighbors = links[from][level];
+        int count = linkCounts[from][level];
+        int maxLinks = maxConnections(level);
+
+        neighbors[count++] = to;
+        if (count > maxLinks) {
+            int weakest = 0;
+            float weakestScore = Float.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                float score = HashingEmbedder.similarity(vectors[from], vectors[neighbors[i]]);
+                if (score < weakestScore) {
+                    weakestScore = score;
+                    weakest = i;
+                }
+            }
+            neighbors[weakest] = neighbors[--count];
+        }
+        linkCounts[from][level] = count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= vectors.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, vectors.length * 2);
+        vectors = Arrays.copyOf(vectors, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        links = Arrays.copyOf(links, newCapacity);
+        linkCounts = Arrays.copyOf(linkCounts, newCapacity);
+        visitMarks = Arrays.copyOf(visitMarks, newCapacity);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(dimensions);
+        out.writeInt(maxConnections);
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+
+        for (int node = 0; node < size; node++) {
+            out.writeLong(ids[node]);
+            for (float value : vectors[node]) {
+                out.writeFloat(value);
+            }
+
+            out.writeInt(links[node].length);
+            for (int l = 0; l < links[node].length; l++) {
+                out.writeInt(linkCounts[node][l]);
+                for (int i = 0; i < linkCounts[node][l]; i++) {
+                    out.writeInt(links[node][l][i]);
+                }
+            }
+        }
+    }
+
+    // 저장된 인덱스 읽기 (차원/연결 수 설정이 바뀌었으면 null)
+    public static HnswIndex readFrom(DataInputStream in, int dimensions, int maxConnections, int efConstruction)
+            throws IOException {
+        if (in.readInt() != FORMAT_VERSION || in.readInt() != dimensions || in.readInt() != maxConnections) {
+            return null;
+        }
+
+        HnswIndex index = new HnswIndex(dimensions, maxConnections, efConstruction);
+        int size = in.readInt();
+        index.ensureCapacity(size);
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+
+        for (int node = 0; node < size; node++) {
+            index.ids[node] = in.readLong();
+            float[] vector = new float[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = in.readFloat();
+            }
+            index.vectors[node] = vector;
+
+            int levels = in.readInt();
+            index.links[node] = new int[levels][];
+            index.linkCounts[node] = new int[levels];
+            for (int l = 0; l < levels; l++) {
+                int count = in.readInt();
+                index.links[node][l] = new int[index.maxConnections(l) + 1];
+                index.linkCounts[node][l] = count;
+                for (int i = 0; i < count; i++) {
+                    index.links[node][l][i] = in.readInt();
+                }
+            }
+        }
+        index.size = size;
+
+        return index;
+    }
+}
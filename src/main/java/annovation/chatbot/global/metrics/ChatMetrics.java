@@ -0,0 +1,164 @@
+package annovation.chatbot.global.metrics;
+
+import annovation.chatbot.global.util.TextSizes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+// 대화 생성 경로의 메트릭 (/actuator/metrics 에서 확인)
+// 태그는 outcome / operation 처럼 값의 종류가 적은 것만 사용하고, 미터는 미리 만들어 재사용한다
+@Component
+public class ChatMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final Timer timeToFirstToken;
+    private final Map<SignalType, Timer> streamDurations = new ConcurrentHashMap<>();
+    private final Counter streamTokens;
+    private final Counter streamBytes;
+    private final DistributionSummary streamTokenRate;
+
+    private final DistributionSummary promptWindowTurns;
+    private final DistributionSummary promptMessages;
+    private final DistributionSummary promptTokens;
+
+    private final Counter summariesCreated;
+    private final DistributionSummary summarySize;
+
+    private final Map<String, Timer> dbTimers = new ConcurrentHashMap<>();
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("chat.stream.active", activeStreams, AtomicInteger::get)
+                .description("진행 중인 스트리밍 응답 수")
+                .register(meterRegistry);
+        this.timeToFirstToken = Timer.builder("chat.stream.ttft")
+                .description("요청부터 첫 토큰까지 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.streamTokens = Counter.builder("chat.stream.tokens")
+                .description("스트리밍으로 전송한 토큰(chunk) 수")
+                .register(meterRegistry);
+        this.streamBytes = Counter.builder("chat.stream.bytes")
+                .description("스트리밍으로 전송한 텍스트 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.streamTokenRate = DistributionSummary.builder("chat.stream.token.rate")
+                .description("스트림별 초당 토큰 수")
+                .baseUnit("tokens/s")
+                .register(meterRegistry);
+
+        this.promptWindowTurns = DistributionSummary.builder("chat.prompt.window.size")
+                .description("프롬프트에 포함된 이전 대화 턴 수")
+                .baseUnit("turns")
+                .register(meterRegistry);
+        this.promptMessages = DistributionSummary.builder("chat.prompt.messages")
+                .description("프롬프트 메시지 수")
+                .register(meterRegistry);
+        this.promptTokens = DistributionSummary.builder("chat.prompt.tokens")
+                .description("프롬프트 추정 토큰 수")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+
+        this.summariesCreated = Counter.builder("chat.summary.created")
+                .description("생성된 요약 메시지 수")
+                .register(meterRegistry);
+        this.summarySize = DistributionSummary.builder("chat.summary.size")
+                .description("생성된 요약 메시지 길이")
+                .baseUnit("chars")
+                .register(meterRegistry);
+    }
+
+    public StreamObservation startStream() {
+        activeStreams.incrementAndGet();
+        return new StreamObservation(System.nanoTime());
+    }
+
+    public void recordPrompt(int windowTurns, int messages, int estimatedTokens) {
+        promptWindowTurns.record(windowTurns);
+        promptMessages.record(messages);
+        promptTokens.record(estimatedTokens);
+    }
+
+    public void recordSummaryCreated(int length) {
+        summariesCreated.increment();
+        summarySize.record(length);
+    }
+
+    // DB 작업 시간 측정 (operation 예: load_context, save_turns)
+    public <T> T recordDb(String operation, Supplier<T> supplier) {
+        return dbTimer(operation).record(supplier);
+    }
+
+    public void recordDb(String operation, Runnable runnable) {
+        dbTimer(operation).record(runnable);
+    }
+
+    private Timer dbTimer(String operation) {
+        return dbTimers.computeIfAbsent(operation, op -> Timer.builder("chat.db.latency")
+                .description("DB 작업 시간")
+                .tag("operation", op)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+    }
+
+    private Timer streamDuration(SignalType signalType) {
+        return streamDurations.computeIfAbsent(signalType, signal -> Timer.builder("chat.stream.duration")
+                .description("스트리밍 응답 전체 시간")
+                .tag("outcome", switch (signal) {
+                    case ON_COMPLETE -> "completed";
+                    case ON_ERROR -> "error";
+                    default -> "cancelled";
+                })
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+    }
+
+    // 스트림 하나의 측정 상태
+    // chunk 마다 호출되는 onChunk 는 숫자만 누적하고, 미터 기록은 첫 토큰과 종료 시점에만 한다
+    public class StreamObservation {
+
+        private final long startedAt;
+        private long firstTokenAt;
+        private long tokens;
+        private long bytes;
+
+        private StreamObservation(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public void onChunk(String text) {
+            if (firstTokenAt == 0) {
+                firstTokenAt = System.nanoTime();
+                timeToFirstToken.record(firstTokenAt - startedAt, TimeUnit.NANOSECONDS);
+            }
+
+            tokens++;
+            bytes += TextSizes.utf8Length(text);
+        }
+
+        public void finish(SignalType signalType) {
+            activeStreams.decrementAndGet();
+
+            long finishedAt = System.nanoTime();
+            streamDuration(signalType).record(finishedAt - startedAt, TimeUnit.NANOSECONDS);
+            streamTokens.increment(tokens);
+            streamBytes.increment(bytes);
+
+            if (firstTokenAt != 0 && finishedAt > firstTokenAt) {
+                streamTokenRate.record(tokens * 1e9 / (finishedAt - firstTokenAt));
+            }
+        }
+    }
+}
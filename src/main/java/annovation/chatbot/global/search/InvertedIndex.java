@@ -0,0 +1,167 @@
+package annovation.chatbot.global.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// 대화 턴(메시지) 전문 검색용 inverted index
+// - 문서는 추가된 순서대로 번호(0, 1, 2 ...)를 받고, 번호별 메시지 ID / 채팅방 ID / 토큰 수를 배열로 보관
+// - 단어별 posting list 는 delta + varint 로 압축 (PostingList)
+// - 점수는 BM25, 채팅방을 지정하면 그 채팅방 문서만 집계
+// - 한글 등은 bigram 과 함께 글자 하나짜리 토큰도 추가 (한 글자 질문도 찾을 수 있도록, 문서 길이는 bigram 기준)
+// 같은 메시지 ID 는 한 번만 추가된다 (재색인 중 겹쳐 들어오는 턴 무시)
+// 스레드 안전하지 않으므로 호출하는 쪽에서 잠금 필요
+public class InvertedIndex {
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private long[] messageIds = new long[1024];
+    private long[] chatRoomIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int size;
+    private long totalLength;
+
+    // 이미 추가된 메시지 ID (상위 비트별 BitSet, 샤드별로 ID 구간이 떨어져 있어도 작게 유지)
+    private final Map<Long, BitSet> indexedMessageIds = new HashMap<>();
+
+    public record Hit(long messageId, long chatRoomId, float score) {
+    }
+
+    public record Result(List<Hit> hits, int totalHits) {
+    }
+
+    // 추가했으면 true, 이미 있는 메시지면 false
+    public boolean add(long messageId, long chatRoomId, String text) {
+        BitSet indexed = indexedMessageIds.computeIfAbsent(messageId >>> 31, high -> new BitSet());
+        int bit = (int) (messageId & Integer.MAX_VALUE);
+        if (indexed.get(bit)) {
+            return false;
+        }
+        indexed.set(bit);
+
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        for (String unigram : SearchTokenizer.unigrams(text)) {
+            frequencies.merge(unigram, 1, Integer::sum);
+        }
+
+        int document = size++;
+        if (document == messageIds.length) {
+            int capacity = messageIds.length * 2;
+            messageIds = Arrays.copyOf(messageIds, capacity);
+            chatRoomIds = Arrays.copyOf(chatRoomIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        messageIds[document] = messageId;
+        chatRoomIds[document] = chatRoomId;
+        lengths[document] = tokens.size();
+        totalLength += tokens.size();
+
+        frequencies.forEach((token, frequency) ->
+                postings.computeIfAbsent(token, t -> new PostingList()).add(document, frequency));
+        return true;
+    }
+
+    // BM25 점수 내림차순(같으면 최신 메시지 먼저)으로 offset 번째부터 limit 개
+    // chatRoomId 가 null 이면 전체 채팅방 검색
+    public Result search(String query, Long chatRoomId, int offset, int limit, float k1, float b) {
+        if (size == 0) {
+            return new Result(List.of(), 0);
+        }
+
+        float averageLength = Math.max(1f, (float) totalLength / size);
+        Scores scores = new Scores(size);
+
+        for (String token : new LinkedHashSet<>(SearchTokenizer.tokenize(query))) {
+            PostingList postingList = postings.get(token);
+            if (postingList == null) {
+                continue;
+            }
+
+            int documentFrequency = postingList.count();
+            float idf = (float) Math.log(1 + (size - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+            postingList.forEach((document, frequency) -> {
+                if (chatRoomId != null && chatRoomIds[document] != chatRoomId) {
+                    return;
+                }
+
+                float norm = k1 * (1 - b + b * lengths[document] / averageLength);
+                scores.add(document, idf * frequency * (k1 + 1) / (frequency + norm));
+            });
+        }
+
+        // 점수가 낮은 문서가 먼저 나오는 힙으로 상위 offset + limit 개만 유지
+        int pageEnd = (int) Math.min((long) offset + limit, scores.matchedCount);
+        Comparator<Integer> order = Comparator.<Integer>comparingDouble(document -> scores.values[document])
+                .thenComparingLong(document -> messageIds[document]);
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, pageEnd), order);
+
+        for (int i = 0; i < scores.matchedCount; i++) {
+            int document = scores.matched[i];
+            if (top.size() < pageEnd) {
+                top.add(document);
+            } else if (pageEnd > 0 && order.compare(document, top.peek()) > 0) {
+                top.poll();
+                top.add(document);
+            }
+        }
+
+        Hit[] page = new Hit[top.size()];
+        for (int i = page.length - 1; i >= 0; i--) {
+            int document = top.poll();
+            page[i] = new Hit(messageIds[document], chatRoomIds[document], scores.values[document]);
+        }
+
+        List<Hit> hits = offset >= page.length ? List.of() : List.of(page).subList(offset, page.length);
+        return new Result(hits, scores.matchedCount);
+    }
+
+    // 추가된 문서 수
+    public int size() {
+        return size;
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    // posting list 전체 크기 (바이트)
+    public long postingBytes() {
+        long bytes = 0;
+        for (PostingList postingList : postings.values()) {
+            bytes += postingList.byteSize();
+        }
+        return bytes;
+    }
+
+    // 문서별 점수 합계 + 한 번이라도 점수를 받은 문서 목록
+    private static final class Scores {
+
+        private final float[] values;
+        private int[] matched = new int[64];
+        private int matchedCount;
+
+        Scores(int size) {
+            this.values = new float[size];
+        }
+
+        void add(int document, float score) {
+            if (values[document] == 0) {
+                if (matchedCount == matched.length) {
+                    matched = Arrays.copyOf(matched, matched.length * 2);
+                }
+                matched[matchedCount++] = document;
+            }
+            values[document] += score;
+        }
+    }
+}
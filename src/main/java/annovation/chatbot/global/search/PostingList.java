@@ -0,0 +1,80 @@
+package annovation.chatbot.global.search;
+
+import java.util.Arrays;
+
+// 한 단어의 posting list : (문서 번호, 단어 빈도) 를 문서 번호 오름차순으로 저장
+// 문서 번호는 이전 번호와의 차이(delta)로, 둘 다 varint 로 인코딩해 byte 배열에 이어 붙인다 (대부분 한 건에 2 바이트)
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+
+    // 이 단어가 들어 있는 문서 수 (document frequency)
+    private int count;
+
+    private int lastDocument = -1;
+
+    // document 는 이전에 추가한 번호보다 커야 함
+    void add(int document, int frequency) {
+        ensureCapacity(10);
+        writeVarint(document - lastDocument);
+        writeVarint(frequency);
+        lastDocument = document;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int byteSize() {
+        return length;
+    }
+
+    void forEach(Visitor visitor) {
+        int position = 0;
+        int document = -1;
+
+        while (position < length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            int frequency = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                frequency |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            document += delta;
+            visitor.accept(document, frequency);
+        }
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+
+        void accept(int document, int frequency);
+    }
+}
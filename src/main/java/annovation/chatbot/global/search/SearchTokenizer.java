@@ -0,0 +1,100 @@
+package annovation.chatbot.global.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 검색용 토크나이저
+// - 한글(및 한자/가나 등 띄어쓰기로 단어를 나누기 어려운 문자) : 연속 구간을 글자 bigram 으로 나눔 (한 글자 구간은 그대로)
+//   형태소 분석 없이도 "날씨가" 처럼 조사가 붙은 단어를 "날씨" 로 찾을 수 있음
+// - 영문/숫자 : 단어 단위, 소문자로 변환
+// - 그 외(공백, 문장부호) : 구분자
+// 문서에는 unigrams 로 두 글자 이상 구간의 글자 하나짜리 토큰도 추가해서, 한 글자 질문("날")도 "날씨가" 를 찾을 수 있게 한다
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < length && isWordChar(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else if (isBigramChar(c)) {
+                int start = i;
+                while (i < length && isBigramChar(text.charAt(i))) {
+                    i++;
+                }
+                addBigrams(text, start, i, tokens);
+            } else {
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    // 두 글자 이상인 한글 등 구간의 글자 하나짜리 토큰 (한 글자 구간은 tokenize 가 이미 그대로 넣음)
+    public static List<String> unigrams(String text) {
+        List<String> unigrams = new ArrayList<>();
+        if (text == null) {
+            return unigrams;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isBigramChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+            while (i < length && isBigramChar(text.charAt(i))) {
+                i++;
+            }
+            if (i - start > 1) {
+                for (int j = start; j < i; j++) {
+                    unigrams.add(text.substring(j, j + 1));
+                }
+            }
+        }
+
+        return unigrams;
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+
+        for (int i = start; i + 1 < end; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !isBigramChar(c);
+    }
+
+    private static boolean isBigramChar(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
@@ -0,0 +1,172 @@
+package annovation.chatbot.global.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 채팅방 ID 로 샤드를 골라 현재 스레드에 지정하는 라우터
+// 샤딩이 꺼져 있으면 샤드는 0 번 하나뿐이고 모든 메서드가 그냥 실행만 한다
+// - 채팅방 하나를 다루는 서비스 메서드는 파라미터에 @ShardKey 를 붙이면 된다 (ShardKeyInterceptor)
+// - 여러 채팅방을 한 번에 다루는 작업(배치 저장, 전체 채팅방 순회)은 partition / mergeIds 로 샤드별로 나눠 실행
+// 다른 샤드로 옮기는 중인 채팅방은 옮기는 마지막 단계 동안 잠시 대기한다 (ShardRebalancer)
+@Component
+public class ChatShardRouter {
+
+    private static final Scope NO_OP = () -> {
+    };
+
+    private final ShardDirectory shardDirectory;
+
+    // 다른 샤드로 옮기는 중인 채팅방의 잠금 (조회/저장은 read, 전환은 write)
+    private final Map<Long, ReentrantReadWriteLock> movingRooms = new ConcurrentHashMap<>();
+
+    public ChatShardRouter(ObjectProvider<ShardDirectory> shardDirectory) {
+        this.shardDirectory = shardDirectory.getIfAvailable();
+    }
+
+    public boolean isEnabled() {
+        return shardDirectory != null;
+    }
+
+    public int shardCount() {
+        return isEnabled() ? shardDirectory.shardCount() : 1;
+    }
+
+    public int shardOf(Long chatRoomId) {
+        return isEnabled() ? shardDirectory.shardOf(chatRoomId) : 0;
+    }
+
+    // 새 채팅방을 만들 샤드
+    public int nextShard() {
+        return isEnabled() ? shardDirectory.nextShard() : 0;
+    }
+
+    // 채팅방이 있는 샤드를 현재 스레드에 지정 (close 하면 이전 샤드로 복원)
+    public Scope enter(Long chatRoomId) {
+        if (!isEnabled() || chatRoomId == null) {
+            return NO_OP;
+        }
+
+        ReentrantReadWriteLock moving = movingRooms.get(chatRoomId);
+        if (moving == null) {
+            return enterShard(shardDirectory.shardOf(chatRoomId));
+        }
+
+        moving.readLock().lock();
+        try {
+            Scope scope = enterShard(shardDirectory.shardOf(chatRoomId));
+            return () -> {
+                try {
+                    scope.close();
+                } finally {
+                    moving.readLock().unlock();
+                }
+            };
+        } catch (RuntimeException e) {
+            moving.readLock().unlock();
+            throw e;
+        }
+    }
+
+    public Scope enterShard(int shard) {
+        if (!isEnabled()) {
+            return NO_OP;
+        }
+
+        Integer previous = ShardRoutingDataSource.currentShard();
+        if (previous != null && previous == shard) {
+            return NO_OP;
+        }
+
+        // 이미 연 트랜잭션의 커넥션은 바꿀 수 없음
+        if (previous != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "샤드 %d 의 트랜잭션 안에서 샤드 %d 를 사용할 수 없습니다.".formatted(previous, shard));
+        }
+
+        ShardRoutingDataSource.bind(shard);
+        return () -> ShardRoutingDataSource.bind(previous);
+    }
+
+    public <T> T call(Long chatRoomId, Supplier<T> supplier) {
+        try (Scope ignored = enter(chatRoomId)) {
+            return supplier.get();
+        }
+    }
+
+    public void run(Long chatRoomId, Runnable runnable) {
+        try (Scope ignored = enter(chatRoomId)) {
+            runnable.run();
+        }
+    }
+
+    public <T> T callOn(int shard, Supplier<T> supplier) {
+        try (Scope ignored = enterShard(shard)) {
+            return supplier.get();
+        }
+    }
+
+    public void runOn(int shard, Runnable runnable) {
+        try (Scope ignored = enterShard(shard)) {
+            runnable.run();
+        }
+    }
+
+    // 채팅방 ID 기준으로 샤드별 묶음 (샤드 번호 순)
+    public <T> Map<Integer, List<T>> partition(Collection<T> items, Function<T, Long> chatRoomId) {
+        Map<Integer, List<T>> partitions = new TreeMap<>();
+        for (T item : items) {
+            partitions.computeIfAbsent(shardOf(chatRoomId.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return partitions;
+    }
+
+    // 샤드마다 ID 오름차순으로 limit 개씩 조회한 결과를 합쳐 전체에서 앞의 limit 개 (키셋 순회용)
+    public List<Long> mergeIds(IntFunction<List<Long>> query, int limit) {
+        if (!isEnabled()) {
+            return query.apply(0);
+        }
+
+        List<Long> merged = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int current = shard;
+            merged.addAll(callOn(shard, () -> query.apply(current)));
+        }
+        merged.sort(null);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // ShardRebalancer 전용 : 옮기는 동안 채팅방 잠금 등록/해제
+    ReentrantReadWriteLock beginMove(Long chatRoomId) {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        if (movingRooms.putIfAbsent(chatRoomId, lock) != null) {
+            throw new IllegalStateException("이미 다른 샤드로 옮기는 중인 채팅방입니다. chatRoomId=" + chatRoomId);
+        }
+        return lock;
+    }
+
+    void endMove(Long chatRoomId) {
+        movingRooms.remove(chatRoomId);
+    }
+
+    ShardDirectory directory() {
+        return shardDirectory;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
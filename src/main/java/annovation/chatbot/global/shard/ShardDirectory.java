@@ -0,0 +1,177 @@
+package annovation.chatbot.global.shard;
+
+import annovation.chatbot.domain.entity.AIChatRoom;
+import annovation.chatbot.global.util.IdSequences;
+import annovation.chatbot.global.util.SequenceIdAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.web.server.ResponseStatusException;
+
+// 채팅방 ID → 샤드 매핑
+// - 샤드 k 는 채팅방 ID 구간 [k * 2^40 + 1, (k + 1) * 2^40] 을 사용 (IDENTITY 시작 값을 맞춤)
+//   채팅방 ID 의 상위 비트가 처음 만들어진 샤드(home shard)를 나타내므로 대부분은 조회 없이 계산된다
+// - 메시지/요약 ID 는 0 번 샤드의 시퀀스 하나로 발급하므로(SequenceIdAllocator) 샤드와 무관하게 증가한다
+//   (채팅방을 번호가 작은 샤드로 옮겨도 새 메시지 ID 가 기존 메시지보다 큼)
+//   기존 단일 DB 를 0 번 샤드로 쓰면 기존 ID 도 그대로 0 번 샤드를 가리킨다
+// - 다른 샤드로 옮긴 채팅방만 0 번 샤드의 AICHAT_ROOM_SHARD 테이블에 기록하고 메모리에 올려 둔다
+// 시작 시 0 번이 아닌 샤드의 스키마를 JPA 설정(ddl-auto)대로 맞추고 ID 구간을 설정한다
+@Slf4j
+public class ShardDirectory implements InitializingBean {
+
+    public static final int SHARD_BITS = 40;
+
+    private static final long RANGE = 1L << SHARD_BITS;
+
+    private final ShardRoutingDataSource routingDataSource;
+    private final JpaProperties jpaProperties;
+    private final HibernateProperties hibernateProperties;
+    private final SequenceIdAllocator sequenceIdAllocator;
+
+    // 옮겨진 채팅방 (home shard 가 아닌 곳에 있는 채팅방만)
+    private final Map<Long, Integer> movedRooms = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    // 메인 EntityManagerFactory(0 번 샤드 스키마 생성)가 끝난 뒤 초기화되도록 주입받음
+    public ShardDirectory(ShardRoutingDataSource routingDataSource, JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties, EntityManagerFactory entityManagerFactory,
+            SequenceIdAllocator sequenceIdAllocator) {
+        this.routingDataSource = routingDataSource;
+        this.jpaProperties = jpaProperties;
+        this.hibernateProperties = hibernateProperties;
+        this.sequenceIdAllocator = sequenceIdAllocator;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (int shard = 1; shard < shardCount(); shard++) {
+            updateSchema(routingDataSource.shard(shard));
+        }
+
+        JdbcTemplate directory = jdbcTemplate(0);
+        directory.execute("""
+                create table if not exists AICHAT_ROOM_SHARD (
+                    chat_room_id bigint primary key,
+                    shard int not null
+                )""");
+        directory.query("select chat_room_id, shard from AICHAT_ROOM_SHARD",
+                (RowCallbackHandler) resultSet -> movedRooms.put(resultSet.getLong(1), resultSet.getInt(2)));
+
+        for (int shard = 0; shard < shardCount(); shard++) {
+            initializeIdRange(shard);
+        }
+        initializeSequences();
+
+        log.info("샤딩 모드 시작. shards={}, movedRooms={}", shardCount(), movedRooms.size());
+    }
+
+    public int shardCount() {
+        return routingDataSource.shardCount();
+    }
+
+    public int shardOf(long chatRoomId) {
+        Integer moved = movedRooms.get(chatRoomId);
+        if (moved != null) {
+            return moved;
+        }
+
+        long home = chatRoomId >>> SHARD_BITS;
+        if (home >= shardCount()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "채팅방이 존재하지 않습니다.");
+        }
+        return (int) home;
+    }
+
+    // 새 채팅방을 만들 샤드 (샤드별로 고르게 분산)
+    public int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount());
+    }
+
+    // 채팅방이 shard 로 옮겨졌음을 기록 (home shard 로 돌아오면 기록 삭제)
+    public void assign(long chatRoomId, int shard) {
+        JdbcTemplate directory = jdbcTemplate(0);
+        directory.update("delete from AICHAT_ROOM_SHARD where chat_room_id = ?", chatRoomId);
+
+        if (shard == (int) (chatRoomId >>> SHARD_BITS)) {
+            movedRooms.remove(chatRoomId);
+            return;
+        }
+
+        directory.update("insert into AICHAT_ROOM_SHARD (chat_room_id, shard) values (?, ?)", chatRoomId, shard);
+        movedRooms.put(chatRoomId, shard);
+    }
+
+    public DataSource dataSource(int shard) {
+        return routingDataSource.shard(shard);
+    }
+
+    private JdbcTemplate jdbcTemplate(int shard) {
+        return new JdbcTemplate(routingDataSource.shard(shard));
+    }
+
+    // 메인 EntityManagerFactory 와 같은 JPA 설정(ddl-auto, 네이밍 전략)으로 잠깐 띄웠다 닫아서 스키마를 맞춤
+    private void updateSchema(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(AIChatRoom.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> properties = new HashMap<>(hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings()));
+        // 바로 닫으므로 create-drop 이면 만든 스키마가 지워짐
+        if ("create-drop".equals(properties.get(AvailableSettings.HBM2DDL_AUTO))) {
+            properties.put(AvailableSettings.HBM2DDL_AUTO, "create");
+        }
+        factory.setJpaPropertyMap(properties);
+        factory.setPersistenceUnitName("shard-schema");
+        factory.afterPropertiesSet();
+        factory.destroy();
+    }
+
+    // 샤드의 채팅방 IDENTITY 가 자기 ID 구간에서 이어지도록 설정
+    private void initializeIdRange(int shard) {
+        JdbcTemplate jdbcTemplate = jdbcTemplate(shard);
+        long base = shard * RANGE;
+
+        // 이 구간에서 이미 쓴 채팅방 ID (다른 샤드로 옮긴 채팅방 포함) 다음부터
+        Long maxRoomId = jdbcTemplate.queryForObject(
+                "select coalesce(max(chat_room_id), 0) from AICHAT_ROOM where chat_room_id > ? and chat_room_id <= ?",
+                Long.class, base, base + RANGE);
+        long nextRoomId = Math.max(base, maxRoomId == null ? 0 : maxRoomId);
+        for (Long movedRoomId : movedRooms.keySet()) {
+            if (movedRoomId > base && movedRoomId <= base + RANGE) {
+                nextRoomId = Math.max(nextRoomId, movedRoomId);
+            }
+        }
+        jdbcTemplate.execute("alter table AICHAT_ROOM alter column chat_room_id restart with " + (nextRoomId + 1));
+    }
+
+    // 0 번 샤드의 시퀀스를 모든 샤드에서 이미 쓴 ID 위로 옮김
+    // (IDENTITY 로 쓰던 기존 DB, 샤드마다 시퀀스를 쓰던 이전 버전의 ID 와 겹치지 않도록)
+    private void initializeSequences() {
+        IdSequences.TABLES.forEach((sequence, table) -> {
+            long used = 0;
+            for (int shard = 1; shard < shardCount(); shard++) {
+                Long maxId = jdbcTemplate(shard).queryForObject(
+                        "select coalesce(max(id), 0) from " + table, Long.class);
+                used = Math.max(used, maxId == null ? 0 : maxId);
+            }
+            IdSequences.restartAbove(jdbcTemplate(0), sequence, used, Long.MAX_VALUE);
+        });
+        sequenceIdAllocator.reset();
+    }
+}
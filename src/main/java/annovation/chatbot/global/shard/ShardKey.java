@@ -0,0 +1,15 @@
+package annovation.chatbot.global.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 샤딩 모드에서 이 파라미터(채팅방 ID)가 들어 있는 샤드로 메서드 전체를 실행
+// 트랜잭션보다 먼저 샤드를 정해야 하므로 @Transactional 메서드에도 그대로 붙이면 된다 (ShardKeyInterceptor)
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+}
@@ -0,0 +1,59 @@
+package annovation.chatbot.global.shard;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+
+// @ShardKey 파라미터가 있는 메서드를 그 채팅방의 샤드에서 실행
+// 트랜잭션 advisor 보다 바깥에서 실행되어야 트랜잭션 커넥션이 올바른 샤드에서 열린다 (ShardingConfig 에서 순서 지정)
+public class ShardKeyInterceptor implements MethodInterceptor {
+
+    private static final int NONE = -1;
+
+    private static final Map<Method, Integer> SHARD_KEY_INDEXES = new ConcurrentHashMap<>();
+
+    private final ObjectProvider<ChatShardRouter> chatShardRouter;
+
+    public ShardKeyInterceptor(ObjectProvider<ChatShardRouter> chatShardRouter) {
+        this.chatShardRouter = chatShardRouter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int index = shardKeyIndex(invocation.getMethod());
+        if (index == NONE) {
+            return invocation.proceed();
+        }
+
+        Long chatRoomId = (Long) invocation.getArguments()[index];
+        try (ChatShardRouter.Scope ignored = chatShardRouter.getObject().enter(chatRoomId)) {
+            return invocation.proceed();
+        }
+    }
+
+    static int shardKeyIndex(Method method) {
+        return SHARD_KEY_INDEXES.computeIfAbsent(method, m -> {
+            Parameter[] parameters = m.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].isAnnotationPresent(ShardKey.class)) {
+                    return i;
+                }
+            }
+            return NONE;
+        });
+    }
+
+    public static class Pointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return shardKeyIndex(AopUtils.getMostSpecificMethod(method, targetClass)) != NONE;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package annovation.chatbot.global.shard;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+// 채팅방 하나를 다른 샤드로 옮기는 온라인 재배치
+// 1. 잠금 없이 채팅방/요약/메시지 행을 대상 샤드로 복사 (ID 그대로, 대화는 계속 원래 샤드에 저장됨)
+// 2. 채팅방 잠금(write) 후 그 사이 바뀐 행만 다시 맞추고 디렉터리를 대상 샤드로 바꾼 뒤 원래 샤드의 행을 삭제
+//    (잠금 전에 시작된 배치 저장이 원래 샤드에 남긴 행은 삭제 전에 대상 샤드로 복사)
+//    이 단계 동안만 그 채팅방의 조회/저장이 대기한다
+//    삭제 뒤 원래 샤드에 저장하려는 턴은 채팅방 행이 없어 실패하고, writer 가 한 건씩 다시 저장할 때 대상 샤드로 간다
+// 디렉터리를 바꾸기 전에 실패하면 디렉터리는 원래 샤드를 가리키므로 데이터는 그대로이고, 다시 실행하면 남은 행만 맞춘다
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private static final String ROOM_TABLE = "AICHAT_ROOM";
+
+    // 채팅방을 참조하는 테이블과 채팅방 ID 컬럼 (채팅방 행보다 먼저 삭제, 나중에 복사)
+    private static final List<ChildTable> CHILD_TABLES = List.of(
+            new ChildTable("AICHAT_ROOM_SUMMARY_MESSAGE", "chat_room_chat_room_id"),
+            new ChildTable("AICHAT_ROOM_MESSAGE", "chat_room_id"));
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_DRAIN_ATTEMPTS = 5;
+
+    private static final ColumnMapRowMapper COLUMN_MAP_ROW_MAPPER = new ColumnMapRowMapper();
+
+    private final ChatShardRouter chatShardRouter;
+
+    // 옮긴 뒤의 샤드 번호
+    public int move(Long chatRoomId, int targetShard) {
+        if (!chatShardRouter.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "샤딩 모드가 아닙니다.");
+        }
+        if (targetShard < 0 || targetShard >= chatShardRouter.shardCount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "존재하지 않는 샤드입니다.");
+        }
+
+        ShardDirectory directory = chatShardRouter.directory();
+        int sourceShard = directory.shardOf(chatRoomId);
+        if (sourceShard == targetShard) {
+            return targetShard;
+        }
+
+        DataSource source = directory.dataSource(sourceShard);
+        DataSource target = directory.dataSource(targetShard);
+
+        if (new JdbcTemplate(source).queryForObject("select count(*) from AICHAT_ROOM where chat_room_id = ?",
+                Integer.class, chatRoomId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "채팅방이 존재하지 않습니다.");
+        }
+
+        ReentrantReadWriteLock lock;
+        try {
+            lock = chatShardRouter.beginMove(chatRoomId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            sync(source, target, chatRoomId);
+
+            lock.writeLock().lock();
+            try {
+                sync(source, target, chatRoomId);
+                directory.assign(chatRoomId, targetShard);
+                drain(source, target, chatRoomId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            chatShardRouter.endMove(chatRoomId);
+        }
+
+        log.info("채팅방 샤드 이동 완료. chatRoomId={}, {} -> {}, elapsedMs={}", chatRoomId, sourceShard, targetShard,
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return targetShard;
+    }
+
+    // 대상 샤드의 채팅방 행들을 원래 샤드와 같게 맞춤 (한 트랜잭션)
+    private void sync(DataSource source, DataSource target, Long chatRoomId) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+
+        new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status -> {
+            // 채팅방 행 : 없으면 추가, 있으면 수정 시간/보관 메시지 수 등을 갱신
+            Map<String, Object> room = sourceJdbc.queryForMap(
+                    "select * from AICHAT_ROOM where chat_room_id = ?", chatRoomId);
+            if (update(targetJdbc, ROOM_TABLE, "chat_room_id", room) == 0) {
+                insert(targetJdbc, ROOM_TABLE, List.of(room));
+            }
+
+            // 요약/메시지 : 원래 샤드에서 삭제된(보관/롤링 요약) 행은 지우고, 없는 행만 복사 (내용은 바뀌지 않음)
+            for (ChildTable table : CHILD_TABLES) {
+                Set<Long> sourceIds = ids(sourceJdbc, table, chatRoomId);
+                Set<Long> targetIds = ids(targetJdbc, table, chatRoomId);
+
+                for (Long id : targetIds) {
+                    if (!sourceIds.contains(id)) {
+                        targetJdbc.update("delete from " + table.name() + " where id = ?", id);
+                    }
+                }
+                copyMissing(sourceJdbc, targetJdbc, table, chatRoomId, targetIds);
+            }
+        });
+    }
+
+    // 원래 샤드에 남은 행을 대상 샤드로 복사하고 삭제, 채팅방 행까지 지우면 끝
+    private void drain(DataSource source, DataSource target, Long chatRoomId) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+
+        for (int attempt = 0; attempt < MAX_DRAIN_ATTEMPTS; attempt++) {
+            for (ChildTable table : CHILD_TABLES) {
+                new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status ->
+                        copyMissing(sourceJdbc, targetJdbc, table, chatRoomId, ids(targetJdbc, table, chatRoomId)));
+            }
+
+            Boolean drained = new TransactionTemplate(new DataSourceTransactionManager(source)).execute(status -> {
+                for (ChildTable table : CHILD_TABLES) {
+                    List<Object[]> copied = ids(targetJdbc, table, chatRoomId).stream()
+                            .map(id -> new Object[]{id})
+                            .toList();
+                    sourceJdbc.batchUpdate("delete from " + table.name() + " where id = ?", copied);
+
+                    if (!ids(sourceJdbc, table, chatRoomId).isEmpty()) {
+                        return false;
+                    }
+                }
+                sourceJdbc.update("delete from AICHAT_ROOM where chat_room_id = ?", chatRoomId);
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(drained)) {
+                return;
+            }
+        }
+
+        log.warn("원래 샤드에 채팅방 행이 남아 있습니다. 다시 이동하면 정리됩니다. chatRoomId={}", chatRoomId);
+    }
+
+    // 대상 샤드에 없는 행만 batch insert
+    private static void copyMissing(JdbcTemplate sourceJdbc, JdbcTemplate targetJdbc, ChildTable table,
+            Long chatRoomId, Set<Long> targetIds) {
+        List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+        String sql = "select * from " + table.name() + " where " + table.chatRoomColumn() + " = ? order by id";
+        sourceJdbc.query(sql, resultSet -> {
+            if (targetIds.contains(resultSet.getLong("id"))) {
+                return;
+            }
+            batch.add(toMap(resultSet));
+            if (batch.size() == BATCH_SIZE) {
+                insert(targetJdbc, table.name(), batch);
+                batch.clear();
+            }
+        }, chatRoomId);
+        insert(targetJdbc, table.name(), batch);
+    }
+
+    private static Set<Long> ids(JdbcTemplate jdbcTemplate, ChildTable table, Long chatRoomId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select id from " + table.name() + " where " + table.chatRoomColumn() + " = ?", Long.class, chatRoomId));
+    }
+
+    private static int update(JdbcTemplate jdbcTemplate, String table, String idColumn, Map<String, Object> row) {
+        List<String> columns = row.keySet().stream().filter(column -> !column.equalsIgnoreCase(idColumn)).toList();
+        List<Object> args = new ArrayList<>(columns.stream().map(row::get).toList());
+        args.add(row.get(idColumn));
+
+        return jdbcTemplate.update("update " + table + " set "
+                + columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + " where " + idColumn + " = ?", args.toArray());
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> columns = List.copyOf(rows.getFirst().keySet());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+        jdbcTemplate.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList());
+    }
+
+    private record ChildTable(String name, String chatRoomColumn) {
+    }
+
+    private static Map<String, Object> toMap(ResultSet resultSet) throws SQLException {
+        return COLUMN_MAP_ROW_MAPPER.mapRow(resultSet, 0);
+    }
+}
@@ -0,0 +1,52 @@
+package annovation.chatbot.global.shard;
+
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// 현재 스레드에 지정된 샤드의 DataSource 로 커넥션을 넘겨주는 라우팅 DataSource
+// 샤드는 ChatShardRouter 가 지정하며, 지정되지 않으면 0 번 샤드를 사용
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    public ShardRoutingDataSource(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    static void bind(Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public DataSource shard(int shard) {
+        return getResolvedDataSources().get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+
+    // 샤드별 커넥션 풀 종료
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
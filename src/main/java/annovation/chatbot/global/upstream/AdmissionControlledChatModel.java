@@ -0,0 +1,170 @@
+package annovation.chatbot.global.upstream;
+
+import annovation.chatbot.global.config.ChatAdmissionProperties;
+import annovation.chatbot.global.util.TokenEstimator;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// 업스트림 모델 호출 앞에 admission 을 거치도록 감싼 ChatModel
+// - 호출 전 UpstreamAdmissionController 에서 허가를 받고, 호출이 끝나면 실제 사용 토큰으로 반납
+// - 429 / 503 / 일시적 오류는 Retry-After 또는 지수 backoff + jitter 후 재시도
+//   (스트리밍은 아직 chunk 를 하나도 내보내지 않은 경우에만 재시도)
+// - 재시도도 한 번의 호출이므로 시도마다 허가를 새로 받음 (backoff 동안 동시 호출 자리를 잡지 않고 요청 수 버킷도 차감)
+//   Spring AI 의 RetryTemplate 재시도와 겹치지 않도록 spring.ai.retry.max-attempts 는 1 로 둔다
+public class AdmissionControlledChatModel implements ChatModel {
+
+    // 스트리밍 호출의 대기열 키를 전달하는 Reactor Context 키 (보통 채팅방 ID)
+    public static final String QUEUE_KEY = AdmissionControlledChatModel.class.getName() + ".queueKey";
+
+    private final ChatModel delegate;
+    private final UpstreamAdmissionController upstreamAdmissionController;
+    private final ChatAdmissionProperties chatAdmissionProperties;
+
+    public AdmissionControlledChatModel(ChatModel delegate,
+            UpstreamAdmissionController upstreamAdmissionController,
+            ChatAdmissionProperties chatAdmissionProperties) {
+        this.delegate = delegate;
+        this.upstreamAdmissionController = upstreamAdmissionController;
+        this.chatAdmissionProperties = chatAdmissionProperties;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        int promptTokens = estimatePromptTokens(prompt);
+
+        for (int attempt = 0; ; attempt++) {
+            UpstreamAdmissionController.Permit permit = upstreamAdmissionController
+                    .acquire(UpstreamAdmissionController.GLOBAL_QUEUE_KEY, promptTokens)
+                    .block();
+
+            Duration backoff;
+            RuntimeException failure;
+            long usedTokens = promptTokens;
+            try {
+                ChatResponse response = delegate.call(prompt);
+                usedTokens += estimateResponseTokens(response);
+                return response;
+            } catch (RuntimeException e) {
+                backoff = backoff(e, attempt);
+                if (backoff == null) {
+                    throw e;
+                }
+                failure = e;
+            } finally {
+                permit.release(usedTokens);
+            }
+
+            sleep(backoff, failure);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.deferContextual(context -> {
+            String queueKey = context.getOrDefault(QUEUE_KEY, UpstreamAdmissionController.GLOBAL_QUEUE_KEY);
+            return streamWithRetry(prompt, queueKey, estimatePromptTokens(prompt), 0);
+        });
+    }
+
+    private Flux<ChatResponse> streamWithRetry(Prompt prompt, String queueKey, int promptTokens, int attempt) {
+        AtomicBoolean emitted = new AtomicBoolean();
+
+        return streamAdmitted(prompt, queueKey, promptTokens)
+                .doOnNext(response -> emitted.set(true))
+                .onErrorResume(e -> {
+                    // 이미 클라이언트로 나간 chunk 가 있으면 중복될 수 있으므로 재시도하지 않음
+                    Duration backoff = emitted.get() ? null : backoff(e, attempt);
+                    if (backoff == null) {
+                        return Flux.error(e);
+                    }
+                    return Mono.delay(backoff)
+                            .thenMany(Flux.defer(() -> streamWithRetry(prompt, queueKey, promptTokens, attempt + 1)));
+                });
+    }
+
+    // 허가를 받아 한 번 호출하고, 끝나면(완료/오류/취소) 실제 사용 토큰으로 반납
+    private Flux<ChatResponse> streamAdmitted(Prompt prompt, String queueKey, int promptTokens) {
+        AtomicLong usedTokens = new AtomicLong(promptTokens);
+
+        return Flux.usingWhen(
+                upstreamAdmissionController.acquire(queueKey, promptTokens),
+                permit -> delegate.stream(prompt)
+                        .doOnNext(response -> usedTokens.addAndGet(estimateResponseTokens(response))),
+                permit -> Mono.fromRunnable(() -> permit.release(usedTokens.get())),
+                (permit, error) -> Mono.fromRunnable(() -> permit.release(usedTokens.get())),
+                permit -> Mono.fromRunnable(() -> permit.release(usedTokens.get()))
+        );
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    // 재시도할 수 없으면 null
+    Duration backoff(Throwable error, int attempt) {
+        if (attempt >= chatAdmissionProperties.getMaxRetries() || !isRetryable(error)) {
+            return null;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long maxBackoffMillis = chatAdmissionProperties.getMaxBackoff().toMillis();
+
+        // Retry-After 가 있으면 그 시간 + 약간의 jitter (너무 길면 기다리지 않고 실패)
+        if (error instanceof UpstreamRateLimitedException rateLimited && rateLimited.getRetryAfter() != null) {
+            long retryAfterMillis = rateLimited.getRetryAfter().toMillis();
+            if (retryAfterMillis > maxBackoffMillis) {
+                return null;
+            }
+            long jitter = random.nextLong(chatAdmissionProperties.getInitialBackoff().toMillis() + 1);
+            return Duration.ofMillis(retryAfterMillis + jitter);
+        }
+
+        // 지수 backoff (상한 maxBackoff) 의 절반 ~ 전체 구간에서 무작위
+        long exponential = chatAdmissionProperties.getInitialBackoff().toMillis() << Math.min(attempt, 20);
+        long capped = Math.min(exponential, maxBackoffMillis);
+        return Duration.ofMillis(capped / 2 + random.nextLong(capped / 2 + 1));
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        return error instanceof UpstreamRateLimitedException
+                || error instanceof TransientAiException
+                || error instanceof WebClientRequestException;
+    }
+
+    private static int estimatePromptTokens(Prompt prompt) {
+        int tokens = 0;
+        for (Message message : prompt.getInstructions()) {
+            tokens += TokenEstimator.estimateMessage(message.getText());
+        }
+        return tokens;
+    }
+
+    private static int estimateResponseTokens(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return 0;
+        }
+        return TokenEstimator.estimate(response.getResult().getOutput().getText());
+    }
+
+    private static void sleep(Duration backoff, RuntimeException cause) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cause.addSuppressed(e);
+            throw cause;
+        }
+    }
+}
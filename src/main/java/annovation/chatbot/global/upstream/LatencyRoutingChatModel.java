@@ -0,0 +1,283 @@
+package annovation.chatbot.global.upstream;
+
+import annovation.chatbot.global.config.ChatRoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import lombok.Getter;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// 여러 OpenAI 호환 엔드포인트 중 지연 시간이 가장 짧은 곳으로 보내는 ChatModel
+// - 엔드포인트별 첫 토큰 시간(동기 호출은 응답 시간)을 EWMA 로 추적하고, 진행 중인 호출 수를 곱한 값이 가장 작은 곳을 선택
+// - hedging: hedge-delay 안에 첫 토큰이 오지 않으면 두 번째 엔드포인트에 한 번 더 요청하고, 먼저 토큰을 준 쪽만 남기고 나머지는 취소
+public class LatencyRoutingChatModel implements ChatModel {
+
+    private final List<RoutedEndpoint> endpoints;
+    private final ChatRoutingProperties chatRoutingProperties;
+    private final Scheduler blockingScheduler;
+    private final Counter hedgedCounter;
+
+    public LatencyRoutingChatModel(List<RoutedEndpoint> endpoints, ChatRoutingProperties chatRoutingProperties,
+            Scheduler blockingScheduler, MeterRegistry meterRegistry) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("라우팅할 엔드포인트가 없습니다.");
+        }
+
+        this.endpoints = List.copyOf(endpoints);
+        this.chatRoutingProperties = chatRoutingProperties;
+        this.blockingScheduler = blockingScheduler;
+        this.hedgedCounter = Counter.builder("chat.upstream.hedged")
+                .description("첫 토큰이 늦어 다른 엔드포인트에 한 번 더 보낸 요청 수")
+                .register(meterRegistry);
+
+        for (RoutedEndpoint endpoint : this.endpoints) {
+            endpoint.ewmaAlpha = chatRoutingProperties.getEwmaAlpha();
+            endpoint.requestCounter = Counter.builder("chat.upstream.endpoint.requests")
+                    .description("엔드포인트별 요청 수")
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+            Gauge.builder("chat.upstream.endpoint.latency", endpoint, RoutedEndpoint::latencyMillis)
+                    .description("엔드포인트별 첫 토큰 시간 EWMA (ms)")
+                    .tag("endpoint", endpoint.getName())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<RoutedEndpoint> ranked = rank();
+        if (!isHedging(ranked)) {
+            return timedCall(ranked.get(0), prompt, () -> false);
+        }
+
+        Mono<ChatResponse> primary = cancellableCall(ranked.get(0), prompt);
+        Mono<ChatResponse> hedge = hedgeDelay().then(cancellableCall(ranked.get(1), prompt));
+
+        try {
+            return Mono.firstWithValue(primary, hedge).block();
+        } catch (RuntimeException e) {
+            throw Exceptions.propagate(firstError(Exceptions.unwrap(e)));
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            List<RoutedEndpoint> ranked = rank();
+            if (!isHedging(ranked)) {
+                return timedStream(ranked.get(0), prompt);
+            }
+
+            return Flux.firstWithValue(
+                            timedStream(ranked.get(0), prompt),
+                            hedgeDelay().thenMany(timedStream(ranked.get(1), prompt)))
+                    .onErrorMap(LatencyRoutingChatModel::firstError);
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return endpoints.get(0).getChatModel().getDefaultOptions();
+    }
+
+    // 점수(EWMA x (진행 중인 호출 + 1))가 낮은 순
+    private List<RoutedEndpoint> rank() {
+        return endpoints.stream()
+                .sorted(Comparator.comparingDouble(RoutedEndpoint::score))
+                .toList();
+    }
+
+    private boolean isHedging(List<RoutedEndpoint> ranked) {
+        return chatRoutingProperties.isHedgingEnabled() && ranked.size() > 1;
+    }
+
+    private Mono<Long> hedgeDelay() {
+        return Mono.delay(chatRoutingProperties.getHedgeDelay())
+                .doOnNext(tick -> hedgedCounter.increment());
+    }
+
+    // 동기 호출을 blockingScheduler 에서 실행하고, 취소되면(hedge 에서 짐) 실행 중인 스레드를 interrupt 해서 실제로 중단
+    // (Mono.fromCallable 은 취소되어도 호출이 끝까지 실행되어 연결과 업스트림 한도를 계속 씀)
+    private Mono<ChatResponse> cancellableCall(RoutedEndpoint endpoint, Prompt prompt) {
+        return Mono.create(sink -> {
+            CancellableCall call = new CancellableCall();
+            sink.onCancel(call::cancel);
+
+            blockingScheduler.schedule(() -> {
+                if (!call.start()) {
+                    return;
+                }
+                try {
+                    sink.success(timedCall(endpoint, prompt, call::isCancelled));
+                } catch (RuntimeException e) {
+                    // 취소된 호출의 오류는 받을 구독자가 없음
+                    if (!call.isCancelled()) {
+                        sink.error(e);
+                    }
+                } finally {
+                    call.finish();
+                }
+            });
+        });
+    }
+
+    private ChatResponse timedCall(RoutedEndpoint endpoint, Prompt prompt, BooleanSupplier cancelled) {
+        endpoint.requestCounter.increment();
+        endpoint.inFlight.incrementAndGet();
+        long startedAt = System.nanoTime();
+
+        try {
+            ChatResponse response = endpoint.getChatModel().call(prompt);
+            endpoint.record(System.nanoTime() - startedAt);
+            return response;
+        } catch (RuntimeException e) {
+            if (cancelled.getAsBoolean()) {
+                // hedge 에서 져서 취소된 호출 : 적어도 그만큼은 느리다는 뜻이므로 EWMA 를 낮추지는 않음
+                endpoint.recordAtLeast(System.nanoTime() - startedAt);
+            } else {
+                endpoint.recordError(chatRoutingProperties.getErrorPenalty());
+            }
+            throw e;
+        } finally {
+            endpoint.inFlight.decrementAndGet();
+        }
+    }
+
+    private Flux<ChatResponse> timedStream(RoutedEndpoint endpoint, Prompt prompt) {
+        return Flux.defer(() -> {
+            endpoint.requestCounter.increment();
+            endpoint.inFlight.incrementAndGet();
+            long startedAt = System.nanoTime();
+            AtomicBoolean waitingFirstToken = new AtomicBoolean(true);
+
+            return endpoint.getChatModel().stream(prompt)
+                    .doOnNext(response -> {
+                        if (waitingFirstToken.compareAndSet(true, false)) {
+                            endpoint.record(System.nanoTime() - startedAt);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (waitingFirstToken.compareAndSet(true, false)) {
+                            endpoint.recordError(chatRoutingProperties.getErrorPenalty());
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        // 첫 토큰 전에 취소됨 : 적어도 그만큼은 느리다는 뜻이므로 EWMA 를 낮추지는 않음
+                        if (waitingFirstToken.compareAndSet(true, false)) {
+                            endpoint.recordAtLeast(System.nanoTime() - startedAt);
+                        }
+                    })
+                    .doFinally(signal -> endpoint.inFlight.decrementAndGet());
+        });
+    }
+
+    // 모든 엔드포인트가 실패한 경우 첫 번째(우선 엔드포인트) 오류를 그대로 전달 (admission 재시도 판단용)
+    private static Throwable firstError(Throwable error) {
+        if (error instanceof NoSuchElementException && error.getCause() != null) {
+            for (Throwable cause : Exceptions.unwrapMultiple(error.getCause())) {
+                if (cause != null && !(cause instanceof NoSuchElementException)) {
+                    return cause;
+                }
+            }
+        }
+        return error;
+    }
+
+    // 실행 중인 동기 호출의 취소 상태 (취소 시 실행 스레드를 interrupt)
+    private static class CancellableCall {
+
+        private Thread runner;
+        private boolean cancelled;
+
+        // 이미 취소되었으면 실행하지 않음
+        synchronized boolean start() {
+            if (cancelled) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        // 스케줄러 스레드를 돌려주기 전에 남은 interrupt 상태를 지움
+        synchronized void finish() {
+            runner = null;
+            Thread.interrupted();
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    // 라우팅 대상 엔드포인트
+    public static class RoutedEndpoint {
+
+        @Getter
+        private final String name;
+
+        @Getter
+        private final ChatModel chatModel;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaAlpha;
+        private Counter requestCounter;
+
+        // 아직 응답이 없는 엔드포인트는 0 으로 두어 먼저 시도
+        private double ewmaNanos;
+
+        public RoutedEndpoint(String name, ChatModel chatModel) {
+            // 메트릭 태그 값으로 쓰이므로 비어 있으면 안 됨
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("엔드포인트 이름이 비어 있습니다.");
+            }
+            this.name = name;
+            this.chatModel = chatModel;
+        }
+
+        synchronized void record(long latencyNanos) {
+            ewmaNanos = ewmaNanos == 0 ? latencyNanos : ewmaNanos + ewmaAlpha * (latencyNanos - ewmaNanos);
+        }
+
+        synchronized void recordAtLeast(long latencyNanos) {
+            if (latencyNanos > ewmaNanos) {
+                record(latencyNanos);
+            }
+        }
+
+        void recordError(Duration penalty) {
+            record(penalty.toNanos());
+        }
+
+        synchronized double score() {
+            // 진행 중인 호출이 많은 엔드포인트에 몰리지 않도록 1ms 를 더해 곱함
+            return (ewmaNanos + TimeUnit.MILLISECONDS.toNanos(1)) * (inFlight.get() + 1);
+        }
+
+        synchronized double latencyMillis() {
+            return ewmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
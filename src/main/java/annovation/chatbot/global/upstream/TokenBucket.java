@@ -0,0 +1,44 @@
+package annovation.chatbot.global.upstream;
+
+import java.time.Duration;
+
+// 분당 한도를 초 단위로 나누어 채우는 토큰 버킷 (외부에서 동기화해서 사용)
+// 실제 사용량이 예약량보다 많으면 잔량이 음수가 될 수 있고, 그만큼 다음 요청이 더 기다린다
+class TokenBucket {
+
+    private static final long NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double available;
+    private long lastRefillAt;
+
+    TokenBucket(long perMinute, long now) {
+        this.capacity = perMinute;
+        this.refillPerNano = (double) perMinute / NANOS_PER_MINUTE;
+        this.available = perMinute;
+        this.lastRefillAt = now;
+    }
+
+    // amount 만큼 쓸 수 있을 때까지 남은 시간 (바로 가능하면 0)
+    long nanosUntilAvailable(double amount, long now) {
+        refill(now);
+
+        double required = Math.min(amount, capacity);
+        if (available >= required) {
+            return 0;
+        }
+
+        return (long) Math.ceil((required - available) / refillPerNano);
+    }
+
+    void consume(double amount, long now) {
+        refill(now);
+        available -= amount;
+    }
+
+    private void refill(long now) {
+        available = Math.min(capacity, available + (now - lastRefillAt) * refillPerNano);
+        lastRefillAt = now;
+    }
+}
@@ -0,0 +1,265 @@
+package annovation.chatbot.global.upstream;
+
+import annovation.chatbot.global.config.ChatAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// 업스트림 모델 호출 허가(permit)를 발급하는 admission 계층
+// - 전체 동시 호출 수 제한
+// - 분당 요청 수 / 토큰 수 토큰 버킷
+// - 대기열 키(채팅방)별 FIFO 를 라운드 로빈으로 돌며 발급하는 공정 대기열 + 최대 대기 시간
+// 대기열 길이, 진행 중인 호출 수, 대기 시간은 chat.upstream.* 메트릭으로 노출된다
+@Component
+public class UpstreamAdmissionController {
+
+    public static final String GLOBAL_QUEUE_KEY = "global";
+
+    private final ChatAdmissionProperties chatAdmissionProperties;
+    private final Scheduler timer = Schedulers.parallel();
+
+    // 아래 상태는 모두 this 로 동기화
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private final Map<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+    private int inFlight;
+    private int queued;
+    private boolean dispatchScheduled;
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public UpstreamAdmissionController(ChatAdmissionProperties chatAdmissionProperties,
+            MeterRegistry meterRegistry) {
+        this.chatAdmissionProperties = chatAdmissionProperties;
+
+        long now = System.nanoTime();
+        this.requestBucket = new TokenBucket(chatAdmissionProperties.getRequestsPerMinute(), now);
+        this.tokenBucket = new TokenBucket(chatAdmissionProperties.getTokensPerMinute(), now);
+
+        Gauge.builder("chat.upstream.queue.depth", this, UpstreamAdmissionController::queued)
+                .description("업스트림 호출 대기열 길이")
+                .register(meterRegistry);
+        Gauge.builder("chat.upstream.in.flight", this, UpstreamAdmissionController::inFlight)
+                .description("진행 중인 업스트림 호출 수")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("chat.upstream.queue.wait")
+                .description("업스트림 호출 허가를 받기까지 기다린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("chat.upstream.rejected")
+                .description("최대 대기 시간을 넘어 거절된 호출 수")
+                .register(meterRegistry);
+    }
+
+    // 호출 허가 요청. 허가를 받으면 Permit 을 발행하고, 최대 대기 시간을 넘으면 503 으로 실패한다
+    // 받은 Permit 은 호출이 끝난 뒤 반드시 release 해야 한다
+    public Mono<Permit> acquire(String queueKey, int estimatedTokens) {
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter(queueKey, estimatedTokens, System.nanoTime());
+
+            synchronized (this) {
+                queues.computeIfAbsent(queueKey, key -> new ArrayDeque<>()).addLast(waiter);
+                queued++;
+            }
+
+            Disposable expiration = timer.schedule(() -> expire(waiter),
+                    chatAdmissionProperties.getMaxQueueWait().toNanos(), TimeUnit.NANOSECONDS);
+            dispatch();
+
+            return waiter.permit.asMono()
+                    .doFinally(signal -> expiration.dispose())
+                    .doOnCancel(() -> cancel(waiter));
+        });
+    }
+
+    synchronized int queued() {
+        return queued;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+
+        synchronized (this) {
+            long retryAfterNanos = 0;
+
+            while (inFlight < chatAdmissionProperties.getMaxConcurrency() && !queues.isEmpty()) {
+                // 가장 오래 기다린 채팅방부터 (발급 후에는 맨 뒤로 보내 라운드 로빈)
+                Map.Entry<String, ArrayDeque<Waiter>> next = queues.entrySet().iterator().next();
+                String queueKey = next.getKey();
+                ArrayDeque<Waiter> queue = next.getValue();
+                Waiter waiter = queue.peekFirst();
+
+                if (waiter == null || !waiter.isWaiting()) {
+                    removeHead(queueKey, queue);
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                long waitNanos = Math.max(
+                        requestBucket.nanosUntilAvailable(1, now),
+                        tokenBucket.nanosUntilAvailable(waiter.estimatedTokens, now));
+                if (waitNanos > 0) {
+                    retryAfterNanos = waitNanos;
+                    break;
+                }
+
+                if (!waiter.grant()) {
+                    removeHead(queueKey, queue);
+                    continue;
+                }
+
+                requestBucket.consume(1, now);
+                tokenBucket.consume(waiter.estimatedTokens, now);
+                inFlight++;
+                removeHead(queueKey, queue);
+
+                queues.remove(queueKey);
+                if (!queue.isEmpty()) {
+                    queues.put(queueKey, queue);
+                }
+
+                granted.add(waiter);
+            }
+
+            // 버킷이 찰 때까지 기다렸다가 다시 발급 시도
+            if (retryAfterNanos > 0 && !dispatchScheduled) {
+                dispatchScheduled = true;
+                timer.schedule(() -> {
+                    synchronized (this) {
+                        dispatchScheduled = false;
+                    }
+                    dispatch();
+                }, retryAfterNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // 구독자에게 값을 전달하는 동안 lock 을 잡지 않도록 밖에서 발행
+        for (Waiter waiter : granted) {
+            waitTimer.record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.permit.tryEmitValue(new Permit(waiter.estimatedTokens));
+        }
+    }
+
+    private void removeHead(String queueKey, ArrayDeque<Waiter> queue) {
+        if (queue.pollFirst() != null) {
+            queued--;
+        }
+        if (queue.isEmpty()) {
+            queues.remove(queueKey);
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        if (!waiter.abandon()) {
+            return;
+        }
+
+        remove(waiter);
+        rejectedCounter.increment();
+        waiter.permit.tryEmitError(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "모델 호출 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.abandon()) {
+            remove(waiter);
+            return;
+        }
+
+        // 발급과 취소가 겹친 경우: 아무도 받지 못한 허가는 바로 반납
+        waiter.permit.asMono().subscribe(permit -> permit.release(permit.reservedTokens));
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        ArrayDeque<Waiter> queue = queues.get(waiter.queueKey);
+        if (queue != null && queue.remove(waiter)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(waiter.queueKey);
+            }
+        }
+    }
+
+    private void release(long extraTokens) {
+        synchronized (this) {
+            inFlight--;
+            // 응답 토큰 등 예약보다 더 쓴 만큼 차감
+            if (extraTokens > 0) {
+                tokenBucket.consume(extraTokens, System.nanoTime());
+            }
+        }
+        dispatch();
+    }
+
+    // 발급된 호출 허가
+    public class Permit {
+
+        private final int reservedTokens;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int reservedTokens) {
+            this.reservedTokens = reservedTokens;
+        }
+
+        // usedTokens : 호출에 실제로 쓴 토큰 수 (예약한 프롬프트 토큰 포함)
+        public void release(long usedTokens) {
+            if (released.compareAndSet(false, true)) {
+                UpstreamAdmissionController.this.release(usedTokens - reservedTokens);
+            }
+        }
+    }
+
+    private static class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final String queueKey;
+        private final int estimatedTokens;
+        private final long enqueuedAt;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final Sinks.One<Permit> permit = Sinks.one();
+
+        Waiter(String queueKey, int estimatedTokens, long enqueuedAt) {
+            this.queueKey = queueKey;
+            this.estimatedTokens = estimatedTokens;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        boolean isWaiting() {
+            return state.get() == WAITING;
+        }
+
+        boolean grant() {
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        // 시간 초과 / 취소
+        boolean abandon() {
+            return state.compareAndSet(WAITING, ABANDONED);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package annovation.chatbot.global.upstream;
+
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+// 동기 호출(RestClient) 응답이 429 / 503 이면 Retry-After 값을 담아 UpstreamRateLimitedException 으로 변환
+// (Spring AI 기본 에러 처리에서는 429 가 재시도할 수 없는 오류로 분류되어 Retry-After 를 알 수 없음)
+public class UpstreamRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+
+        int statusCode = response.getStatusCode().value();
+        if (UpstreamRateLimitedException.isRateLimited(statusCode)) {
+            String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            response.close();
+            throw new UpstreamRateLimitedException(statusCode, UpstreamRateLimitedException.parseRetryAfter(retryAfter));
+        }
+
+        return response;
+    }
+}
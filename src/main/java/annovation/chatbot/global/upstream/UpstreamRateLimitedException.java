@@ -0,0 +1,48 @@
+package annovation.chatbot.global.upstream;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import lombok.Getter;
+
+// 업스트림 모델이 429 / 503 으로 응답했을 때 발생 (Retry-After 헤더 값 포함)
+@Getter
+public class UpstreamRateLimitedException extends RuntimeException {
+
+    private final int statusCode;
+
+    // Retry-After 헤더가 없으면 null
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(int statusCode, Duration retryAfter) {
+        super("업스트림 모델 호출이 제한되었습니다. status=%d, retryAfter=%s".formatted(statusCode, retryAfter));
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public static boolean isRateLimited(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    // Retry-After 헤더 해석 (초 단위 숫자 또는 HTTP 날짜)
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            // HTTP 날짜 형식 처리
+        }
+
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration duration = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package annovation.chatbot.global.util;
+
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 엔티티 ID 시퀀스 관리
+// 시퀀스는 IDENTITY 로 만든 기존 DB 에서 1 부터 시작하므로, 이미 쓴 ID 위로 옮겨야 PK 가 겹치지 않는다
+public final class IdSequences {
+
+    public static final String MESSAGE = "AICHAT_ROOM_MESSAGE_SEQ";
+    public static final String SUMMARY_MESSAGE = "AICHAT_ROOM_SUMMARY_MESSAGE_SEQ";
+    public static final String BATCH_ITEM = "AICHAT_BATCH_ITEM_SEQ";
+
+    // 시퀀스 값 하나로 발급하는 ID 수 (SequenceIdAllocator 는 시퀀스 값 v 를 (v - 50, v] 구간으로 사용)
+    public static final int ALLOCATION_SIZE = 50;
+
+    // 시퀀스 → 그 시퀀스로 ID 를 받는 테이블
+    public static final Map<String, String> TABLES = Map.of(
+            MESSAGE, "AICHAT_ROOM_MESSAGE",
+            SUMMARY_MESSAGE, "AICHAT_ROOM_SUMMARY_MESSAGE",
+            BATCH_ITEM, "AICHAT_BATCH_ITEM");
+
+    private IdSequences() {
+    }
+
+    // 시퀀스가 다음에 주는 구간이 (floor, ceiling] 에서 이미 쓴 ID 와 floor 보다 크도록 옮김
+    // 값을 하나 소비하지만 발급기는 구간 단위로 쓰므로 빈 번호만 생김
+    public static void restartAbove(JdbcTemplate jdbcTemplate, String sequence, long floor, long ceiling) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "select coalesce(max(id), 0) from " + TABLES.get(sequence) + " where id > ? and id <= ?",
+                Long.class, floor, ceiling);
+        long used = Math.max(floor, maxId == null ? 0 : maxId);
+
+        Long next = jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+        if (next == null || next - ALLOCATION_SIZE < used) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (used + ALLOCATION_SIZE));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package annovation.chatbot.global.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+// ID 를 SequenceIdAllocator 로 발급 (value : 시퀀스 이름, IdSequences 의 상수)
+// 배치 insert 가 가능하고, 샤딩 모드에서도 샤드와 무관하게 발급 순서대로 커지는 ID 를 받는다
+@IdGeneratorType(SequenceIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SequenceId {
+
+    String value();
+}
@@ -0,0 +1,62 @@
+package annovation.chatbot.global.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 메시지/요약/대량 생성 항목 ID 발급기
+// 시퀀스 값 v 하나로 (v - ALLOCATION_SIZE, v] 구간을 메모리에서 나눠 준다 (Hibernate pooled optimizer 와 같은 방식)
+// 샤딩 모드에서도 0 번 샤드의 시퀀스 하나만 쓰므로 ID 가 샤드와 무관하게 발급 순서대로 커진다
+// (채팅방을 다른 샤드로 옮겨도 메시지 ID 순서 = 저장 순서가 유지되어 ID 순 조회/커서/보관이 그대로 동작)
+// 엔티티는 @SequenceId 로, 가져오기(import)처럼 JDBC 로 직접 넣는 곳은 next 를 직접 호출해서 사용
+public class SequenceIdAllocator {
+
+    // Hibernate 설정 맵에서 발급기를 찾는 키 (SequenceIdGenerator 가 사용)
+    public static final String PROPERTY = "chatbot.sequence-id-allocator";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    // 시퀀스가 없으면 만듦 (첫 값 ALLOCATION_SIZE 가 구간 [1, ALLOCATION_SIZE] 를 가리키도록)
+    public SequenceIdAllocator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String sequence : IdSequences.TABLES.keySet()) {
+            jdbcTemplate.execute("create sequence if not exists %s start with %d increment by %d"
+                    .formatted(sequence, IdSequences.ALLOCATION_SIZE, IdSequences.ALLOCATION_SIZE));
+        }
+    }
+
+    public long next(String sequence) {
+        return blocks.computeIfAbsent(sequence, Block::new).next();
+    }
+
+    // 메모리에 남은 구간 버림 (시퀀스를 옮긴 뒤 호출)
+    public void reset() {
+        blocks.clear();
+    }
+
+    private final class Block {
+
+        private final String sequence;
+        private long next = 1;
+        private long end;
+
+        Block(String sequence) {
+            this.sequence = sequence;
+        }
+
+        synchronized long next() {
+            if (next > end) {
+                Long value = jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+                if (value == null || value < IdSequences.ALLOCATION_SIZE) {
+                    throw new IllegalStateException("시퀀스 값이 구간 크기보다 작습니다. sequence=%s, value=%s"
+                            .formatted(sequence, value));
+                }
+                end = value;
+                next = value - IdSequences.ALLOCATION_SIZE + 1;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package annovation.chatbot.global.util;
+
+import java.util.EnumSet;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+// @SequenceId 가 붙은 엔티티의 ID 생성기
+// 발급기는 Hibernate 설정(SequenceIdAllocator.PROPERTY)에서 꺼내므로 EntityManagerFactory 마다 자기 발급기를 쓴다
+public class SequenceIdGenerator implements BeforeExecutionGenerator {
+
+    private final String sequence;
+
+    public SequenceIdGenerator(SequenceId config) {
+        this.sequence = config.value();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        if (!(session.getFactory().getProperties().get(SequenceIdAllocator.PROPERTY)
+                instanceof SequenceIdAllocator allocator)) {
+            throw new IllegalStateException("ID 발급기가 설정되지 않았습니다. sequence=" + sequence);
+        }
+        return allocator.next(sequence);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
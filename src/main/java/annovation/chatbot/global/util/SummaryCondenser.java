@@ -0,0 +1,91 @@
+package annovation.chatbot.global.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 요약 텍스트를 최대 길이 이하로 줄이는 로컬 추출식 압축기
+// LLM 호출 없이 동작하며, 오래된 구간부터 순서대로 줄이고 최신 구간은 최대한 보존한다
+public final class SummaryCondenser {
+
+    // Q/A 한 줄을 줄일 때 남길 최대 길이
+    private static final int CONDENSED_LINE_LENGTH = 80;
+
+    private SummaryCondenser() {
+    }
+
+    public static String condense(String summary, int maxLength) {
+        if (summary == null || summary.length() <= maxLength) {
+            return summary;
+        }
+
+        // "== n번 ~ m번 내용 요약 ==" 헤더를 기준으로 구간을 나눈다
+        List<String> segments = new ArrayList<>(Arrays.asList(summary.split("(?m)(?=^== )")));
+
+        // 1단계: 오래된 구간부터 Q/A 줄을 첫 문장(최대 CONDENSED_LINE_LENGTH 자)으로 줄인다
+        for (int i = 0; i < segments.size() && totalLength(segments) > maxLength; i++) {
+            segments.set(i, condenseSegment(segments.get(i)));
+        }
+
+        // 2단계: 그래도 길면 가장 오래된 구간부터 버린다 (최신 구간 하나는 유지)
+        while (segments.size() > 1 && totalLength(segments) > maxLength) {
+            segments.removeFirst();
+        }
+
+        String condensed = String.join("", segments);
+
+        // 3단계: 최신 구간 하나만으로도 넘치면 뒤쪽(최신 내용)을 남기고 자른다
+        if (condensed.length() > maxLength) {
+            condensed = condensed.substring(condensed.length() - maxLength);
+        }
+
+        return condensed;
+    }
+
+    private static String condenseSegment(String segment) {
+        StringBuilder builder = new StringBuilder(segment.length());
+
+        for (String line : segment.split("\n", -1)) {
+            if (line.startsWith("Q: ") || line.startsWith("A: ")) {
+                line = condenseLine(line);
+            }
+            builder.append(line).append("\n");
+        }
+
+        // split 으로 생긴 마지막 줄바꿈 하나는 원본에 없던 것이므로 제거
+        builder.setLength(builder.length() - 1);
+
+        return builder.toString();
+    }
+
+    private static String condenseLine(String line) {
+        // 첫 문장까지만 남긴다
+        int sentenceEnd = indexOfSentenceEnd(line);
+        String condensed = sentenceEnd > 0 ? line.substring(0, sentenceEnd + 1) : line;
+
+        if (condensed.length() > CONDENSED_LINE_LENGTH) {
+            condensed = condensed.substring(0, CONDENSED_LINE_LENGTH) + "…";
+        }
+
+        return condensed;
+    }
+
+    private static int indexOfSentenceEnd(String line) {
+        // "Q: " / "A: " 접두어 이후부터 문장 끝 기호를 찾는다
+        for (int i = 3; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '。') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int totalLength(List<String> segments) {
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        return length;
+    }
+}
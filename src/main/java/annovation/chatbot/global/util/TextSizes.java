@@ -0,0 +1,17 @@
+package annovation.chatbot.global.util;
+
+public final class TextSizes {
+
+    private TextSizes() {
+    }
+
+    // 문자열을 만들지 않고 UTF-8 인코딩 바이트 수를 계산
+    public static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            length += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,44 @@
+package annovation.chatbot.global.util;
+
+// 토크나이저 없이 토큰 수를 빠르게 추정하는 로컬 추정기
+// 영문/숫자는 연속된 구간 4글자당 1토큰, 한글 등 비 ASCII 문자는 글자당 1토큰, 기호는 1토큰으로 계산한다
+public final class TokenEstimator {
+
+    // 메시지마다 role 등 포맷에 쓰이는 토큰
+    public static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int asciiRunLength = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                asciiRunLength++;
+                continue;
+            }
+
+            tokens += (asciiRunLength + 3) / 4;
+            asciiRunLength = 0;
+
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+
+        return tokens + (asciiRunLength + 3) / 4;
+    }
+
+    // 프롬프트 메시지 하나의 토큰 수 (포맷 오버헤드 포함)
+    public static int estimateMessage(String text) {
+        return estimate(text) + MESSAGE_OVERHEAD_TOKENS;
+    }
+}
@@ -0,0 +1,58 @@
+package annovation.chatbot.domain.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import annovation.chatbot.domain.service.AIChatRoomService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller-tests;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "chatbot.compaction.enabled=false",
+        "chatbot.archive.enabled=false",
+        "chatbot.memory.enabled=false",
+        "chatbot.search.rebuild-on-startup=false"
+})
+@AutoConfigureMockMvc
+class AIChatControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AIChatRoomService aiChatRoomService;
+
+    @Test
+    void returnsNotModifiedUntilTurnIsWritten() throws Exception {
+        Long chatRoomId = aiChatRoomService.createRoom().getId();
+
+        String eTag = mockMvc.perform(get("/ai/chat/{chatRoomId}", chatRoomId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 변경이 없으면 본문 없이 304
+        mockMvc.perform(get("/ai/chat/{chatRoomId}", chatRoomId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        aiChatRoomService.addMessage(chatRoomId, "질문", "답변");
+
+        // 턴이 저장되면 수정 시간이 바뀌어 새 ETag 로 다시 응답
+        String newETag = mockMvc.perform(get("/ai/chat/{chatRoomId}", chatRoomId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(newETag).isNotEqualTo(eTag);
+        mockMvc.perform(get("/ai/chat/{chatRoomId}", chatRoomId).header(HttpHeaders.IF_NONE_MATCH, newETag))
+                .andExpect(status().isNotModified());
+    }
+}
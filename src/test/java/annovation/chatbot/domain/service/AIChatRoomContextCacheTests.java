@@ -0,0 +1,154 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.dto.AIChatTurn;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.global.config.ChatContextCacheProperties;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AIChatRoomContextCacheTests {
+
+    private static final Long CHAT_ROOM_ID = 1L;
+
+    // AIChatRoomContextCache.MAX_LOAD_ATTEMPTS
+    private static final int MAX_LOAD_ATTEMPTS = 2;
+
+    // DB 에 저장된 턴 (loader 가 반환하는 내용)
+    private final List<String> database = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadRacingAppendIsCachedOnlyAfterCleanRetry() {
+        AIChatRoomContextCache cache = cache(Duration.ofMinutes(1));
+        database.add("a");
+        AIChatTurn turn = turn("b");
+
+        // 첫 조회 도중 턴이 추가되면 그 결과는 캐시하지 않고 다시 조회
+        List<String> result = userMessages(cache.get(CHAT_ROOM_ID, id -> {
+            if (loads.get() == 0) {
+                cache.append(turn);
+            }
+            return load(id);
+        }));
+
+        assertThat(result).containsExactly("a", "b");
+        assertThat(loads).hasValue(2);
+
+        // 두 번째 조회 결과(+ 저장 대기 중인 턴)가 캐시됨
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void returnsUncachedContextWhenEveryLoadRaces() {
+        AIChatRoomContextCache cache = cache(Duration.ofMinutes(1));
+        database.add("a");
+
+        List<String> result = userMessages(cache.get(CHAT_ROOM_ID, id -> {
+            cache.append(turn("turn" + loads.get()));
+            return load(id);
+        }));
+
+        assertThat(result).containsExactly("a", "turn0", "turn1");
+
+        // 캐시에 들어가지 않았으므로 다음 조회도 DB 를 읽음
+        cache.get(CHAT_ROOM_ID, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void doesNotCacheLoadWhileTurnIsCommitting() {
+        AIChatRoomContextCache cache = cache(Duration.ofMinutes(1));
+        database.add("a");
+        AIChatTurn turn = turn("b");
+        cache.append(turn);
+
+        // 저장 중이면 DB 결과에 턴이 들어 있는지 알 수 없으므로 캐시하지 않음
+        cache.committing(List.of(turn));
+        database.add("b");
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+        cache.committed(List.of(turn));
+
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+        assertThat(loads).hasValue(MAX_LOAD_ATTEMPTS + 1);
+    }
+
+    @Test
+    void dropsTurnWhoseCommitFailed() {
+        AIChatRoomContextCache cache = cache(Duration.ofMinutes(1));
+        database.add("a");
+        cache.get(CHAT_ROOM_ID, this::load);
+
+        AIChatTurn turn = turn("b");
+        cache.append(turn);
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+
+        // writer 는 저장에 실패하면 캐시를 비운 뒤 committed 를 호출
+        cache.committing(List.of(turn));
+        cache.invalidate(CHAT_ROOM_ID);
+        cache.committed(List.of(turn));
+
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void replaysPendingTurnAfterEviction() {
+        // 바로 만료되도록 설정해 매번 캐시에서 밀려난 상태로 조회
+        AIChatRoomContextCache cache = cache(Duration.ZERO);
+        database.add("a");
+        cache.get(CHAT_ROOM_ID, this::load);
+
+        // 캐시에 없는 동안 추가된 턴도 저장될 때까지는 조회 결과에 더해짐
+        AIChatTurn turn = turn("b");
+        cache.append(turn);
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+
+        // 저장된 뒤에는 DB 결과에만 있음 (두 번 들어가지 않음)
+        cache.committing(List.of(turn));
+        database.add("b");
+        cache.committed(List.of(turn));
+        assertThat(userMessages(cache.get(CHAT_ROOM_ID, this::load))).containsExactly("a", "b");
+    }
+
+    private AIChatRoomContextCache cache(Duration expireAfterAccess) {
+        ChatContextCacheProperties properties = new ChatContextCacheProperties();
+        properties.setExpireAfterAccess(expireAfterAccess);
+        return new AIChatRoomContextCache(properties, new ChatPromptProperties(), new SimpleMeterRegistry());
+    }
+
+    private AIChatRoomPromptContext load(Long chatRoomId) {
+        loads.incrementAndGet();
+        return AIChatRoomPromptContext.builder()
+                .previousMessages(database.stream()
+                        .map(userMessage -> AIChatRoomMessage.builder()
+                                .userMessage(userMessage)
+                                .botMessage("답변")
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static AIChatTurn turn(String userMessage) {
+        return AIChatTurn.builder()
+                .chatRoomId(CHAT_ROOM_ID)
+                .userMessage(userMessage)
+                .botMessage("답변")
+                .build();
+    }
+
+    private static List<String> userMessages(AIChatRoomPromptContext context) {
+        return context.getPreviousMessages().stream()
+                .map(AIChatRoomMessage::getUserMessage)
+                .toList();
+    }
+}
@@ -0,0 +1,156 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomImportResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.global.shard.ChatShardRouter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest(properties = {
+        "chatbot.sharding.enabled=true",
+        "chatbot.sharding.shards[0].url=jdbc:h2:mem:transfer-tests-0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "chatbot.sharding.shards[1].url=jdbc:h2:mem:transfer-tests-1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "chatbot.compaction.enabled=false",
+        "chatbot.archive.enabled=false",
+        "chatbot.memory.enabled=false",
+        "chatbot.search.rebuild-on-startup=false",
+        "chatbot.summary.mode=cumulative",
+        "chatbot.transfer.import-batch-size=3"
+})
+class AIChatRoomTransferServiceTests {
+
+    @Autowired
+    private AIChatRoomTransferService aiChatRoomTransferService;
+
+    @Autowired
+    private AIChatRoomService aiChatRoomService;
+
+    @Autowired
+    private ChatShardRouter chatShardRouter;
+
+    @Test
+    void roundTripsRoomWithMessagesAndSummaries() {
+        Long chatRoomId = createRoom(0, 8);
+        aiChatRoomService.compactSummary(chatRoomId, 10);
+
+        byte[] exported = export(chatRoomId);
+        AIChatRoomImportResponse response = aiChatRoomTransferService.importRooms(new ByteArrayInputStream(exported));
+
+        assertThat(response.getRooms()).isEqualTo(1);
+        assertThat(response.getMessages()).isEqualTo(8);
+        assertThat(response.getSummaryMessages()).isPositive();
+
+        Long importedId = response.getChatRoomIds().get(chatRoomId);
+        assertThat(importedId).isNotEqualTo(chatRoomId);
+        assertThat(userMessages(importedId)).containsExactlyElementsOf(userMessages(chatRoomId));
+        assertThat(aiChatRoomService.getMessages(importedId))
+                .extracting(AIChatRoomMsgResponse::getId)
+                .isSorted();
+
+        // 다시 내보내면 ID 만 다르고 내용은 같음
+        assertThat(withoutIds(export(importedId))).isEqualTo(withoutIds(exported));
+    }
+
+    @Test
+    void detectsGzipBody() throws IOException {
+        Long chatRoomId = createRoom(0, 2);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(export(chatRoomId));
+        }
+
+        AIChatRoomImportResponse response = aiChatRoomTransferService.importRooms(
+                new ByteArrayInputStream(compressed.toByteArray()));
+        assertThat(response.getMessages()).isEqualTo(2);
+        assertThat(userMessages(response.getChatRoomIds().get(chatRoomId))).containsExactly("질문0", "질문1");
+    }
+
+    @Test
+    void spreadsImportedRoomsAcrossShards() {
+        Long first = createRoom(0, 4);
+        Long second = createRoom(1, 5);
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exported.writeBytes(export(first));
+        exported.writeBytes(export(second));
+
+        AIChatRoomImportResponse response = aiChatRoomTransferService.importRooms(
+                new ByteArrayInputStream(exported.toByteArray()));
+
+        // 새 채팅방은 샤드를 돌아가며 만들어지고, 메시지는 채팅방의 샤드에 저장됨
+        Set<Integer> shards = response.getChatRoomIds().values().stream()
+                .map(chatShardRouter::shardOf)
+                .collect(Collectors.toSet());
+        assertThat(shards).containsExactlyInAnyOrder(0, 1);
+        assertThat(userMessages(response.getChatRoomIds().get(first))).hasSize(4);
+        assertThat(userMessages(response.getChatRoomIds().get(second))).hasSize(5);
+    }
+
+    @Test
+    void rejectsBadLinePartway() {
+        String body = """
+                {"type":"room","id":1,"createDate":"2025-01-01T00:00","modifyDate":"2025-01-01T00:00"}
+                {"type":"message","id":2,"chatRoomId":1,"userMessage":"질문","botMessage":"답변"}
+                {"type":"message","id":3,"chatRoomId":1,
+                {"type":"message","id":4,"chatRoomId":1,"userMessage":"질문","botMessage":"답변"}
+                """;
+
+        assertThatThrownBy(() -> aiChatRoomTransferService.importRooms(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).startsWith("3 번째 줄");
+                });
+
+        String unknownRoom = """
+                {"type":"message","id":2,"chatRoomId":99,"userMessage":"질문","botMessage":"답변"}
+                """;
+        assertThatThrownBy(() -> aiChatRoomTransferService.importRooms(
+                new ByteArrayInputStream(unknownRoom.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getReason()).startsWith("1 번째 줄"));
+    }
+
+    private Long createRoom(int shard, int messages) {
+        Long chatRoomId = chatShardRouter.callOn(shard, aiChatRoomService::createRoom).getId();
+        for (int i = 0; i < messages; i++) {
+            aiChatRoomService.addMessage(chatRoomId, "질문" + i, "답변" + i);
+        }
+        return chatRoomId;
+    }
+
+    private byte[] export(Long chatRoomId) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        aiChatRoomTransferService.export(chatRoomId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private List<String> userMessages(Long chatRoomId) {
+        return aiChatRoomService.getMessages(chatRoomId).stream()
+                .map(AIChatRoomMsgResponse::getUserMessage)
+                .toList();
+    }
+
+    // "id", "chatRoomId" 값을 지운 줄 목록
+    private static List<String> withoutIds(byte[] ndjson) {
+        return new String(ndjson, StandardCharsets.UTF_8).lines()
+                .map(line -> line.replaceAll("\"(id|chatRoomId)\":\\d+,?", ""))
+                .toList();
+    }
+}
@@ -0,0 +1,132 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.global.config.ChatConcurrencyProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+class AIChatRoomTurnSequencerTests {
+
+    @Test
+    void runsTurnsOfSameRoomInOrder() {
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(2));
+        List<String> events = new ArrayList<>();
+        Sinks.Many<String> firstTurn = Sinks.many().unicast().onBackpressureBuffer();
+
+        sequencer.sequence(1L, () -> {
+            events.add("first started");
+            return firstTurn.asFlux();
+        }).subscribe(events::add);
+        sequencer.sequence(1L, () -> {
+            events.add("second started");
+            return Flux.just("second");
+        }).subscribe(events::add);
+
+        // 앞 턴이 끝나기 전에는 다음 턴을 구독하지 않음
+        firstTurn.tryEmitNext("first");
+        assertThat(events).containsExactly("first started", "first");
+
+        firstTurn.tryEmitComplete();
+        assertThat(events).containsExactly("first started", "first", "second started", "second");
+    }
+
+    @Test
+    void doesNotWaitForOtherRooms() {
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(2));
+        List<String> events = new ArrayList<>();
+
+        Disposable blocked = sequencer.sequence(1L, Flux::<String>never).subscribe(events::add);
+        sequencer.sequence(2L, () -> Flux.just("room 2")).subscribe(events::add);
+
+        assertThat(events).containsExactly("room 2");
+        blocked.dispose();
+    }
+
+    @Test
+    void rejectsTurnsBeyondQueueLimit() {
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(1));
+
+        Disposable running = sequencer.sequence(1L, Flux::<String>never).subscribe();
+        Disposable queued = sequencer.sequence(1L, () -> Flux.just("queued")).subscribe();
+
+        assertThatThrownBy(() -> sequencer.sequence(1L, () -> Flux.just("rejected")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        // 다른 채팅방은 영향 없음
+        assertThat(sequencer.sequence(2L, () -> Flux.just("other")).collectList().block())
+                .containsExactly("other");
+
+        running.dispose();
+        queued.dispose();
+    }
+
+    @Test
+    void cancelledTurnReleasesLane() {
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(0));
+
+        Disposable running = sequencer.sequence(1L, Flux::<String>never).subscribe();
+        assertThatThrownBy(() -> sequencer.sequence(1L, () -> Flux.just("rejected")))
+                .isInstanceOf(ResponseStatusException.class);
+
+        // 클라이언트가 연결을 끊으면 다음 턴이 바로 실행되어야 함
+        running.dispose();
+        assertThat(sequencer.sequence(1L, () -> Flux.just("next")).collectList().block())
+                .containsExactly("next");
+    }
+
+    @Test
+    void serializesConcurrentTurnsOfSameRoom() {
+        int turns = 200;
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(turns));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+
+        // 여러 스레드에서 동시에 같은 채팅방 턴을 등록
+        Flux.range(0, turns)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(turn -> sequencer.sequence(1L, () -> Flux.defer(() -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    return Flux.just(turn)
+                            .delayElements(Duration.ofMillis(1))
+                            .doOnNext(completed::add)
+                            .doFinally(signal -> active.decrementAndGet());
+                })))
+                .sequential()
+                .blockLast(Duration.ofSeconds(30));
+
+        assertThat(maxActive).hasValue(1);
+        assertThat(completed).hasSize(turns).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void completedTurnLeavesQueue() {
+        AIChatRoomTurnSequencer sequencer = new AIChatRoomTurnSequencer(properties(0));
+
+        // 끝난 턴은 대기열에서 빠지므로 대기 한도가 0 이어도 연이은 턴을 받을 수 있음
+        assertThat(sequencer.sequence(1L, () -> Flux.just(1)).blockLast()).isEqualTo(1);
+        assertThat(sequencer.sequence(1L, () -> Flux.error(new IllegalStateException("failed")))
+                .onErrorReturn(-1).blockLast()).isEqualTo(-1);
+        assertThat(sequencer.sequence(1L, () -> Flux.just(2)).blockLast()).isEqualTo(2);
+    }
+
+    private static ChatConcurrencyProperties properties(int maxQueuedTurnsPerRoom) {
+        ChatConcurrencyProperties properties = new ChatConcurrencyProperties();
+        properties.setMaxQueuedTurnsPerRoom(maxQueuedTurnsPerRoom);
+        return properties;
+    }
+}
@@ -0,0 +1,389 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.domain.dto.response.AIChatBatchItemPageResponse;
+import annovation.chatbot.domain.dto.response.AIChatBatchItemResponse;
+import annovation.chatbot.domain.dto.response.AIChatBatchJobResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.entity.AIChatBatchItem;
+import annovation.chatbot.domain.entity.AIChatBatchJob;
+import annovation.chatbot.domain.repository.AIChatBatchItemRepository;
+import annovation.chatbot.domain.repository.AIChatBatchJobRepository;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-tests;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "chatbot.compaction.enabled=false",
+        "chatbot.archive.enabled=false",
+        "chatbot.memory.enabled=false",
+        "chatbot.search.rebuild-on-startup=false",
+        // 스텁 모델이므로 업스트림 한도 대신 동시 호출 수만 제한
+        "chatbot.admission.requests-per-minute=1000000",
+        "chatbot.admission.tokens-per-minute=1000000000",
+        "chatbot.batch.parallelism=3",
+        "chatbot.batch.fetch-size=4",
+        "chatbot.batch.retry-backoff=10ms",
+        "chatbot.batch.restart-backoff=10ms",
+        "chatbot.batch.progress-interval=20ms"
+})
+class ChatBatchServiceTests {
+
+    private static final RecordingChatModel MODEL = new RecordingChatModel();
+
+    // true 이면 다음 작업 완료 저장을 한 번 실패시킴
+    private static final AtomicBoolean FAIL_COMPLETE = new AtomicBoolean();
+
+    @Autowired
+    private ChatBatchService chatBatchService;
+
+    @Autowired
+    private AIChatRoomService aiChatRoomService;
+
+    @Autowired
+    private AIChatBatchJobRepository aiChatBatchJobRepository;
+
+    @Autowired
+    private AIChatBatchItemRepository aiChatBatchItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void resetModel() {
+        MODEL.reset();
+    }
+
+    @Test
+    void runsPromptsWithBoundedParallelismAndRoomOrder() {
+        Long chatRoomId = aiChatRoomService.createRoom().getId();
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            lines.add(line("프롬프트" + i, null));
+            if (i % 3 == 0) {
+                lines.add(line("방" + i / 3, chatRoomId));
+            }
+        }
+
+        AIChatBatchJobResponse job = awaitJob(submit(lines).getId());
+
+        assertThat(job.getCompletedItems()).isEqualTo(16);
+        assertThat(job.getFailedItems()).isZero();
+        // 동시에 parallelism 개까지만, 같은 채팅방의 프롬프트는 하나씩 줄 순서대로
+        assertThat(MODEL.maxActive.get()).isBetween(2, 3);
+        assertThat(MODEL.maxRoomActive.get()).isEqualTo(1);
+        assertThat(MODEL.started.stream().filter(prompt -> prompt.startsWith("방")))
+                .containsExactly("방0", "방1", "방2", "방3");
+
+        List<AIChatBatchItemResponse> items = results(job.getId(), 0);
+        assertThat(items).extracting(AIChatBatchItemResponse::getResultIndex)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 16).boxed().toList());
+        assertThat(items).allSatisfy(item -> assertThat(item.getResult()).startsWith("답변:"));
+    }
+
+    @Test
+    void keepsRunningAfterFailedOrAlreadyFinishedItem() {
+        Long jobId = submit(List.of(line("대기", null), line("실패", null), line("프롬프트", null))).getId();
+
+        // 생성 중인 항목이 다른 곳에서 먼저 끝난 경우 (결과 저장이 건너뛰어지고 진행 수도 그대로)
+        awaitStarted("대기");
+        AIChatBatchItem item = aiChatBatchItemRepository.findAll().stream()
+                .filter(candidate -> candidate.getJobId().equals(jobId) && candidate.getPrompt().equals("대기"))
+                .findFirst().orElseThrow();
+        item.setStatus(AIChatBatchItem.Status.COMPLETED);
+        item.setResult("직접 저장");
+        item.setResultIndex(0);
+        aiChatBatchItemRepository.save(item);
+        MODEL.gate.complete(null);
+
+        AIChatBatchJobResponse job = awaitJob(jobId);
+        assertThat(job.getCompletedItems()).isEqualTo(1);
+        assertThat(job.getFailedItems()).isEqualTo(1);
+        assertThat(results(jobId, 0)).extracting(AIChatBatchItemResponse::getStatus)
+                .containsExactlyInAnyOrder("COMPLETED", "FAILED");
+        assertThat(aiChatBatchItemRepository.findById(item.getId()).orElseThrow().getResult()).isEqualTo("직접 저장");
+
+        // 실행이 멈추지 않고 다음 작업도 처리
+        AIChatBatchJobResponse next = awaitJob(submit(List.of(line("다음 작업", null))).getId());
+        assertThat(next.getCompletedItems()).isEqualTo(1);
+    }
+
+    @Test
+    void writesRoomTurnOnlyWhenItRecordedTheResult() {
+        Long chatRoomId = aiChatRoomService.createRoom().getId();
+        Long jobId = submit(List.of(line("대기", chatRoomId), line("방1", chatRoomId))).getId();
+
+        // 생성 중인 항목이 다른 곳에서 먼저 끝난 경우 (재시작 후 다시 실행된 경우와 같음) 턴을 저장하지 않음
+        awaitStarted("대기");
+        AIChatBatchItem item = aiChatBatchItemRepository.findAll().stream()
+                .filter(candidate -> candidate.getJobId().equals(jobId) && candidate.getPrompt().equals("대기"))
+                .findFirst().orElseThrow();
+        item.setStatus(AIChatBatchItem.Status.COMPLETED);
+        item.setResult("직접 저장");
+        item.setResultIndex(0);
+        aiChatBatchItemRepository.save(item);
+        MODEL.gate.complete(null);
+
+        assertThat(awaitJob(jobId).getCompletedItems()).isEqualTo(1);
+
+        // 턴은 write-behind 로 저장되므로 다음 항목의 턴이 보일 때까지 대기 (앞 항목의 턴이 있었다면 먼저 저장됨)
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (aiChatRoomService.getMessages(chatRoomId).isEmpty() && System.nanoTime() < deadline) {
+            sleep();
+        }
+        assertThat(aiChatRoomService.getMessages(chatRoomId)).extracting(AIChatRoomMsgResponse::getUserMessage)
+                .containsExactly("방1");
+    }
+
+    @Test
+    void restartsRunnerAfterSaveFailure() {
+        FAIL_COMPLETE.set(true);
+
+        // 작업 완료 저장에 실패해도 backoff 후 다시 실행되어 작업이 끝남
+        AIChatBatchJobResponse job = awaitJob(submit(List.of(line("프롬프트", null))).getId());
+
+        assertThat(FAIL_COMPLETE).isFalse();
+        assertThat(job.getCompletedItems()).isEqualTo(1);
+        assertThat(MODEL.started).containsExactly("프롬프트");
+    }
+
+    @Test
+    void cancelledEventStreamDoesNotStopJobAndCanResume() {
+        List<String> lines = IntStream.range(0, 10).mapToObj(i -> line("프롬프트" + i, null)).toList();
+        Long jobId = submit(lines).getId();
+
+        // 항목 3 개를 받고 연결을 끊음 (구독 취소)
+        List<ServerSentEvent<String>> received = new ArrayList<>(chatBatchService.events(jobId, 0)
+                .filter(event -> "item".equals(event.event()))
+                .take(3)
+                .collectList()
+                .block(Duration.ofSeconds(10)));
+
+        // 끊긴 동안에도 작업은 계속 실행됨
+        assertThat(awaitJob(jobId).getCompletedItems()).isEqualTo(10);
+
+        // Last-Event-ID 로 이어받으면 빠지거나 겹치는 항목이 없음
+        int lastEventId = Integer.parseInt(received.getLast().id());
+        received.addAll(chatBatchService.events(jobId, lastEventId)
+                .filter(event -> "item".equals(event.event()))
+                .collectList()
+                .block(Duration.ofSeconds(10)));
+        assertThat(received).extracting(event -> Integer.parseInt(event.id()))
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 10).boxed().toList());
+    }
+
+    @Test
+    void resumesPendingItemsOfUnfinishedJob() {
+        // 재시작 전에 일부 항목만 끝난 작업 (작업과 항목을 한 트랜잭션으로 저장)
+        AIChatBatchJob job = transactionTemplate.execute(status -> {
+            AIChatBatchJob saved = aiChatBatchJobRepository.save(AIChatBatchJob.builder()
+                    .status(AIChatBatchJob.Status.RUNNING)
+                    .totalItems(3)
+                    .completedItems(1)
+                    .build());
+            aiChatBatchItemRepository.saveAll(List.of(
+                    item(saved.getId(), 1, "끝난 프롬프트", AIChatBatchItem.Status.COMPLETED, 1),
+                    item(saved.getId(), 2, "남은 프롬프트1", AIChatBatchItem.Status.PENDING, null),
+                    item(saved.getId(), 3, "남은 프롬프트2", AIChatBatchItem.Status.PENDING, null)));
+            return saved;
+        });
+
+        chatBatchService.resumeOnStartup();
+
+        AIChatBatchJobResponse resumed = awaitJob(job.getId());
+        assertThat(resumed.getCompletedItems()).isEqualTo(3);
+        assertThat(MODEL.started).containsExactlyInAnyOrder("남은 프롬프트1", "남은 프롬프트2");
+        assertThat(results(job.getId(), 1)).extracting(AIChatBatchItemResponse::getResultIndex)
+                .containsExactly(2, 3);
+    }
+
+    private AIChatBatchJobResponse submit(List<String> lines) {
+        String body = lines.stream().collect(Collectors.joining("\n"));
+        return chatBatchService.submit(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<AIChatBatchItemResponse> results(Long jobId, int cursor) {
+        List<AIChatBatchItemResponse> items = new ArrayList<>();
+        while (true) {
+            AIChatBatchItemPageResponse page = chatBatchService.getResults(jobId, cursor, 5);
+            items.addAll(page.getItems());
+            if (!page.isHasNext()) {
+                return items;
+            }
+            cursor = page.getNextCursor();
+        }
+    }
+
+    private AIChatBatchJobResponse awaitJob(Long jobId) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            AIChatBatchJobResponse job = chatBatchService.getJob(jobId);
+            if (job.getStatus().equals(AIChatBatchJob.Status.COMPLETED.name())) {
+                return job;
+            }
+            sleep();
+        }
+        throw new AssertionError("대량 생성 작업이 끝나지 않았습니다. jobId=" + jobId);
+    }
+
+    private static void awaitStarted(String prompt) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!MODEL.started.contains(prompt)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("프롬프트 생성이 시작되지 않았습니다. prompt=" + prompt);
+            }
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AIChatBatchItem item(Long jobId, int lineNumber, String prompt, AIChatBatchItem.Status status,
+            Integer resultIndex) {
+        return AIChatBatchItem.builder()
+                .jobId(jobId)
+                .lineNumber(lineNumber)
+                .prompt(prompt)
+                .status(status)
+                .result(status == AIChatBatchItem.Status.COMPLETED ? "답변:" + prompt : null)
+                .resultIndex(resultIndex)
+                .build();
+    }
+
+    private static String line(String prompt, Long chatRoomId) {
+        return chatRoomId == null
+                ? "{\"prompt\":\"%s\"}".formatted(prompt)
+                : "{\"prompt\":\"%s\",\"chatRoomId\":%d}".formatted(prompt, chatRoomId);
+    }
+
+    // 업스트림 모델 대신 스텁 모델 사용 (admission 등 ChatModel 을 감싸는 계층은 그대로 거침)
+    @TestConfiguration
+    static class StubModelConfiguration {
+
+        @Bean
+        static BeanPostProcessor recordingChatModelPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "openAiChatModel".equals(beanName) ? MODEL : bean;
+                }
+            };
+        }
+
+        // FAIL_COMPLETE 가 켜져 있으면 작업 완료 저장을 한 번 실패시키는 저장소
+        @Bean
+        static BeanPostProcessor failingJobRepositoryPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof AIChatBatchJobRepository repository)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(AIChatBatchJobRepository.class.getClassLoader(),
+                            new Class<?>[]{AIChatBatchJobRepository.class}, (proxy, method, args) -> {
+                                if (method.getName().equals("complete") && FAIL_COMPLETE.compareAndSet(true, false)) {
+                                    throw new DataAccessResourceFailureException("작업 완료 저장 실패");
+                                }
+                                try {
+                                    return method.invoke(repository, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            });
+                }
+            };
+        }
+    }
+
+    // 현재 입력(마지막 메시지)마다 "답변:입력" 을 조금 늦게 돌려주고 동시 실행 수를 기록
+    // "실패" 는 오류, "대기" 는 gate 가 열릴 때까지 기다림
+    static class RecordingChatModel implements ChatModel {
+
+        private final Queue<String> started = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger roomActive = new AtomicInteger();
+        private final AtomicInteger maxRoomActive = new AtomicInteger();
+        private volatile CompletableFuture<Void> gate = new CompletableFuture<>();
+
+        void reset() {
+            started.clear();
+            maxActive.set(0);
+            maxRoomActive.set(0);
+            gate = new CompletableFuture<>();
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            throw new UnsupportedOperationException("대량 생성은 스트리밍으로만 호출합니다.");
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            String input = prompt.getInstructions().getLast().getText();
+            if (input.equals("실패")) {
+                return Flux.error(new IllegalStateException("생성 실패"));
+            }
+
+            Mono<Void> delay = input.equals("대기") ? Mono.fromFuture(gate) : Mono.delay(Duration.ofMillis(30)).then();
+            boolean room = input.startsWith("방");
+            return Flux.defer(() -> {
+                        started.add(input);
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        if (room) {
+                            maxRoomActive.accumulateAndGet(roomActive.incrementAndGet(), Math::max);
+                        }
+                        return delay.thenMany(Flux.just(response("답변:"), response(input)));
+                    })
+                    .doFinally(signal -> {
+                        active.decrementAndGet();
+                        if (room) {
+                            roomActive.decrementAndGet();
+                        }
+                    });
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.global.config.ChatResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class ChatResponseCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void coalescesConcurrentRequestsIntoOneCall() throws Exception {
+        ChatResponseCache cache = cache(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("질문", null, () -> {
+            started.countDown();
+            await(release);
+            return answer();
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 공백만 다른 같은 질문은 진행 중인 호출 결과를 함께 기다림
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("  질문 ", null, this::answer),
+                executor);
+        awaitCount("coalesced", 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("답변1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("답변1");
+        assertThat(cache.get("질문", null, this::answer)).isEqualTo("답변1");
+        assertThat(calls).hasValue(1);
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void propagatesFailureToWaitersWithoutCachingIt() throws Exception {
+        ChatResponseCache cache = cache(Duration.ofSeconds(5));
+
+        assertFailureReachesWaiter(cache, () -> {
+            throw new IllegalStateException("업스트림 실패");
+        }, IllegalStateException.class);
+
+        // Error 로 끝나도 함께 기다리던 요청이 멈추지 않음
+        assertFailureReachesWaiter(cache, () -> {
+            throw new AssertionError("예상하지 못한 오류");
+        }, AssertionError.class);
+
+        // 실패한 호출은 캐시에 남지 않으므로 다시 호출
+        assertThat(cache.get("질문", null, this::answer)).isEqualTo("답변1");
+    }
+
+    @Test
+    void waiterGivesUpAfterCoalesceTimeout() throws Exception {
+        ChatResponseCache cache = cache(Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("질문", null, () -> {
+            started.countDown();
+            await(release);
+            return answer();
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> cache.get("질문", null, this::answer))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+
+        // 먼저 시작한 호출은 영향받지 않음
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("답변1");
+    }
+
+    @Test
+    void keysOnEveryModelOption() {
+        ChatResponseCache cache = cache(Duration.ofSeconds(5));
+        ChatOptions options = ChatOptions.builder().model("model").temperature(0.7).maxTokens(100).build();
+
+        assertThat(cache.get("질문", options, this::answer)).isEqualTo("답변1");
+        assertThat(cache.get("질문", ChatOptions.builder().model("model").temperature(0.7).maxTokens(100).build(),
+                this::answer)).isEqualTo("답변1");
+
+        assertThat(cache.get("질문", ChatOptions.builder().model("model").temperature(0.7).maxTokens(200).build(),
+                this::answer)).isEqualTo("답변2");
+        assertThat(cache.get("질문", ChatOptions.builder().model("model").temperature(0.7).maxTokens(100).topP(0.5)
+                .build(), this::answer)).isEqualTo("답변3");
+        assertThat(cache.get("질문", ChatOptions.builder().model("model").temperature(0.7).maxTokens(100)
+                .stopSequences(List.of("끝")).build(), this::answer)).isEqualTo("답변4");
+    }
+
+    private void assertFailureReachesWaiter(ChatResponseCache cache, Supplier<String> failure,
+            Class<? extends Throwable> type) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        double coalesced = count("coalesced");
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("질문", null, () -> {
+            started.countDown();
+            await(release);
+            return failure.get();
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Throwable> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                cache.get("질문", null, this::answer);
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        }, executor);
+        awaitCount("coalesced", coalesced + 1);
+        release.countDown();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isInstanceOf(type);
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(type);
+    }
+
+    private ChatResponseCache cache(Duration coalesceTimeout) {
+        ChatResponseCacheProperties properties = new ChatResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.setCoalesceTimeout(coalesceTimeout);
+        return new ChatResponseCache(properties, meterRegistry);
+    }
+
+    private String answer() {
+        return "답변" + calls.incrementAndGet();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("chat.response.cache.requests").tag("result", result).counter().count();
+    }
+
+    private void awaitCount(String result, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(result)).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
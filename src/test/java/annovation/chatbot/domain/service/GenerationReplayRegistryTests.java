@@ -0,0 +1,141 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.domain.service.GenerationReplayRegistry.ReplayBuffer;
+import annovation.chatbot.global.config.ChatReplayProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+class GenerationReplayRegistryTests {
+
+    @Test
+    void replaysMissedEventsThenFollowsLiveGeneration() {
+        GenerationReplayRegistry registry = registry(properties(1024, Duration.ofMinutes(5)));
+        Sinks.Many<ServerSentEvent<String>> generation = Sinks.many().unicast().onBackpressureBuffer();
+        ReplayBuffer buffer = registry.start(1L, generation.asFlux());
+
+        generation.tryEmitNext(event("a"));
+        generation.tryEmitNext(event("b"));
+        generation.tryEmitNext(event("c"));
+
+        // 첫 이벤트까지 받고 연결이 끊긴 클라이언트
+        String firstEventId = registry.attach(buffer).blockFirst().id();
+        assertThat(firstEventId).endsWith(":0");
+
+        ReplayBuffer found = registry.find(1L, firstEventId).orElseThrow();
+        List<String> received = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        registry.attach(found, firstEventId).subscribe(
+                event -> received.add(event.data()), error -> { }, () -> completed.set(true));
+
+        assertThat(received).containsExactly("b", "c");
+
+        generation.tryEmitNext(event("d"));
+        generation.tryEmitComplete();
+
+        assertThat(received).containsExactly("b", "c", "d");
+        assertThat(completed).isTrue();
+
+        // 끝난 응답에 다시 붙으면 남은 이벤트만 받고 바로 완료
+        assertThat(registry.attach(found, firstEventId.replace(":0", ":2")).collectList().block())
+                .extracting(ServerSentEvent::data)
+                .containsExactly("d");
+    }
+
+    @Test
+    void findsOnlyMatchingRoomAndValidEventId() {
+        GenerationReplayRegistry registry = registry(properties(1024, Duration.ofMinutes(5)));
+        ReplayBuffer buffer = registry.start(1L, Flux.just(event("a")));
+        String eventId = registry.attach(buffer).blockFirst().id();
+
+        assertThat(registry.find(1L, eventId)).containsSame(buffer);
+        assertThat(registry.find(2L, eventId)).isEmpty();
+        assertThat(registry.find(1L, null)).isEmpty();
+        assertThat(registry.find(1L, "no-separator")).isEmpty();
+        assertThat(registry.find(1L, "unknown:0")).isEmpty();
+        assertThat(registry.find(1L, eventId.replace(":0", ":x"))).isEmpty();
+    }
+
+    @Test
+    void rejectsResumeBeforeDroppedEvents() {
+        // 이벤트 하나가 4 바이트, 8 바이트까지만 보관하므로 세 번째 이벤트가 들어오면 첫 이벤트를 버림
+        GenerationReplayRegistry registry = registry(properties(8, Duration.ofMinutes(5)));
+        ReplayBuffer buffer = registry.start(1L, Flux.just(event("aaaa"), event("bbbb"), event("cccc")));
+
+        List<ServerSentEvent<String>> kept = registry.attach(buffer).collectList().block();
+        assertThat(kept).extracting(ServerSentEvent::data).containsExactly("bbbb", "cccc");
+        assertThat(kept.get(0).id()).endsWith(":1");
+
+        String generationId = kept.get(0).id().substring(0, kept.get(0).id().lastIndexOf(':'));
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        registry.attach(buffer, generationId + ":-1").subscribe(event -> { }, error::set);
+
+        assertThat(error.get()).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GONE));
+
+        // 남아 있는 범위에서는 이어서 받을 수 있음
+        assertThat(registry.attach(buffer, generationId + ":0").collectList().block())
+                .extracting(ServerSentEvent::data)
+                .containsExactly("bbbb", "cccc");
+    }
+
+    @Test
+    void replaysErrorOfFailedGeneration() {
+        GenerationReplayRegistry registry = registry(properties(1024, Duration.ofMinutes(5)));
+        ReplayBuffer buffer = registry.start(1L,
+                Flux.concat(Flux.just(event("a")), Flux.error(new IllegalStateException("upstream failed"))));
+
+        List<String> received = new ArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        registry.attach(buffer).subscribe(event -> received.add(event.data()), error::set);
+
+        assertThat(received).containsExactly("a");
+        assertThat(error.get()).hasMessage("upstream failed");
+    }
+
+    @Test
+    void expiresCompletedGenerationAfterRetention() throws InterruptedException {
+        GenerationReplayRegistry registry = registry(properties(1024, Duration.ofMillis(50)));
+        Sinks.Many<ServerSentEvent<String>> generation = Sinks.many().unicast().onBackpressureBuffer();
+        ReplayBuffer buffer = registry.start(1L, generation.asFlux());
+        generation.tryEmitNext(event("a"));
+        String eventId = registry.attach(buffer).blockFirst().id();
+
+        // 진행 중인 응답은 retention 이 지나도 maxGenerationTime 까지 보관
+        Thread.sleep(200);
+        assertThat(registry.find(1L, eventId)).isPresent();
+
+        // 끝난 뒤에는 retention 이 지나면 만료
+        generation.tryEmitComplete();
+        assertThat(registry.find(1L, eventId)).isPresent();
+        Thread.sleep(200);
+        assertThat(registry.find(1L, eventId)).isEmpty();
+    }
+
+    private static GenerationReplayRegistry registry(ChatReplayProperties properties) {
+        return new GenerationReplayRegistry(properties, Schedulers.immediate());
+    }
+
+    private static ServerSentEvent<String> event(String data) {
+        return ServerSentEvent.<String>builder().data(data).build();
+    }
+
+    private static ChatReplayProperties properties(int maxBytesPerGeneration, Duration retention) {
+        ChatReplayProperties properties = new ChatReplayProperties();
+        properties.setMaxBytesPerGeneration(maxBytesPerGeneration);
+        properties.setRetention(retention);
+        properties.setMaxGenerationTime(Duration.ofMinutes(1));
+        return properties;
+    }
+}
@@ -0,0 +1,150 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.domain.dto.AIChatRoomMemory;
+import annovation.chatbot.domain.dto.AIChatRoomPromptContext;
+import annovation.chatbot.domain.entity.AIChatRoomMessage;
+import annovation.chatbot.global.config.ChatPromptProperties;
+import annovation.chatbot.global.metrics.ChatMetrics;
+import annovation.chatbot.global.util.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.prompt.Prompt;
+
+class PromptAssemblerTests {
+
+    private static final String QUESTION = "질문";
+
+    // "qN" / "aN" 한 턴의 토큰 수 (메시지 두 개)
+    private static final int TURN_TOKENS = 2 * TokenEstimator.estimateMessage("q0");
+
+    private final ChatPromptProperties properties = new ChatPromptProperties();
+
+    @Test
+    void fillsBudgetWithNewestTurnsFirst() {
+        PromptAssembler assembler = assembler(2 * TURN_TOKENS + TURN_TOKENS / 2);
+
+        Prompt prompt = assembler.assemble(context(turns(0, 5)), QUESTION);
+
+        // 예산에 들어오는 최근 두 턴만 대화 순서대로 포함
+        assertThat(texts(prompt)).containsExactly(PromptAssembler.SYSTEM_PROMPT, "q3", "a3", "q4", "a4", QUESTION);
+    }
+
+    @Test
+    void stopsAtFirstTurnThatDoesNotFit() {
+        PromptAssembler assembler = assembler(2 * TURN_TOKENS);
+
+        List<AIChatRoomMessage> turns = new ArrayList<>(turns(0, 1));
+        turns.add(AIChatRoomMessage.builder().id(1L).userMessage("긴 질문 ".repeat(20)).botMessage("a1").build());
+        turns.addAll(turns(2, 3));
+
+        Prompt prompt = assembler.assemble(context(turns), QUESTION);
+
+        // 예산을 넘는 턴에서 멈추므로 그보다 오래된 턴은 들어갈 자리가 있어도 건너뛰지 않음
+        assertThat(texts(prompt)).containsExactly(PromptAssembler.SYSTEM_PROMPT, "q2", "a2", QUESTION);
+    }
+
+    @Test
+    void fillsMemoryBeforeRecentTurns() {
+        List<AIChatRoomMemory> memories = List.of(memory(100L, "m1"), memory(50L, "m2"));
+        String expectedMemory = "관련된 이전 대화\n\nQ: m2\nA: 답변\n\nQ: m1\nA: 답변\n\n";
+        int memoryTokens = TokenEstimator.estimateMessage(expectedMemory);
+
+        properties.setMemoryTokenBudget(memorySelectionTokens("Q: m1\nA: 답변\n\n", "Q: m2\nA: 답변\n\n"));
+        PromptAssembler assembler = assembler(memoryTokens + TURN_TOKENS);
+
+        Prompt prompt = assembler.assemble(context(turns(0, 3)), memories, QUESTION);
+
+        // 관련된 이전 대화가 먼저 예산을 차지하고 (대화 순서로 정렬), 남은 예산으로 최근 턴 하나만 들어감
+        assertThat(texts(prompt)).containsExactly(PromptAssembler.SYSTEM_PROMPT, expectedMemory, "q2", "a2",
+                QUESTION);
+    }
+
+    @Test
+    void capsMemoryAtMemoryTokenBudget() {
+        // 유사도 순으로 첫 번째만 memoryTokenBudget 안에 들어감
+        List<AIChatRoomMemory> memories = List.of(memory(100L, "m1"), memory(50L, "m2"));
+        String expectedMemory = "관련된 이전 대화\n\nQ: m1\nA: 답변\n\n";
+        int memoryTokens = TokenEstimator.estimateMessage(expectedMemory);
+
+        properties.setMemoryTokenBudget(memorySelectionTokens("Q: m1\nA: 답변\n\n"));
+        PromptAssembler assembler = assembler(memoryTokens + 3 * TURN_TOKENS);
+
+        Prompt prompt = assembler.assemble(context(turns(0, 3)), memories, QUESTION);
+
+        // memoryTokenBudget 를 넘긴 부분은 최근 대화 몫으로 남음
+        assertThat(texts(prompt)).containsExactly(PromptAssembler.SYSTEM_PROMPT, expectedMemory,
+                "q0", "a0", "q1", "a1", "q2", "a2", QUESTION);
+    }
+
+    @Test
+    void cachesTokenCountByMessageId() {
+        PromptAssembler assembler = assembler(TURN_TOKENS);
+        assertThat(texts(assembler.assemble(context(turns(0, 1)), QUESTION))).contains("q0");
+
+        // 같은 ID 의 메시지는 처음 추정한 토큰 수를 재사용
+        String longMessage = "긴 질문 ".repeat(20);
+        AIChatRoomMessage sameId = AIChatRoomMessage.builder().id(0L).userMessage(longMessage).botMessage("a0")
+                .build();
+        assertThat(texts(assembler.assemble(context(List.of(sameId)), QUESTION))).contains(longMessage);
+
+        // ID 가 없는 (아직 저장되지 않은) 메시지는 매번 추정
+        AIChatRoomMessage unsaved = AIChatRoomMessage.builder().userMessage(longMessage).botMessage("a0").build();
+        assertThat(texts(assembler.assemble(context(List.of(unsaved)), QUESTION)))
+                .containsExactly(PromptAssembler.SYSTEM_PROMPT, QUESTION);
+    }
+
+    // 시스템 메시지와 현재 질문을 뺀 나머지 예산이 extraTokens 가 되도록 설정
+    private PromptAssembler assembler(int extraTokens) {
+        properties.setTokenBudget(TokenEstimator.estimateMessage(PromptAssembler.SYSTEM_PROMPT)
+                + TokenEstimator.estimateMessage(QUESTION) + extraTokens);
+        return new PromptAssembler(properties, new ChatMetrics(new SimpleMeterRegistry()));
+    }
+
+    // 관련된 이전 대화를 고를 때는 머리말과 턴마다 메시지 오버헤드를 따로 계산
+    private static int memorySelectionTokens(String... memoryTurns) {
+        int tokens = TokenEstimator.estimateMessage("관련된 이전 대화\n\n");
+        for (String memoryTurn : memoryTurns) {
+            tokens += TokenEstimator.estimateMessage(memoryTurn);
+        }
+        return tokens;
+    }
+
+    private static AIChatRoomPromptContext context(List<AIChatRoomMessage> previousMessages) {
+        return AIChatRoomPromptContext.builder()
+                .previousMessages(previousMessages)
+                .build();
+    }
+
+    // [from, to) 범위의 "qN" / "aN" 턴 (ID 는 N)
+    private static List<AIChatRoomMessage> turns(int from, int to) {
+        List<AIChatRoomMessage> turns = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            turns.add(AIChatRoomMessage.builder()
+                    .id((long) i)
+                    .userMessage("q" + i)
+                    .botMessage("a" + i)
+                    .build());
+        }
+        return turns;
+    }
+
+    private static AIChatRoomMemory memory(Long messageId, String userMessage) {
+        return AIChatRoomMemory.builder()
+                .messageId(messageId)
+                .userMessage(userMessage)
+                .botMessage("답변")
+                .score(0.9f)
+                .build();
+    }
+
+    private static List<String> texts(Prompt prompt) {
+        return prompt.getInstructions().stream()
+                .map(Message::getText)
+                .toList();
+    }
+}
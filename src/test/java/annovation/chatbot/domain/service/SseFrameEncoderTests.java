@@ -0,0 +1,86 @@
+package annovation.chatbot.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.global.config.ChatSseProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class SseFrameEncoderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodesFrameAsJsonWithSequenceId() throws Exception {
+        SseFrameEncoder encoder = new SseFrameEncoder(properties(1024, Duration.ofMinutes(1)), objectMapper);
+
+        List<ServerSentEvent<String>> events = encoder.encode(Flux.just("say \"hi\"", "\nline: two", "\r\n"))
+                .collectList()
+                .block();
+
+        // 줄바꿈, 따옴표가 들어 있어도 한 프레임의 data 는 한 줄짜리 JSON
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).id()).isEqualTo("0");
+        assertThat(events.get(0).data()).doesNotContain("\n", "\r");
+        assertThat(objectMapper.readValue(events.get(0).data(), SseFrameEncoder.Frame.class))
+                .isEqualTo(new SseFrameEncoder.Frame(0, "say \"hi\"\nline: two\r\n"));
+    }
+
+    @Test
+    void cutsFrameAtMaxFrameBytes() throws Exception {
+        SseFrameEncoder encoder = new SseFrameEncoder(properties(4, Duration.ofMinutes(1)), objectMapper);
+
+        // "가" 는 UTF-8 3 바이트
+        List<SseFrameEncoder.Frame> frames = frames(encoder.encode(Flux.just("ab", "cd", "ef", "가", "나", "g")));
+
+        assertThat(frames).containsExactly(
+                new SseFrameEncoder.Frame(0, "abcd"),
+                new SseFrameEncoder.Frame(1, "ef가"),
+                new SseFrameEncoder.Frame(2, "나g"));
+    }
+
+    @Test
+    void flushesFrameAfterMaxLinger() throws Exception {
+        SseFrameEncoder encoder = new SseFrameEncoder(properties(1024, Duration.ofMillis(20)), objectMapper);
+
+        Flux<String> texts = Flux.concat(
+                Flux.just("a", "b"),
+                Mono.delay(Duration.ofMillis(300)).thenReturn("c"));
+
+        // 크기 제한에 닿지 않아도 maxLinger 가 지나면 모은 chunk 를 보냄
+        assertThat(frames(encoder.encode(texts))).containsExactly(
+                new SseFrameEncoder.Frame(0, "ab"),
+                new SseFrameEncoder.Frame(1, "c"));
+    }
+
+    @Test
+    void emitsNothingForEmptyStream() {
+        SseFrameEncoder encoder = new SseFrameEncoder(properties(1024, Duration.ofMillis(20)), objectMapper);
+
+        assertThat(encoder.encode(Flux.empty()).collectList().block()).isEmpty();
+    }
+
+    private List<SseFrameEncoder.Frame> frames(Flux<ServerSentEvent<String>> events) throws Exception {
+        List<ServerSentEvent<String>> collected = events.collectList().block(Duration.ofSeconds(10));
+        List<SseFrameEncoder.Frame> frames = new ArrayList<>();
+        for (ServerSentEvent<String> event : collected) {
+            SseFrameEncoder.Frame frame = objectMapper.readValue(event.data(), SseFrameEncoder.Frame.class);
+            assertThat(event.id()).isEqualTo(Long.toString(frame.seq()));
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static ChatSseProperties properties(int maxFrameBytes, Duration maxLinger) {
+        ChatSseProperties properties = new ChatSseProperties();
+        properties.setMaxFrameBytes(maxFrameBytes);
+        properties.setMaxLinger(maxLinger);
+        return properties;
+    }
+}
@@ -0,0 +1,123 @@
+package annovation.chatbot.global.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.global.config.ChatArchiveProperties;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChatSegmentStoreTests {
+
+    private static final long CHAT_ROOM_ID = 7;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBlocksBackAfterRestart() {
+        ChatSegmentStore store = store();
+        store.append(CHAT_ROOM_ID, 0, entries(1, 3));
+        store.append(CHAT_ROOM_ID, 3, entries(4, 5));
+
+        // 새 인스턴스(재시작)에서도 파일만으로 읽힘
+        ChatSegmentStore restarted = store();
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 5, 0, 10))).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 5, 2, 2))).containsExactly(3L, 4L);
+        assertThat(restarted.readAfter(CHAT_ROOM_ID, 5, 0, 1).getFirst().userMessage()).isEqualTo("질문 1");
+    }
+
+    @Test
+    void ignoresAndTruncatesUncommittedTail() {
+        ChatSegmentStore store = store();
+        store.append(CHAT_ROOM_ID, 0, entries(1, 3));
+        // 파일에는 썼지만 DB 커밋이 실패한 블록
+        store.append(CHAT_ROOM_ID, 3, entries(4, 6));
+
+        ChatSegmentStore restarted = store();
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 3, 0, 10))).containsExactly(1L, 2L, 3L);
+
+        // 다음 보관 때 커밋되지 않은 블록을 잘라내고 이어 씀
+        restarted.append(CHAT_ROOM_ID, 3, entries(7, 8));
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 5, 0, 10))).containsExactly(1L, 2L, 3L, 7L, 8L);
+    }
+
+    @Test
+    void recoversFromTornIndexEntry() throws IOException {
+        ChatSegmentStore store = store();
+        store.append(CHAT_ROOM_ID, 0, entries(1, 3));
+
+        // 인덱스 항목을 쓰다가 멈춘 경우 (44바이트가 안 되는 꼬리)
+        Files.write(directory.resolve(CHAT_ROOM_ID + ".idx"), new byte[10], StandardOpenOption.APPEND);
+
+        ChatSegmentStore restarted = store();
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 3, 0, 10))).containsExactly(1L, 2L, 3L);
+
+        restarted.append(CHAT_ROOM_ID, 3, entries(4, 4));
+        assertThat(ids(restarted.readAfter(CHAT_ROOM_ID, 4, 0, 10))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(Files.size(directory.resolve(CHAT_ROOM_ID + ".idx"))).isEqualTo(2 * 44);
+    }
+
+    @Test
+    void rejectsTruncatedOrCorruptedBlock() throws IOException {
+        ChatSegmentStore store = store();
+        store.append(CHAT_ROOM_ID, 0, entries(1, 3));
+        Path data = directory.resolve(CHAT_ROOM_ID + ".seg");
+        long size = Files.size(data);
+
+        // 바이트가 바뀐 블록은 CRC 로 걸러냄
+        try (RandomAccessFile file = new RandomAccessFile(data.toFile(), "rw")) {
+            file.seek(size / 2);
+            int value = file.read();
+            file.seek(size / 2);
+            file.write(value ^ 0xFF);
+        }
+        assertThatThrownBy(() -> store.readAfter(CHAT_ROOM_ID, 3, 0, 10))
+                .isInstanceOf(IllegalStateException.class);
+
+        // 데이터가 잘린 블록
+        try (RandomAccessFile file = new RandomAccessFile(data.toFile(), "rw")) {
+            file.setLength(size - 1);
+        }
+        assertThatThrownBy(() -> store.readAfter(CHAT_ROOM_ID, 3, 0, 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("잘린 세그먼트 블록");
+    }
+
+    @Test
+    void rejectsStaleCommittedCount() {
+        ChatSegmentStore store = store();
+        store.append(CHAT_ROOM_ID, 0, entries(1, 3));
+        store.append(CHAT_ROOM_ID, 3, entries(4, 5));
+
+        // 오래된 보관 메시지 수로 append 하면 커밋된 블록을 잘라내지 않고 실패
+        assertThatThrownBy(() -> store.append(CHAT_ROOM_ID, 2, entries(6, 6)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> store.append(CHAT_ROOM_ID, 9, entries(6, 6)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(ids(store.readAfter(CHAT_ROOM_ID, 5, 0, 10))).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private ChatSegmentStore store() {
+        ChatArchiveProperties properties = new ChatArchiveProperties();
+        properties.setDirectory(directory.toString());
+        return new ChatSegmentStore(properties);
+    }
+
+    private static List<ChatSegmentStore.Entry> entries(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new ChatSegmentStore.Entry(id, "2025-01-01T00:00", null, "질문 " + id, "답변 " + id))
+                .toList();
+    }
+
+    private static List<Long> ids(List<ChatSegmentStore.Entry> entries) {
+        return entries.stream().map(ChatSegmentStore.Entry::id).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package annovation.chatbot.global.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class HnswIndexTests {
+
+    private static final int DIMENSIONS = 32;
+    private static final long FIRST_ID = 1000;
+
+    @Test
+    void findsNearestNeighborsLikeBruteForce() {
+        Random random = new Random(1);
+        float[][] vectors = new float[2000][];
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 64);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(FIRST_ID + i, vectors[i]);
+        }
+
+        // 근사 검색이므로 상위 10 개 중 90% 이상을 찾으면 통과
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            List<Long> expected = bruteForce(vectors, query, 10);
+            List<Long> actual = index.search(query, 10, 64, vectors.length).stream()
+                    .map(HnswIndex.Match::id)
+                    .toList();
+
+            assertThat(actual).hasSize(10);
+            found += (int) actual.stream().filter(expected::contains).count();
+        }
+        assertThat(found).isGreaterThanOrEqualTo(queries * 10 * 9 / 10);
+    }
+
+    @Test
+    void excludesRecentNodes() {
+        Random random = new Random(2);
+        float[][] vectors = new float[300][];
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(i, vectors[i]);
+        }
+
+        // 마지막에 추가된 벡터와 같은 질문이어도 제외한 구간은 결과에 나오지 않음
+        List<HnswIndex.Match> matches = index.search(vectors[299], 5, 64, 250);
+        assertThat(matches).hasSize(5).allSatisfy(match -> assertThat(match.node()).isLessThan(250));
+        assertThat(index.search(vectors[299], 1, 64, 300).getFirst().id()).isEqualTo(299);
+    }
+
+    @Test
+    void restoresSavedIndex() throws IOException {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32);
+        for (int i = 0; i < 500; i++) {
+            index.add(i, randomVector(random));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        HnswIndex restored = HnswIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), DIMENSIONS, 8, 32);
+        assertThat(restored).isNotNull();
+        assertThat(restored.size()).isEqualTo(500);
+
+        float[] query = randomVector(random);
+        assertThat(restored.search(query, 10, 64, 500)).isEqualTo(index.search(query, 10, 64, 500));
+
+        // 저장된 뒤에도 이어서 추가할 수 있음
+        float[] added = randomVector(random);
+        restored.add(500, added);
+        assertThat(restored.search(added, 1, 64, 501).getFirst().id()).isEqualTo(500);
+
+        // 설정이 바뀌면 다시 만들도록 null
+        assertThat(HnswIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), DIMENSIONS * 2, 8, 32))
+                .isNull();
+    }
+
+    @Test
+    void rejectsVectorOfOtherDimensions() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 32);
+
+        assertThatThrownBy(() -> index.add(1, new float[DIMENSIONS + 1]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(index.search(new float[DIMENSIONS], 3, 16, 0)).isEmpty();
+    }
+
+    private static List<Long> bruteForce(float[][] vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(
+                        (Integer i) -> HashingEmbedder.similarity(query, vectors[i])).reversed())
+                .limit(k)
+                .map(i -> FIRST_ID + i)
+                .toList();
+    }
+
+    // 길이 1 로 정규화한 무작위 벡터 (내적 = 코사인 유사도)
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,75 @@
+package annovation.chatbot.global.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTests {
+
+    @Test
+    void tokenizesKoreanAsBigramsAndEnglishAsWords() {
+        assertThat(SearchTokenizer.tokenize("오늘 날씨가 Spring-Boot 3 가"))
+                .containsExactly("오늘", "날씨", "씨가", "spring", "boot", "3", "가");
+    }
+
+    @Test
+    void ranksAndPagesPerRoomAndGlobally() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, 1, "오늘 날씨가 좋네요\n네 맑아요");
+        index.add(2, 1, "spring boot 질문\n답변입니다");
+        index.add(3, 2, "날씨 알려줘\n비가 와요, 날씨가 흐려요");
+
+        // 같은 메시지는 한 번만 추가
+        assertThat(index.add(3, 2, "날씨")).isFalse();
+
+        InvertedIndex.Result global = index.search("날씨", null, 0, 10, 1.2f, 0.75f);
+        assertThat(global.totalHits()).isEqualTo(2);
+        assertThat(messageIds(global)).containsExactly(3L, 1L);
+
+        assertThat(messageIds(index.search("날씨", null, 1, 10, 1.2f, 0.75f))).containsExactly(1L);
+        assertThat(messageIds(index.search("날씨", 1L, 0, 10, 1.2f, 0.75f))).containsExactly(1L);
+        assertThat(messageIds(index.search("SPRING", null, 0, 10, 1.2f, 0.75f))).containsExactly(2L);
+        assertThat(index.search("없는단어", null, 0, 10, 1.2f, 0.75f).totalHits()).isZero();
+    }
+
+    @Test
+    void matchesSingleHangulCharacter() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, 1, "오늘 날씨가 좋네요");
+        index.add(2, 1, "내일 만나요");
+        index.add(3, 2, "날");
+
+        assertThat(SearchTokenizer.unigrams("날씨가 a 날")).containsExactly("날", "씨", "가");
+        assertThat(messageIds(index.search("날", null, 0, 10, 1.2f, 0.75f))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(messageIds(index.search("만", null, 0, 10, 1.2f, 0.75f))).containsExactly(2L);
+    }
+
+    @Test
+    void returnsEmptyPageBeyondResults() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1, 1, "날씨 좋네요");
+
+        InvertedIndex.Result result = index.search("날씨", null, Integer.MAX_VALUE, 100, 1.2f, 0.75f);
+        assertThat(result.hits()).isEmpty();
+        assertThat(result.totalHits()).isEqualTo(1);
+    }
+
+    @Test
+    void decodesCompressedPostingsWithLargeGaps() {
+        PostingList postingList = new PostingList();
+        postingList.add(0, 1);
+        postingList.add(200, 300);
+        postingList.add(1_000_000, 2);
+
+        StringBuilder decoded = new StringBuilder();
+        postingList.forEach((document, frequency) -> decoded.append(document).append(':').append(frequency).append(' '));
+
+        assertThat(decoded.toString()).isEqualTo("0:1 200:300 1000000:2 ");
+        assertThat(postingList.count()).isEqualTo(3);
+    }
+
+    private static List<Long> messageIds(InvertedIndex.Result result) {
+        return result.hits().stream().map(InvertedIndex.Hit::messageId).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package annovation.chatbot.global.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgPageResponse;
+import annovation.chatbot.domain.dto.response.AIChatRoomMsgResponse;
+import annovation.chatbot.domain.repository.AIChatRoomRepository;
+import annovation.chatbot.domain.repository.AIChatRoomSummaryMessageRepository;
+import annovation.chatbot.domain.service.AIChatRoomService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "chatbot.sharding.enabled=true",
+        "chatbot.sharding.shards[0].url=jdbc:h2:mem:sharding-tests-0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "chatbot.sharding.shards[1].url=jdbc:h2:mem:sharding-tests-1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "chatbot.compaction.enabled=false",
+        "chatbot.archive.enabled=false",
+        "chatbot.memory.enabled=false",
+        "chatbot.search.rebuild-on-startup=false",
+        "chatbot.summary.mode=cumulative"
+})
+class ShardingTests {
+
+    @Autowired
+    private AIChatRoomService aiChatRoomService;
+
+    @Autowired
+    private AIChatRoomRepository aiChatRoomRepository;
+
+    @Autowired
+    private AIChatRoomSummaryMessageRepository aiChatRoomSummaryMessageRepository;
+
+    @Autowired
+    private ChatShardRouter chatShardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Test
+    void routesByRoomIdAndMovesRoomToAnotherShard() {
+        Long first = chatShardRouter.callOn(0, aiChatRoomService::createRoom).getId();
+        Long second = chatShardRouter.callOn(1, aiChatRoomService::createRoom).getId();
+
+        // 채팅방 ID 에 만든 샤드가 들어 있음
+        assertThat(chatShardRouter.shardOf(first)).isZero();
+        assertThat(chatShardRouter.shardOf(second)).isEqualTo(1);
+        assertThat(second >>> ShardDirectory.SHARD_BITS).isEqualTo(1);
+
+        aiChatRoomService.addMessage(first, "안녕", "안녕하세요");
+        aiChatRoomService.addMessage(second, "hello", "hi");
+        assertThat(chatShardRouter.callOn(1, () -> aiChatRoomRepository.existsById(first))).isFalse();
+
+        assertThat(shardRebalancer.move(first, 1)).isEqualTo(1);
+        aiChatRoomService.addMessage(first, "다시", "네");
+
+        assertThat(chatShardRouter.shardOf(first)).isEqualTo(1);
+        assertThat(aiChatRoomService.getMessages(first))
+                .extracting(AIChatRoomMsgResponse::getUserMessage)
+                .containsExactly("안녕", "다시");
+        assertThat(aiChatRoomService.getMessages(second))
+                .extracting(AIChatRoomMsgResponse::getUserMessage)
+                .containsExactly("hello");
+        assertThat(chatShardRouter.callOn(0, () -> aiChatRoomRepository.existsById(first))).isFalse();
+    }
+
+    @Test
+    void keepsMessageOrderAfterMovingToLowerShard() {
+        Long chatRoomId = chatShardRouter.callOn(1, aiChatRoomService::createRoom).getId();
+
+        // ID 구간(50 개)을 넘게 저장해서 이동 전후로 시퀀스에서 새 구간을 받게 함
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            if (i == 60) {
+                assertThat(shardRebalancer.move(chatRoomId, 0)).isZero();
+            }
+            String userMessage = "질문%03d".formatted(i);
+            aiChatRoomService.addMessage(chatRoomId, userMessage, "답변");
+            expected.add(userMessage);
+        }
+
+        // 이동 뒤 저장한 메시지의 ID 가 이전 메시지보다 큼
+        List<AIChatRoomMsgResponse> messages = aiChatRoomService.getMessages(chatRoomId);
+        assertThat(messages).extracting(AIChatRoomMsgResponse::getUserMessage).containsExactlyElementsOf(expected);
+        assertThat(messages).extracting(AIChatRoomMsgResponse::getId).isSorted().doesNotHaveDuplicates();
+
+        // ID 커서 페이지 조회도 같은 순서
+        List<String> paged = new ArrayList<>();
+        long cursor = 0;
+        while (true) {
+            AIChatRoomMsgPageResponse page = aiChatRoomService.getMessagesPage(chatRoomId, cursor, 7);
+            page.getMessages().forEach(message -> paged.add(message.getUserMessage()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            cursor = page.getNextCursor();
+        }
+        assertThat(paged).containsExactlyElementsOf(expected);
+
+        // 요약 구간(ID 순 offset 조회)도 저장 순서대로 만들어짐
+        while (aiChatRoomService.compactSummary(chatRoomId, 10)) {
+            // 남은 구간이 없을 때까지
+        }
+        String summary = chatShardRouter.callOn(0, () -> aiChatRoomSummaryMessageRepository
+                .findFirstByChatRoomIdOrderByIdDesc(chatRoomId)).orElseThrow().getMessage();
+        List<String> summarized = Pattern.compile("Q: (질문\\d+)").matcher(summary).results()
+                .map(match -> match.group(1))
+                .toList();
+        assertThat(summarized).isSorted().contains("질문000", "질문058", "질문060", "질문110");
+    }
+}
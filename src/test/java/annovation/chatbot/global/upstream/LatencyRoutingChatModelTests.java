@@ -0,0 +1,119 @@
+package annovation.chatbot.global.upstream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.global.config.ChatRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+class LatencyRoutingChatModelTests {
+
+    @Test
+    void hedgesSlowEndpointAndCancelsLoser() {
+        DelayedChatModel slow = new DelayedChatModel("slow", Duration.ofSeconds(5));
+        DelayedChatModel fast = new DelayedChatModel("fast", Duration.ofMillis(10));
+        LatencyRoutingChatModel router = router(true, slow, fast);
+
+        // 처음에는 둘 다 기록이 없으므로 목록 순서대로 slow 가 우선, hedge 로 fast 가 이김
+        assertThat(text(router.stream(new Prompt("hello")).blockFirst())).isEqualTo("fast");
+        assertThat(slow.cancelled).hasValue(1);
+
+        assertThat(text(router.call(new Prompt("hello")))).isEqualTo("fast");
+    }
+
+    @Test
+    void hedgedCallInterruptsLoser() throws InterruptedException {
+        DelayedChatModel slow = new DelayedChatModel("slow", Duration.ofSeconds(5));
+        DelayedChatModel fast = new DelayedChatModel("fast", Duration.ofMillis(10));
+        LatencyRoutingChatModel router = router(true, slow, fast);
+
+        long startedAt = System.nanoTime();
+        assertThat(text(router.call(new Prompt("hello")))).isEqualTo("fast");
+
+        // 진 쪽 동기 호출도 5 초를 기다리지 않고 중단되어야 함
+        while (slow.cancelled.get() == 0 && System.nanoTime() - startedAt < Duration.ofSeconds(2).toNanos()) {
+            Thread.sleep(10);
+        }
+        assertThat(slow.cancelled).hasValue(1);
+    }
+
+    @Test
+    void rejectsBlankEndpointName() {
+        assertThatThrownBy(() -> new LatencyRoutingChatModel.RoutedEndpoint(null,
+                new DelayedChatModel("fast", Duration.ZERO)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void routesToLowestLatencyEndpoint() {
+        DelayedChatModel slow = new DelayedChatModel("slow", Duration.ofMillis(200));
+        DelayedChatModel fast = new DelayedChatModel("fast", Duration.ofMillis(10));
+        LatencyRoutingChatModel router = router(false, slow, fast);
+
+        // 한 번씩 호출해 EWMA 를 채운 뒤에는 fast 로만 보냄
+        router.stream(new Prompt("hello")).blockLast();
+        router.stream(new Prompt("hello")).blockLast();
+        for (int i = 0; i < 3; i++) {
+            assertThat(text(router.stream(new Prompt("hello")).blockFirst())).isEqualTo("fast");
+        }
+        assertThat(slow.calls).hasValue(1);
+    }
+
+    private static LatencyRoutingChatModel router(boolean hedging, DelayedChatModel... models) {
+        ChatRoutingProperties properties = new ChatRoutingProperties();
+        properties.setHedgingEnabled(hedging);
+        properties.setHedgeDelay(Duration.ofMillis(50));
+
+        List<LatencyRoutingChatModel.RoutedEndpoint> endpoints = Arrays.stream(models)
+                .map(model -> new LatencyRoutingChatModel.RoutedEndpoint(model.name, model))
+                .toList();
+
+        return new LatencyRoutingChatModel(endpoints, properties, Schedulers.boundedElastic(),
+                new SimpleMeterRegistry());
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    // 첫 토큰까지 delay 만큼 걸리는 스텁 엔드포인트
+    private static class DelayedChatModel implements ChatModel {
+
+        private final String name;
+        private final Duration delay;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+
+        DelayedChatModel(String name, Duration delay) {
+            this.name = name;
+            this.delay = delay;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return stream(prompt).blockLast();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                calls.incrementAndGet();
+                return Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage(name)))))
+                        .delaySubscription(delay)
+                        .doOnCancel(cancelled::incrementAndGet);
+            });
+        }
+    }
+}
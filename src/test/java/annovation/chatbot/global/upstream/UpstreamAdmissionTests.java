@@ -0,0 +1,150 @@
+package annovation.chatbot.global.upstream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import annovation.chatbot.global.config.ChatAdmissionProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+class UpstreamAdmissionTests {
+
+    @Test
+    void rateLimitedResponseCarriesRetryAfter() throws Exception {
+        // 429 + Retry-After 로 응답하는 로컬 스텁 서버
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "2");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            RestClient restClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + server.getAddress().getPort())
+                    .requestInterceptor(new UpstreamRateLimitInterceptor())
+                    .build();
+
+            assertThatThrownBy(() -> restClient.post().uri("/chat/completions").retrieve().toBodilessEntity())
+                    .isInstanceOfSatisfying(UpstreamRateLimitedException.class, e -> {
+                        assertThat(e.getStatusCode()).isEqualTo(429);
+                        assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(2));
+                    });
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void retriesAfterRateLimitAndReleasesPermit() {
+        ChatAdmissionProperties properties = properties(1);
+        UpstreamAdmissionController controller = new UpstreamAdmissionController(properties, new SimpleMeterRegistry());
+
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel model = new AdmissionControlledChatModel(new StubChatModel(calls, 1), controller, properties);
+
+        assertThat(model.call(new Prompt("hello")).getResult().getOutput().getText()).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+        assertThat(controller.inFlight()).isZero();
+
+        List<String> chunks = model.stream(new Prompt("hello"))
+                .map(response -> response.getResult().getOutput().getText())
+                .contextWrite(Context.of(AdmissionControlledChatModel.QUEUE_KEY, "1"))
+                .collectList()
+                .block();
+        assertThat(chunks).containsExactly("ok");
+        assertThat(controller.inFlight()).isZero();
+    }
+
+    @Test
+    void retryTakesNewRequestToken() {
+        // 분당 요청 1 개 : 첫 시도가 토큰을 쓰므로 재시도는 허가를 받지 못하고 대기 시간 초과로 실패해야 함
+        ChatAdmissionProperties properties = properties(1);
+        properties.setRequestsPerMinute(1);
+        properties.setMaxQueueWait(Duration.ofMillis(100));
+        UpstreamAdmissionController controller = new UpstreamAdmissionController(properties, new SimpleMeterRegistry());
+
+        AtomicInteger calls = new AtomicInteger();
+        ChatModel model = new AdmissionControlledChatModel(new StubChatModel(calls, 1), controller, properties);
+
+        assertThatThrownBy(() -> model.call(new Prompt("hello")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(calls).hasValue(1);
+        assertThat(controller.inFlight()).isZero();
+    }
+
+    @Test
+    void grantsPermitsRoundRobinAcrossQueues() {
+        UpstreamAdmissionController controller =
+                new UpstreamAdmissionController(properties(1), new SimpleMeterRegistry());
+        List<String> granted = new ArrayList<>();
+
+        UpstreamAdmissionController.Permit first = controller.acquire("1", 10).block();
+        List<UpstreamAdmissionController.Permit> permits = new ArrayList<>();
+        for (String queueKey : List.of("1", "1", "2")) {
+            controller.acquire(queueKey, 10).subscribe(permit -> {
+                granted.add(queueKey);
+                permits.add(permit);
+            });
+        }
+        assertThat(controller.queued()).isEqualTo(3);
+
+        // 채팅방 1 에 먼저 쌓인 요청이 있어도 채팅방 2 가 사이에 끼어들 수 있어야 함
+        first.release(10);
+        permits.get(0).release(10);
+        permits.get(1).release(10);
+
+        assertThat(granted).containsExactly("1", "2", "1");
+        assertThat(controller.queued()).isZero();
+    }
+
+    private static ChatAdmissionProperties properties(int maxConcurrency) {
+        ChatAdmissionProperties properties = new ChatAdmissionProperties();
+        properties.setMaxConcurrency(maxConcurrency);
+        properties.setRequestsPerMinute(1000);
+        properties.setTokensPerMinute(100_000);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        return properties;
+    }
+
+    // 처음 failures 번은 Retry-After 0 의 429, 이후에는 "ok" 로 응답
+    private record StubChatModel(AtomicInteger calls, int failures) implements ChatModel {
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            if (calls.getAndIncrement() < failures) {
+                throw new UpstreamRateLimitedException(429, Duration.ZERO);
+            }
+            return response();
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> calls.getAndIncrement() % 2 == 0
+                    ? Flux.error(new UpstreamRateLimitedException(429, Duration.ZERO))
+                    : Flux.just(response()));
+        }
+
+        private static ChatResponse response() {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+        }
+    }
+}
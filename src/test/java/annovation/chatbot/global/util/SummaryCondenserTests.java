@@ -0,0 +1,79 @@
+package annovation.chatbot.global.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SummaryCondenserTests {
+
+    private static final String LONG_ANSWER = "첫 문장입니다. " + "덧붙이는 설명이 길게 이어집니다. ".repeat(5);
+
+    // summary(3) 의 최신 구간을 첫 문장만 남긴 모습
+    private static final String CONDENSED_NEWEST = "== 4번 ~ 5번 내용 요약 ==\nQ: 질문2\nA: 첫 문장입니다.\n\n";
+
+    @Test
+    void keepsShortSummaryAsIs() {
+        String summary = summary(3);
+
+        assertThat(SummaryCondenser.condense(summary, summary.length())).isSameAs(summary);
+        assertThat(SummaryCondenser.condense(null, 10)).isNull();
+    }
+
+    @Test
+    void condensesOlderSegmentsBeforeDroppingThem() {
+        String summary = summary(2);
+        String newest = segment(1);
+
+        String condensed = SummaryCondenser.condense(summary, summary.length() - 10);
+
+        // 오래된 구간의 Q/A 는 첫 문장만 남고, 최신 구간은 그대로
+        assertThat(condensed).startsWith("== 0번 ~ 1번 내용 요약 ==\nQ: 질문0\nA: 첫 문장입니다.\n");
+        assertThat(condensed).endsWith(newest);
+    }
+
+    @Test
+    void dropsOldestSegmentsWhenCondensingIsNotEnough() {
+        String condensed = SummaryCondenser.condense(summary(3), CONDENSED_NEWEST.length());
+
+        // 모든 구간을 줄여도 넘치면 오래된 구간부터 버리고 최신 구간은 남김
+        assertThat(condensed).isEqualTo(CONDENSED_NEWEST);
+    }
+
+    @Test
+    void neverExceedsMaxLength() {
+        String summary = summary(3);
+
+        for (int maxLength = 1; maxLength <= summary.length(); maxLength++) {
+            String condensed = SummaryCondenser.condense(summary, maxLength);
+
+            assertThat(condensed).hasSizeLessThanOrEqualTo(maxLength);
+
+            if (maxLength >= CONDENSED_NEWEST.length()) {
+                assertThat(condensed).contains("== 4번 ~ 5번 내용 요약 ==");
+            } else {
+                // 최신 구간 하나만으로도 넘치면 뒤쪽(최신 내용)을 남기고 자름
+                assertThat(condensed).hasSize(maxLength);
+                assertThat(CONDENSED_NEWEST).endsWith(condensed);
+            }
+        }
+    }
+
+    // AIChatRoom.buildSummaryMessage 와 같은 형식의 누적 요약
+    private static String summary(int segments) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < segments; i++) {
+            if (i > 0) {
+                summary.append("\n\n");
+            }
+            summary.append(segment(i));
+        }
+        return summary.toString();
+    }
+
+    private static String segment(int index) {
+        return "== %d번 ~ %d번 내용 요약 ==\n".formatted(index * 2, index * 2 + 1)
+                + "Q: 질문" + index + "\n"
+                + "A: " + LONG_ANSWER + "\n"
+                + "\n";
+    }
+}
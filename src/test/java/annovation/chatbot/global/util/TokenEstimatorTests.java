@@ -0,0 +1,31 @@
+package annovation.chatbot.global.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenEstimatorTests {
+
+    @Test
+    void countsAsciiRunsPerFourCharacters() {
+        assertThat(TokenEstimator.estimate("abcd")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("abcde")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("hello world")).isEqualTo(4);
+    }
+
+    @Test
+    void countsNonAsciiCharactersAndSymbolsOneEach() {
+        assertThat(TokenEstimator.estimate("안녕하세요")).isEqualTo(5);
+
+        // "hi" 1 + "," 1 + "안녕" 2 + "!" 1, 공백은 세지 않음
+        assertThat(TokenEstimator.estimate("hi, 안녕!")).isEqualTo(5);
+    }
+
+    @Test
+    void addsOverheadPerMessage() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+        assertThat(TokenEstimator.estimate("")).isZero();
+        assertThat(TokenEstimator.estimateMessage("")).isEqualTo(TokenEstimator.MESSAGE_OVERHEAD_TOKENS);
+        assertThat(TokenEstimator.estimateMessage("안녕")).isEqualTo(2 + TokenEstimator.MESSAGE_OVERHEAD_TOKENS);
+    }
+}